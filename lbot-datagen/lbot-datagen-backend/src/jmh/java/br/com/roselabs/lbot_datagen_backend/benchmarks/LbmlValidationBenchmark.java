@@ -0,0 +1,60 @@
+package br.com.roselabs.lbot_datagen_backend.benchmarks;
+
+import br.com.roselabs.lbot_datagen_backend.lbml.LbmlParser;
+import br.com.roselabs.lbot_datagen_backend.services.AIService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LbmlValidationBenchmark {
+
+    private static final Pattern LEGACY_PATTERN = Pattern.compile("^(D\\d+[FBLR];|R\\d+[LR];)+$");
+
+    @Param({
+            "D40F;R90L;D20B;",
+            "D20F;R45L;D20F;R90L;D20F;R90L;D20F;R45L;D20F;R90R;D20F;R45R;D20F;R90R;D20F;R90R;D20F;R45R;",
+            "D40F;R90L;D20X;"
+    })
+    public String lbml;
+
+    private AIService aiService;
+    private long[] buffer;
+
+    @Setup
+    public void setUp() {
+        aiService = new AIService(null, null, null, null, null, null);
+        buffer = new long[64];
+    }
+
+    @Benchmark
+    public boolean legacyRegex() {
+        return LEGACY_PATTERN.matcher(lbml.trim().replaceAll("\\s+", "")).matches();
+    }
+
+    @Benchmark
+    public boolean aiServiceIsValid() {
+        return aiService.isValidLBML(lbml);
+    }
+
+    @Benchmark
+    public int parserIntoBuffer() {
+        return LbmlParser.parse(lbml, buffer);
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.roselabs.lbot_datagen_backend.benchmarks;
+
+import br.com.roselabs.lbot_datagen_backend.inference.CharTokenizer;
+import br.com.roselabs.lbot_datagen_backend.inference.GptConfig;
+import br.com.roselabs.lbot_datagen_backend.inference.GptModel;
+import br.com.roselabs.lbot_datagen_backend.inference.GptWeights;
+import br.com.roselabs.lbot_datagen_backend.inference.LocalGptChatModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Forward-pass cost of the lbot-v3 architecture with random weights; {@code maxTokens} fixes the output
+ * length since random weights never emit the newline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocalGptBenchmark {
+
+    private static final String ALPHABET = "\n ->0123456789;BDFLRabcdefghijlmnopqrstuvxzáãçéêíóú";
+
+    @Param({"1", "20"})
+    public int maxTokens;
+
+    private LocalGptChatModel chatModel;
+    private Prompt prompt;
+
+    @Setup
+    public void setUp() {
+        int[] vocabulary = ALPHABET.codePoints().sorted().toArray();
+        GptConfig config = new GptConfig(128, vocabulary.length, 6, 6, 384);
+        Random random = new Random(1);
+        int e = config.getEmbedding();
+        GptWeights.Layer[] layers = new GptWeights.Layer[config.getLayers()];
+        for (int i = 0; i < layers.length; i++) {
+            layers[i] = new GptWeights.Layer(ones(e), new float[e], random(random, 3 * e * e), new float[3 * e],
+                    random(random, e * e), new float[e], ones(e), new float[e], random(random, 4 * e * e),
+                    new float[4 * e], random(random, 4 * e * e), new float[e]);
+        }
+        GptWeights weights = new GptWeights(config, new CharTokenizer(vocabulary),
+                random(random, config.getVocabSize() * e), random(random, config.getBlockSize() * e), layers,
+                ones(e), new float[e]);
+
+        chatModel = new LocalGptChatModel(new GptModel(weights), maxTokens, 5);
+        prompt = new Prompt("ande 2 metros para frente e vire 90 graus para a direita",
+                ChatOptions.builder().temperature(0D).build());
+    }
+
+    @Benchmark
+    public ChatResponse generate() {
+        return chatModel.call(prompt);
+    }
+
+    private static float[] ones(int length) {
+        float[] values = new float[length];
+        Arrays.fill(values, 1f);
+        return values;
+    }
+
+    private static float[] random(Random random, int length) {
+        float[] values = new float[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = (float) (random.nextGaussian() * 0.02);
+        }
+        return values;
+    }
+}
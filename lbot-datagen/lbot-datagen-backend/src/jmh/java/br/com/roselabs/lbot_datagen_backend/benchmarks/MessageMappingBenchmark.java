@@ -0,0 +1,49 @@
+package br.com.roselabs.lbot_datagen_backend.benchmarks;
+
+import br.com.roselabs.lbot_datagen_backend.dtos.MessageDto;
+import br.com.roselabs.lbot_datagen_backend.entities.Chat;
+import br.com.roselabs.lbot_datagen_backend.entities.Message;
+import br.com.roselabs.lbot_datagen_backend.entities.PipelineStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageMappingBenchmark {
+
+    private Message message;
+
+    @Setup
+    public void setUp() {
+        Chat chat = Chat.builder().id(UUID.randomUUID()).build();
+        message = Message.builder()
+                .id(UUID.randomUUID())
+                .prompt("ande 2 metros para frente e gire 90 graus à direita")
+                .normalizedPrompt("ande 200 cm para frente e gire 90 graus à direita")
+                .output("D200F;R90R;")
+                .status(PipelineStatus.SUCCESS)
+                .grade(5)
+                .chat(chat)
+                .build();
+    }
+
+    @Benchmark
+    public MessageDto toDto() {
+        return new MessageDto(message);
+    }
+}
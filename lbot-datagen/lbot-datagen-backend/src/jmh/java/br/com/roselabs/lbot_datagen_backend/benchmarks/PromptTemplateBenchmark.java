@@ -0,0 +1,50 @@
+package br.com.roselabs.lbot_datagen_backend.benchmarks;
+
+import br.com.roselabs.lbot_datagen_backend.prompts.PromptRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PromptTemplateBenchmark {
+
+    @Param({PromptRegistry.CONVERT, PromptRegistry.NORMALIZE})
+    public String name;
+
+    private PromptRegistry promptRegistry;
+
+    @Setup
+    public void setUp() {
+        promptRegistry = new PromptRegistry("", Duration.ofSeconds(5));
+        promptRegistry.loadAll();
+    }
+
+    @Benchmark
+    public String loadPromptFromFile() throws IOException {
+        return new ClassPathResource("static/prompts/" + name + ".txt").getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String promptRegistry() {
+        return promptRegistry.get(name).getContent();
+    }
+}
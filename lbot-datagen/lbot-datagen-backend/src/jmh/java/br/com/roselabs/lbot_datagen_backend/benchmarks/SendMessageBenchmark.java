@@ -0,0 +1,100 @@
+package br.com.roselabs.lbot_datagen_backend.benchmarks;
+
+import br.com.roselabs.lbot_datagen_backend.admission.LlmAdmission;
+import br.com.roselabs.lbot_datagen_backend.cache.LlmResponseCache;
+import br.com.roselabs.lbot_datagen_backend.dtos.MessageDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.SendMessageDto;
+import br.com.roselabs.lbot_datagen_backend.entities.Chat;
+import br.com.roselabs.lbot_datagen_backend.hedging.HedgedExecutor;
+import br.com.roselabs.lbot_datagen_backend.idempotency.RequestCoalescer;
+import br.com.roselabs.lbot_datagen_backend.metrics.PipelineMetrics;
+import br.com.roselabs.lbot_datagen_backend.normalization.LocalUnitNormalizer;
+import br.com.roselabs.lbot_datagen_backend.pipeline.MessagePipeline;
+import br.com.roselabs.lbot_datagen_backend.prompts.PromptRegistry;
+import br.com.roselabs.lbot_datagen_backend.repositories.ChatRepository;
+import br.com.roselabs.lbot_datagen_backend.repositories.MessageRepository;
+import br.com.roselabs.lbot_datagen_backend.robot.RobotGateway;
+import br.com.roselabs.lbot_datagen_backend.services.AIService;
+import br.com.roselabs.lbot_datagen_backend.services.ChatService;
+import br.com.roselabs.lbot_datagen_backend.services.MessageService;
+import br.com.roselabs.lbot_datagen_backend.services.NearDuplicateService;
+import br.com.roselabs.lbot_datagen_backend.services.RobotDispatchService;
+import br.com.roselabs.lbot_datagen_backend.tracing.MessageTraceRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SendMessageBenchmark {
+
+    @Param({"0", "20"})
+    public long latencyMillis;
+
+    @Param({"ande 2 metros para frente", "ande alguns metros para frente"})
+    public String prompt;
+
+    @Param({"0", "10000"})
+    public int cacheEntries;
+
+    private MessageService messageService;
+    private SendMessageDto request;
+
+    @Setup
+    public void setUp() {
+        Chat chat = Chat.builder().id(UUID.randomUUID()).build();
+        StubChatModel chatModel = new StubChatModel(latencyMillis, "ande 200 cm para frente", "D200F;");
+        LlmResponseCache cache = new LlmResponseCache(cacheEntries, Duration.ofHours(1), "", new ObjectMapper());
+
+        PromptRegistry promptRegistry = new PromptRegistry("", Duration.ofSeconds(5));
+        promptRegistry.loadAll();
+
+        PipelineMetrics pipelineMetrics = new PipelineMetrics(new SimpleMeterRegistry());
+        HedgedExecutor hedgedExecutor = new HedgedExecutor(ForkJoinPool.commonPool(), pipelineMetrics, false, false,
+                95, Duration.ofMillis(300), 0.1);
+        LlmAdmission llmAdmission = new LlmAdmission(pipelineMetrics, false, 16, 64, Duration.ofSeconds(2),
+                Duration.ofSeconds(1), 128, "");
+        AIService aiService = new AIService(chatModel, cache, promptRegistry, pipelineMetrics, hedgedExecutor,
+                llmAdmission);
+        MessageRepository messageRepository = StubRepositories.returning(MessageRepository.class, null);
+        MessageTraceRegistry traceRegistry = new MessageTraceRegistry(10000);
+        NearDuplicateService nearDuplicateService = new NearDuplicateService(messageRepository, aiService, null,
+                false, 0.8, 512, 5000, Duration.ofSeconds(1), Duration.ofMinutes(5));
+        MessagePipeline pipeline = new MessagePipeline(aiService, new LocalUnitNormalizer(), messageRepository,
+                traceRegistry, pipelineMetrics, hedgedExecutor, nearDuplicateService);
+        ChatService chatService = new ChatService(StubRepositories.returning(ChatRepository.class, chat));
+        RobotGateway robotGateway = new RobotGateway("", Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ZERO);
+        RobotDispatchService robotDispatchService = new RobotDispatchService(robotGateway, messageRepository,
+                traceRegistry, false);
+
+        RequestCoalescer requestCoalescer = new RequestCoalescer(pipelineMetrics, Duration.ofMinutes(10), 10000);
+
+        messageService = new MessageService(chatService, pipeline, messageRepository, robotDispatchService,
+                requestCoalescer);
+        request = new SendMessageDto(prompt, null, chat.getId());
+    }
+
+    @Benchmark
+    public MessageDto sendMessage() {
+        return messageService.sendMessage(request);
+    }
+}
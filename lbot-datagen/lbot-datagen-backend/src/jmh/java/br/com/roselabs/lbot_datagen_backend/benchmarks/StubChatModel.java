@@ -0,0 +1,59 @@
+package br.com.roselabs.lbot_datagen_backend.benchmarks;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+public class StubChatModel implements ChatModel {
+
+    private final long latencyMillis;
+    private final String normalizedResponse;
+    private final String lbmlResponse;
+
+    public StubChatModel(long latencyMillis, String normalizedResponse, String lbmlResponse) {
+        this.latencyMillis = latencyMillis;
+        this.normalizedResponse = normalizedResponse;
+        this.lbmlResponse = lbmlResponse;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        sleep();
+        return response(responseFor(prompt));
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        String text = responseFor(prompt);
+        int middle = text.length() / 2;
+        return Flux.just(text.substring(0, middle), text.substring(middle))
+                .delayElements(Duration.ofMillis(Math.max(1, latencyMillis / 2)))
+                .map(this::response);
+    }
+
+    private String responseFor(Prompt prompt) {
+        String model = prompt.getOptions() == null ? null : prompt.getOptions().getModel();
+        return "gpt-4.1-nano".equals(model) ? normalizedResponse : lbmlResponse;
+    }
+
+    private ChatResponse response(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+
+    private void sleep() {
+        if (latencyMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.roselabs.lbot_datagen_backend.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+
+final class StubRepositories {
+
+    private StubRepositories() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T returning(Class<T> type, Object entity) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "findById":
+                    return Optional.ofNullable(entity);
+                case "save":
+                    return args[0];
+                case "toString":
+                    return "Stub" + type.getSimpleName();
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+}
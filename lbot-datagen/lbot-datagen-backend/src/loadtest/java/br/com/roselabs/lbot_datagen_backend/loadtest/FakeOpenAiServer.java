@@ -0,0 +1,360 @@
+package br.com.roselabs.lbot_datagen_backend.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * OpenAI-compatible {@code /v1/chat/completions} endpoint that replays recorded normalization and conversion
+ * outputs instead of calling a model. Requests for {@code gpt-4.1-nano} are answered with the recorded
+ * normalization of the user prompt, every other model with the recorded LBML for the first user message, so
+ * validation retries replay the same recording. Both plain and streamed ({@code "stream": true}) completions
+ * are supported, with usage figures so token accounting keeps working.
+ * <p>
+ * Each response is delayed by a sample of {@code latency}; {@code errorRate} of the requests fail with 500 and
+ * {@code invalidLbmlRate} of the conversions answer with text the LBML validator rejects.
+ */
+public class FakeOpenAiServer implements AutoCloseable {
+
+    static final String NORMALIZATION_MODEL = "gpt-4.1-nano";
+    private static final String INVALID_LBML = "Desculpe, não consegui entender o comando.";
+    private static final String DEFAULT_LBML = "D50F;";
+
+    static {
+        // Without TCP_NODELAY delayed ACKs add ~40 ms to every small response of the JDK server.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final ObjectMapper objectMapper;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "fake-openai");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, String> normalizations = new HashMap<>();
+    private final Map<String, String> conversions = new HashMap<>();
+    private final LatencyDistribution latency;
+    private final double errorRate;
+    private final double invalidLbmlRate;
+    private final SplittableRandom seed;
+
+    private final AtomicLong normalizationCalls = new AtomicLong();
+    private final AtomicLong conversionCalls = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicLong injectedInvalid = new AtomicLong();
+    private final AtomicLong unrecorded = new AtomicLong();
+
+    public FakeOpenAiServer(ObjectMapper objectMapper, List<Recording> recordings, LatencyDistribution latency,
+                            double errorRate, double invalidLbmlRate, long randomSeed) throws IOException {
+        this.objectMapper = objectMapper;
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.invalidLbmlRate = invalidLbmlRate;
+        this.seed = new SplittableRandom(randomSeed);
+        for (Recording recording : recordings) {
+            normalizations.put(recording.getPrompt(), recording.getNormalized());
+            conversions.put(recording.getNormalized(), recording.getLbml());
+            conversions.putIfAbsent(recording.getPrompt(), recording.getLbml());
+        }
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/v1/chat/completions", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public static List<Recording> loadRecordings(ObjectMapper objectMapper, String location) throws IOException {
+        TypeReference<List<Recording>> type = new TypeReference<>() {
+        };
+        if (location == null || location.isBlank()) {
+            try (InputStream in = FakeOpenAiServer.class.getResourceAsStream("/loadtest/recordings.json")) {
+                if (in == null) {
+                    throw new IOException("Gravações padrão não encontradas no classpath");
+                }
+                return objectMapper.readValue(in, type);
+            }
+        }
+        return objectMapper.readValue(Files.readAllBytes(Path.of(location)), type);
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public Map<String, Long> getCounters() {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        counters.put("normalizations", normalizationCalls.get());
+        counters.put("conversions", conversionCalls.get());
+        counters.put("injectedErrors", injectedErrors.get());
+        counters.put("injectedInvalidLbml", injectedInvalid.get());
+        counters.put("unrecordedPrompts", unrecorded.get());
+        return counters;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            SplittableRandom random;
+            synchronized (seed) {
+                random = seed.split();
+            }
+
+            String model = request.path("model").asText();
+            boolean normalization = NORMALIZATION_MODEL.equals(model);
+            (normalization ? normalizationCalls : conversionCalls).incrementAndGet();
+            long delayMillis = latency.sampleMillis(random);
+
+            if (random.nextDouble() < errorRate) {
+                injectedErrors.incrementAndGet();
+                sleep(delayMillis);
+                sendJson(exchange, 500, error("Falha injetada pelo servidor falso"));
+                return;
+            }
+
+            String content = normalization ? normalize(request) : convert(request, random);
+            if (request.path("stream").asBoolean()) {
+                stream(exchange, model, content, delayMillis);
+            } else {
+                sleep(delayMillis);
+                sendJson(exchange, 200, completion(model, content));
+            }
+        }
+    }
+
+    private String normalize(JsonNode request) {
+        String prompt = lastUserMessage(request);
+        String normalized = normalizations.get(prompt);
+        if (normalized == null) {
+            unrecorded.incrementAndGet();
+            return prompt;
+        }
+        return normalized;
+    }
+
+    private String convert(JsonNode request, SplittableRandom random) {
+        if (random.nextDouble() < invalidLbmlRate) {
+            injectedInvalid.incrementAndGet();
+            return INVALID_LBML;
+        }
+        String lbml = conversions.get(firstUserMessage(request));
+        if (lbml == null) {
+            unrecorded.incrementAndGet();
+            return DEFAULT_LBML;
+        }
+        return lbml;
+    }
+
+    /**
+     * Streams the content one LBML command per chunk: half of the delay before the first chunk, the rest spread
+     * over the remaining ones, followed by the usage chunk and {@code [DONE]}.
+     */
+    private void stream(HttpExchange exchange, String model, String content, long delayMillis) throws IOException {
+        List<String> chunks = splitCommands(content);
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+
+        sleep(delayMillis / 2);
+        long gap = chunks.size() > 1 ? (delayMillis - delayMillis / 2) / (chunks.size() - 1) : 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            if (i > 0) {
+                sleep(gap);
+            }
+            ObjectNode delta = objectMapper.createObjectNode();
+            if (i == 0) {
+                delta.put("role", "assistant");
+            }
+            delta.put("content", chunks.get(i));
+            writeEvent(out, chunk(model, delta, null));
+        }
+        writeEvent(out, chunk(model, objectMapper.createObjectNode(), "stop"));
+
+        ObjectNode usage = chunk(model, null, null);
+        usage.set("usage", usage(content));
+        writeEvent(out, usage);
+        out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private ObjectNode completion(String model, String content) {
+        ObjectNode response = envelope(model, "chat.completion");
+        ObjectNode choice = response.putArray("choices").addObject();
+        choice.put("index", 0);
+        ObjectNode message = choice.putObject("message");
+        message.put("role", "assistant");
+        message.put("content", content);
+        choice.put("finish_reason", "stop");
+        response.set("usage", usage(content));
+        return response;
+    }
+
+    private ObjectNode chunk(String model, ObjectNode delta, String finishReason) {
+        ObjectNode chunk = envelope(model, "chat.completion.chunk");
+        ArrayNode choices = chunk.putArray("choices");
+        if (delta != null) {
+            ObjectNode choice = choices.addObject();
+            choice.put("index", 0);
+            choice.set("delta", delta);
+            if (finishReason != null) {
+                choice.put("finish_reason", finishReason);
+            } else {
+                choice.putNull("finish_reason");
+            }
+        }
+        return chunk;
+    }
+
+    private ObjectNode envelope(String model, String object) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("id", "chatcmpl-fake");
+        node.put("object", object);
+        node.put("created", System.currentTimeMillis() / 1000);
+        node.put("model", model);
+        return node;
+    }
+
+    /**
+     * Rough token counts (four characters per token) with a fixed system prompt cost.
+     */
+    private ObjectNode usage(String content) {
+        int completionTokens = Math.max(1, content.length() / 4);
+        int promptTokens = 1200;
+        ObjectNode usage = objectMapper.createObjectNode();
+        usage.put("prompt_tokens", promptTokens);
+        usage.put("completion_tokens", completionTokens);
+        usage.put("total_tokens", promptTokens + completionTokens);
+        return usage;
+    }
+
+    private ObjectNode error(String message) {
+        ObjectNode node = objectMapper.createObjectNode();
+        ObjectNode error = node.putObject("error");
+        error.put("message", message);
+        error.put("type", "server_error");
+        return node;
+    }
+
+    private static String lastUserMessage(JsonNode request) {
+        String last = "";
+        for (JsonNode message : request.path("messages")) {
+            if ("user".equals(message.path("role").asText())) {
+                last = message.path("content").asText();
+            }
+        }
+        return last;
+    }
+
+    private static String firstUserMessage(JsonNode request) {
+        for (JsonNode message : request.path("messages")) {
+            if ("user".equals(message.path("role").asText())) {
+                return message.path("content").asText();
+            }
+        }
+        return "";
+    }
+
+    private static List<String> splitCommands(String content) {
+        List<String> chunks = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < content.length(); i++) {
+            if (content.charAt(i) == ';') {
+                chunks.add(content.substring(start, i + 1));
+                start = i + 1;
+            }
+        }
+        if (start < content.length() || chunks.isEmpty()) {
+            chunks.add(content.substring(start));
+        }
+        return chunks;
+    }
+
+    private void sendJson(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private void writeEvent(OutputStream out, JsonNode event) throws IOException {
+        out.write(("data: " + objectMapper.writeValueAsString(event) + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * One recorded exchange: the raw prompt, its normalization and the LBML produced for it.
+     */
+    public static class Recording {
+
+        private String prompt;
+        private String normalized;
+        private String lbml;
+
+        public String getPrompt() {
+            return prompt;
+        }
+
+        public void setPrompt(String prompt) {
+            this.prompt = prompt;
+        }
+
+        public String getNormalized() {
+            return normalized;
+        }
+
+        public void setNormalized(String normalized) {
+            this.normalized = normalized;
+        }
+
+        public String getLbml() {
+            return lbml;
+        }
+
+        public void setLbml(String lbml) {
+            this.lbml = lbml;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package br.com.roselabs.lbot_datagen_backend.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.util.SplittableRandom;
+
+/**
+ * Response time of the fake model, parsed from one of:
+ * <ul>
+ *     <li>{@code fixed:200ms}</li>
+ *     <li>{@code uniform:100ms:400ms}</li>
+ *     <li>{@code lognormal:300ms:0.5} &mdash; median and sigma; real LLM latencies have this long right tail</li>
+ * </ul>
+ */
+public final class LatencyDistribution {
+
+    private final String kind;
+    private final long firstMillis;
+    private final long secondMillis;
+    private final double sigma;
+
+    private LatencyDistribution(String kind, long firstMillis, long secondMillis, double sigma) {
+        this.kind = kind;
+        this.firstMillis = firstMillis;
+        this.secondMillis = secondMillis;
+        this.sigma = sigma;
+    }
+
+    public static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().split(":");
+        switch (parts[0]) {
+            case "fixed" -> {
+                requireParts(spec, parts, 2);
+                return new LatencyDistribution("fixed", millis(parts[1]), 0, 0);
+            }
+            case "uniform" -> {
+                requireParts(spec, parts, 3);
+                long min = millis(parts[1]);
+                long max = millis(parts[2]);
+                if (max < min) {
+                    throw new IllegalArgumentException("Latência máxima menor que a mínima: " + spec);
+                }
+                return new LatencyDistribution("uniform", min, max, 0);
+            }
+            case "lognormal" -> {
+                requireParts(spec, parts, 3);
+                return new LatencyDistribution("lognormal", millis(parts[1]), 0, Double.parseDouble(parts[2]));
+            }
+            default -> throw new IllegalArgumentException("Distribuição de latência desconhecida: " + spec);
+        }
+    }
+
+    public long sampleMillis(SplittableRandom random) {
+        return switch (kind) {
+            case "uniform" -> firstMillis + (long) (random.nextDouble() * (secondMillis - firstMillis + 1));
+            case "lognormal" -> Math.round(firstMillis * Math.exp(sigma * gaussian(random)));
+            default -> firstMillis;
+        };
+    }
+
+    @Override
+    public String toString() {
+        return switch (kind) {
+            case "uniform" -> "uniform " + firstMillis + "-" + secondMillis + " ms";
+            case "lognormal" -> "lognormal median " + firstMillis + " ms, sigma " + sigma;
+            default -> "fixed " + firstMillis + " ms";
+        };
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        double u1 = 1 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+    }
+
+    private static long millis(String value) {
+        return DurationStyle.detectAndParse(value).toMillis();
+    }
+
+    private static void requireParts(String spec, String[] parts, int expected) {
+        if (parts.length != expected) {
+            throw new IllegalArgumentException("Distribuição de latência inválida: " + spec);
+        }
+    }
+}
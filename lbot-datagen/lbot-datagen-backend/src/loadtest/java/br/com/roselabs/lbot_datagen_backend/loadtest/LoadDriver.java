@@ -0,0 +1,273 @@
+package br.com.roselabs.lbot_datagen_backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Open-loop driver: requests are scheduled at a fixed rate whatever the response times are, the way independent
+ * users arrive, and each one picks an operation from a weighted mix of {@code GET /chats}, {@code POST /messages}
+ * and {@code POST /messages/evaluate}. Messages go to chats created earlier in the run and grades to messages
+ * created earlier, so the script follows the dataset-generation workflow of the frontend.
+ * <p>
+ * When {@code maxInFlight} requests are already outstanding a scheduled request is dropped and counted instead
+ * of queued, so an overloaded server shows up as drops and long tails rather than as a slower arrival rate.
+ */
+@Slf4j
+public class LoadDriver {
+
+    public static final String CHATS = "GET /chats";
+    public static final String MESSAGES = "POST /messages";
+    public static final String EVALUATE = "POST /messages/evaluate";
+
+    private static final int ID_POOL_SIZE = 1024;
+
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final List<String> prompts;
+    private final Map<String, Integer> mix;
+    private final int maxInFlight;
+    private final Duration requestTimeout;
+    private final SplittableRandom seed;
+    private final HttpClient httpClient;
+
+    private final Map<String, OperationStats> stats = new LinkedHashMap<>();
+    private final IdPool chatIds = new IdPool();
+    private final IdPool messageIds = new IdPool();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long measureFromNanos;
+
+    public LoadDriver(ObjectMapper objectMapper, String baseUrl, List<String> prompts, Map<String, Integer> mix,
+                      int maxInFlight, Duration requestTimeout, long randomSeed) {
+        if (prompts.isEmpty()) {
+            throw new IllegalArgumentException("Nenhum prompt para enviar");
+        }
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.prompts = prompts;
+        this.mix = mix;
+        this.maxInFlight = maxInFlight;
+        this.requestTimeout = requestTimeout;
+        this.seed = new SplittableRandom(randomSeed);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        for (String operation : List.of(CHATS, MESSAGES, EVALUATE)) {
+            stats.put(operation, new OperationStats(operation));
+        }
+    }
+
+    /**
+     * Parses a mix such as {@code chats:1,messages:6,evaluate:3} into operation weights.
+     */
+    public static Map<String, Integer> parseMix(String spec) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mistura inválida: " + spec);
+            }
+            String operation = switch (parts[0].trim()) {
+                case "chats" -> CHATS;
+                case "messages" -> MESSAGES;
+                case "evaluate" -> EVALUATE;
+                default -> throw new IllegalArgumentException("Operação desconhecida: " + parts[0]);
+            };
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Peso negativo: " + entry);
+            }
+            weights.put(operation, weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("A mistura precisa de ao menos um peso positivo: " + spec);
+        }
+        return weights;
+    }
+
+    /**
+     * Runs {@code warmup} without recording, then {@code duration} at {@code rate} requests per second, and waits
+     * for the outstanding requests to finish.
+     *
+     * @param onMeasureStart called once the warm-up is over
+     */
+    public void run(double rate, Duration warmup, Duration duration, Runnable onMeasureStart)
+            throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(maxInFlight, runnable -> {
+            Thread thread = new Thread(runnable, "load-driver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        measureFromNanos = start + warmup.toNanos();
+        long end = measureFromNanos + duration.toNanos();
+        boolean measuring = warmup.isZero();
+        if (measuring) {
+            onMeasureStart.run();
+        }
+
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * intervalNanos;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            if (!measuring && scheduled >= measureFromNanos) {
+                measuring = true;
+                onMeasureStart.run();
+            }
+            if (!inFlight.tryAcquire()) {
+                if (scheduled >= measureFromNanos) {
+                    dropped.incrementAndGet();
+                }
+                continue;
+            }
+            SplittableRandom random;
+            synchronized (seed) {
+                random = seed.split();
+            }
+            workers.execute(() -> {
+                try {
+                    execute(pickOperation(random), scheduled, random);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+
+        workers.shutdown();
+        if (!workers.awaitTermination(requestTimeout.toMillis() + 5_000, TimeUnit.MILLISECONDS)) {
+            log.warn("Requisições ainda pendentes ao final do teste de carga");
+            workers.shutdownNow();
+        }
+    }
+
+    public Map<String, OperationStats> getStats() {
+        return stats;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private String pickOperation(SplittableRandom random) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int ticket = random.nextInt(total);
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            ticket -= entry.getValue();
+            if (ticket < 0) {
+                return entry.getKey();
+            }
+        }
+        return CHATS;
+    }
+
+    /**
+     * Falls back to the operation that produces the missing id when there is nothing to send a message to or
+     * grade yet.
+     */
+    private void execute(String operation, long scheduled, SplittableRandom random) {
+        String messageId = EVALUATE.equals(operation) ? messageIds.pick(random) : null;
+        if (EVALUATE.equals(operation) && messageId == null) {
+            operation = MESSAGES;
+        }
+        String chatId = MESSAGES.equals(operation) ? chatIds.pick(random) : null;
+        if (MESSAGES.equals(operation) && chatId == null) {
+            operation = CHATS;
+        }
+
+        HttpRequest request = switch (operation) {
+            case MESSAGES -> post("/messages", Map.of(
+                    "prompt", prompts.get(random.nextInt(prompts.size())),
+                    "chatId", chatId))
+                    .header("Idempotency-Key", UUID.randomUUID().toString())
+                    .build();
+            case EVALUATE -> post("/messages/evaluate", Map.of(
+                    "messageId", messageId,
+                    "grade", 1 + random.nextInt(5)))
+                    .build();
+            default -> HttpRequest.newBuilder(URI.create(baseUrl + "/chats"))
+                    .timeout(requestTimeout)
+                    .GET()
+                    .build();
+        };
+
+        OperationStats operationStats = stats.get(operation);
+        boolean recorded = scheduled >= measureFromNanos;
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (recorded) {
+                operationStats.record(response.statusCode(), System.nanoTime() - scheduled);
+            }
+            if (response.statusCode() / 100 == 2 && !EVALUATE.equals(operation)) {
+                JsonNode body = objectMapper.readTree(response.body());
+                (CHATS.equals(operation) ? chatIds : messageIds).add(body.path("id").asText());
+            }
+        } catch (IOException e) {
+            if (recorded) {
+                operationStats.recordTransportError(System.nanoTime() - scheduled);
+            }
+            log.debug("Falha de transporte em {}: {}", operation, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private HttpRequest.Builder post(String path, Map<String, Object> body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Ring of the most recent ids created during the run.
+     */
+    private static final class IdPool {
+
+        private final AtomicReferenceArray<String> ids = new AtomicReferenceArray<>(ID_POOL_SIZE);
+        private final AtomicLong added = new AtomicLong();
+
+        void add(String id) {
+            if (id != null && !id.isEmpty()) {
+                ids.set((int) (added.getAndIncrement() % ID_POOL_SIZE), id);
+            }
+        }
+
+        /**
+         * A random recent id, or null when none was stored yet.
+         */
+        String pick(SplittableRandom random) {
+            int size = (int) Math.min(added.get(), ID_POOL_SIZE);
+            return size == 0 ? null : ids.get(random.nextInt(size));
+        }
+    }
+}
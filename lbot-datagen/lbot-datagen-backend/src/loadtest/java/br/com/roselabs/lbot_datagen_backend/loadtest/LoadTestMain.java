@@ -0,0 +1,245 @@
+package br.com.roselabs.lbot_datagen_backend.loadtest;
+
+import br.com.roselabs.lbot_datagen_backend.LbotDatagenBackendApplication;
+import br.com.roselabs.lbot_datagen_backend.cache.LlmResponseCache;
+import br.com.roselabs.lbot_datagen_backend.dtos.CacheStatsDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Offline load test: starts {@link FakeOpenAiServer}, boots the application against it on a random port and
+ * drives it with {@link LoadDriver}, then prints throughput, latency percentiles, error rates and Hikari pool
+ * saturation and writes them as JSON to {@code loadtest.result}.
+ * <p>
+ * Arguments are {@code --name=value} pairs. The {@code loadtest.*} ones configure the harness (see
+ * {@link #DEFAULTS}); everything else is handed to the application, e.g.
+ * {@code --spring.datasource.hikari.maximum-pool-size=10}. Usually run through
+ * {@code mvn -Ploadtest verify -Dloadtest.rate=50}.
+ * <p>
+ * The LLM response cache is disabled by default: the recordings hold a small set of prompts, so with the cache on
+ * almost every message after the warm-up would be a hit and the run would measure the cache instead of the
+ * pipeline. {@code --loadtest.cache=on} keeps the application's cache settings; the report shows the hit ratio
+ * either way.
+ * <p>
+ * The application needs PostgreSQL. With {@code --loadtest.database=testcontainers} a throwaway
+ * {@code postgres:16-alpine} container is started (Docker required); with the default {@code env} the database
+ * comes from {@code DB_URL}, {@code DB_USERNAME} and {@code DB_PASSWORD} as usual.
+ */
+public class LoadTestMain {
+
+    private static final String PREFIX = "loadtest.";
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("loadtest.rate", "20");
+        DEFAULTS.put("loadtest.warmup", "10s");
+        DEFAULTS.put("loadtest.duration", "60s");
+        DEFAULTS.put("loadtest.mix", "chats:1,messages:6,evaluate:3");
+        DEFAULTS.put("loadtest.max-in-flight", "256");
+        DEFAULTS.put("loadtest.request-timeout", "60s");
+        DEFAULTS.put("loadtest.latency", "lognormal:400ms:0.5");
+        DEFAULTS.put("loadtest.error-rate", "0");
+        DEFAULTS.put("loadtest.invalid-lbml-rate", "0.05");
+        DEFAULTS.put("loadtest.recordings", "");
+        DEFAULTS.put("loadtest.seed", "42");
+        DEFAULTS.put("loadtest.cache", "off");
+        DEFAULTS.put("loadtest.database", "env");
+        DEFAULTS.put("loadtest.result", "target/loadtest-result.json");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--" + PREFIX) && arg.contains("=")) {
+                String name = arg.substring(2, arg.indexOf('='));
+                if (!DEFAULTS.containsKey(name)) {
+                    throw new IllegalArgumentException("Opção desconhecida: " + name);
+                }
+                options.put(name, arg.substring(arg.indexOf('=') + 1));
+            } else {
+                applicationArgs.add(arg);
+            }
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        List<FakeOpenAiServer.Recording> recordings =
+                FakeOpenAiServer.loadRecordings(objectMapper, options.get("loadtest.recordings"));
+        LatencyDistribution latency = LatencyDistribution.parse(options.get("loadtest.latency"));
+        long seed = Long.parseLong(options.get("loadtest.seed"));
+
+        boolean cache = switch (options.get("loadtest.cache")) {
+            case "on" -> true;
+            case "off" -> false;
+            default -> throw new IllegalArgumentException("loadtest.cache deve ser on ou off");
+        };
+        boolean testcontainers = switch (options.get("loadtest.database")) {
+            case "testcontainers" -> true;
+            case "env" -> false;
+            default -> throw new IllegalArgumentException("loadtest.database deve ser env ou testcontainers");
+        };
+
+        try (FakeOpenAiServer fakeOpenAi = new FakeOpenAiServer(objectMapper, recordings, latency,
+                Double.parseDouble(options.get("loadtest.error-rate")),
+                Double.parseDouble(options.get("loadtest.invalid-lbml-rate")), seed);
+             PostgreSQLContainer<?> postgres = testcontainers ? new PostgreSQLContainer<>("postgres:16-alpine") : null) {
+
+            List<String> harnessArgs = new ArrayList<>(List.of(
+                    "--server.port=0",
+                    "--lbot.llm.backend=openai",
+                    "--spring.ai.openai.api-key=fake",
+                    "--spring.ai.openai.base-url=" + fakeOpenAi.getBaseUrl()));
+            if (!cache) {
+                harnessArgs.add("--lbot.cache.max-entries=0");
+            }
+            if (postgres != null) {
+                postgres.start();
+                harnessArgs.add("--spring.datasource.url=" + postgres.getJdbcUrl());
+                harnessArgs.add("--spring.datasource.username=" + postgres.getUsername());
+                harnessArgs.add("--spring.datasource.password=" + postgres.getPassword());
+            }
+            applicationArgs.addAll(0, harnessArgs);
+
+            try (ConfigurableApplicationContext context = SpringApplication.run(LbotDatagenBackendApplication.class,
+                    applicationArgs.toArray(String[]::new));
+                 PoolSampler poolSampler = new PoolSampler(hikari(context), 50)) {
+
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                LoadDriver driver = new LoadDriver(objectMapper, baseUrl,
+                        recordings.stream().map(FakeOpenAiServer.Recording::getPrompt).toList(),
+                        LoadDriver.parseMix(options.get("loadtest.mix")),
+                        Integer.parseInt(options.get("loadtest.max-in-flight")),
+                        duration(options, "loadtest.request-timeout"), seed);
+
+                LlmResponseCache responseCache = context.getBean(LlmResponseCache.class);
+                AtomicReference<CacheStatsDto> cacheAtStart = new AtomicReference<>(responseCache.getStats());
+                Duration measured = duration(options, "loadtest.duration");
+                driver.run(Double.parseDouble(options.get("loadtest.rate")), duration(options, "loadtest.warmup"),
+                        measured, () -> {
+                            poolSampler.reset();
+                            cacheAtStart.set(responseCache.getStats());
+                        });
+
+                Map<String, Object> report = report(options, latency, driver, poolSampler, fakeOpenAi,
+                        cacheReport(cacheAtStart.get(), responseCache.getStats()), measured);
+                print(report);
+                String result = options.get("loadtest.result");
+                if (!result.isBlank()) {
+                    Path path = Path.of(result);
+                    if (path.getParent() != null) {
+                        Files.createDirectories(path.getParent());
+                    }
+                    objectMapper.writeValue(path.toFile(), report);
+                    System.out.println("Resultado gravado em " + path.toAbsolutePath());
+                }
+            }
+        }
+    }
+
+    private static HikariDataSource hikari(ConfigurableApplicationContext context) throws SQLException {
+        DataSource dataSource = context.getBean(DataSource.class);
+        if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+            throw new IllegalStateException("O teste de carga precisa do pool Hikari");
+        }
+        return dataSource.unwrap(HikariDataSource.class);
+    }
+
+    private static Duration duration(Map<String, String> options, String name) {
+        return DurationStyle.detectAndParse(options.get(name));
+    }
+
+    /**
+     * Cache lookups made during the measured window only.
+     */
+    private static Map<String, Object> cacheReport(CacheStatsDto start, CacheStatsDto end) {
+        long hits = end.getHits() - start.getHits();
+        long misses = end.getMisses() - start.getMisses();
+        Map<String, Object> cache = new LinkedHashMap<>();
+        cache.put("hits", hits);
+        cache.put("misses", misses);
+        cache.put("hitRatio", hits + misses > 0 ? (double) hits / (hits + misses) : 0.0);
+        cache.put("size", end.getSize());
+        return cache;
+    }
+
+    private static Map<String, Object> report(Map<String, String> options, LatencyDistribution latency,
+                                              LoadDriver driver, PoolSampler poolSampler,
+                                              FakeOpenAiServer fakeOpenAi, Map<String, Object> cache,
+                                              Duration measured) {
+        double seconds = measured.toMillis() / 1000.0;
+        Map<String, Object> configuration = new LinkedHashMap<>(options);
+        configuration.put("loadtest.latency", latency.toString());
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        long requests = 0;
+        long errors = 0;
+        for (OperationStats stats : driver.getStats().values()) {
+            operations.put(stats.getName(), stats.toMap(seconds));
+            requests += stats.getRequests();
+            errors += stats.getErrors();
+        }
+
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("requests", requests);
+        totals.put("throughput", requests / seconds);
+        totals.put("errorRate", requests > 0 ? (double) errors / requests : 0);
+        totals.put("dropped", driver.getDropped());
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("configuration", configuration);
+        report.put("totals", totals);
+        report.put("operations", operations);
+        report.put("hikari", poolSampler.toMap());
+        report.put("cache", cache);
+        report.put("fakeOpenAi", fakeOpenAi.getCounters());
+        return report;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(Map<String, Object> report) {
+        Map<String, Object> totals = (Map<String, Object>) report.get("totals");
+        System.out.println();
+        System.out.printf("Throughput: %.1f req/s, erros: %.2f%%, descartadas pelo cliente: %d%n",
+                (double) totals.get("throughput"), 100 * (double) totals.get("errorRate"), totals.get("dropped"));
+        System.out.printf("%-24s %9s %9s %8s %9s %9s %9s %9s %9s%n",
+                "operação", "reqs", "req/s", "erros", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Map<String, Object> operations = (Map<String, Object>) report.get("operations");
+        for (Map.Entry<String, Object> entry : operations.entrySet()) {
+            Map<String, Object> stats = (Map<String, Object>) entry.getValue();
+            System.out.printf("%-24s %9d %9.1f %7.2f%% %9.1f %9.1f %9.1f %9.1f %9.1f%n", entry.getKey(),
+                    (long) stats.get("requests"), (double) stats.get("throughput"),
+                    100 * (double) stats.get("errorRate"), (double) stats.get("p50Millis"),
+                    (double) stats.get("p90Millis"), (double) stats.get("p99Millis"),
+                    (double) stats.get("p999Millis"), (double) stats.get("maxMillis"));
+        }
+
+        Map<String, Object> hikari = (Map<String, Object>) report.get("hikari");
+        System.out.printf("Hikari: %d conexões, ativas %.1f em média (pico %d), saturado em %.1f%% das amostras, "
+                        + "espera %.1f em média (pico %d)%n",
+                (int) hikari.get("maximumPoolSize"), (double) hikari.get("meanActive"), (int) hikari.get("peakActive"),
+                100 * (double) hikari.get("saturation"), (double) hikari.get("meanPending"),
+                (int) hikari.get("peakPending"));
+        Map<String, Object> cache = (Map<String, Object>) report.get("cache");
+        System.out.printf("Cache de respostas: %.1f%% de acertos (%d acertos, %d faltas, %d entradas)%n",
+                100 * (double) cache.get("hitRatio"), (long) cache.get("hits"), (long) cache.get("misses"),
+                (int) cache.get("size"));
+        System.out.println("OpenAI falso: " + report.get("fakeOpenAi"));
+    }
+}
@@ -0,0 +1,79 @@
+package br.com.roselabs.lbot_datagen_backend.loadtest;
+
+import br.com.roselabs.lbot_datagen_backend.tracing.LatencyHistogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outcome counters and latency histogram of one scripted operation. Latencies are measured from the moment the
+ * request was scheduled, not sent, so a backed-up client does not hide server stalls (coordinated omission).
+ */
+public class OperationStats {
+
+    private final String name;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final AtomicLong successes = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong clientErrors = new AtomicLong();
+    private final AtomicLong serverErrors = new AtomicLong();
+    private final AtomicLong transportErrors = new AtomicLong();
+
+    public OperationStats(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void record(int status, long nanos) {
+        latencies.recordNanos(nanos);
+        if (status >= 200 && status < 300) {
+            successes.incrementAndGet();
+        } else if (status == 429 || status == 503) {
+            rejected.incrementAndGet();
+        } else if (status >= 400 && status < 500) {
+            clientErrors.incrementAndGet();
+        } else {
+            serverErrors.incrementAndGet();
+        }
+    }
+
+    public void recordTransportError(long nanos) {
+        latencies.recordNanos(nanos);
+        transportErrors.incrementAndGet();
+    }
+
+    public long getRequests() {
+        return latencies.getCount();
+    }
+
+    public long getErrors() {
+        return rejected.get() + clientErrors.get() + serverErrors.get() + transportErrors.get();
+    }
+
+    public double percentileMillis(double percentile) {
+        return latencies.percentileMicros(percentile) / 1000.0;
+    }
+
+    public Map<String, Object> toMap(double seconds) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("requests", getRequests());
+        map.put("throughput", seconds > 0 ? getRequests() / seconds : 0);
+        map.put("successes", successes.get());
+        map.put("rejected", rejected.get());
+        map.put("clientErrors", clientErrors.get());
+        map.put("serverErrors", serverErrors.get());
+        map.put("transportErrors", transportErrors.get());
+        map.put("errorRate", getRequests() > 0 ? (double) getErrors() / getRequests() : 0);
+        map.put("meanMillis", latencies.getMeanMicros() / 1000.0);
+        map.put("p50Millis", percentileMillis(50));
+        map.put("p90Millis", percentileMillis(90));
+        map.put("p99Millis", percentileMillis(99));
+        map.put("p999Millis", percentileMillis(99.9));
+        map.put("maxMillis", latencies.getMaxMicros() / 1000.0);
+        return map;
+    }
+}
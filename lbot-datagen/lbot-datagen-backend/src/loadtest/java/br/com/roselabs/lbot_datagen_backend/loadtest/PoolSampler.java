@@ -0,0 +1,82 @@
+package br.com.roselabs.lbot_datagen_backend.loadtest;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the Hikari pool of the application under test at a fixed interval. The pool is saturated in a sample
+ * when every connection is busy; any thread waiting for a connection means requests are queueing on the pool.
+ */
+public class PoolSampler implements AutoCloseable {
+
+    private final HikariDataSource dataSource;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hikari-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private long samples;
+    private long activeSum;
+    private long pendingSum;
+    private int peakActive;
+    private int peakPending;
+    private long saturatedSamples;
+
+    public PoolSampler(HikariDataSource dataSource, long intervalMillis) {
+        this.dataSource = dataSource;
+        scheduler.scheduleAtFixedRate(this::sample, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Forgets the samples taken so far, e.g. during warm-up.
+     */
+    public synchronized void reset() {
+        samples = 0;
+        activeSum = 0;
+        pendingSum = 0;
+        peakActive = 0;
+        peakPending = 0;
+        saturatedSamples = 0;
+    }
+
+    public synchronized Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("maximumPoolSize", dataSource.getMaximumPoolSize());
+        map.put("samples", samples);
+        map.put("meanActive", samples > 0 ? (double) activeSum / samples : 0);
+        map.put("peakActive", peakActive);
+        map.put("meanPending", samples > 0 ? (double) pendingSum / samples : 0);
+        map.put("peakPending", peakPending);
+        map.put("saturation", samples > 0 ? (double) saturatedSamples / samples : 0);
+        return map;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private synchronized void sample() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return;
+        }
+        int active = pool.getActiveConnections();
+        int pending = pool.getThreadsAwaitingConnection();
+        samples++;
+        activeSum += active;
+        pendingSum += pending;
+        peakActive = Math.max(peakActive, active);
+        peakPending = Math.max(peakPending, pending);
+        if (active >= dataSource.getMaximumPoolSize()) {
+            saturatedSamples++;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package br.com.roselabs.lbot_datagen_backend.admission;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit with a bounded wait queue that is fair across callers: waiters are queued per key and a
+ * released slot goes to the next key in round-robin order, so one chat firing many prompts cannot starve the
+ * others. Slots are handed directly to the chosen waiter, never raced for.
+ */
+public class FairBulkhead {
+
+    private final int maxConcurrency;
+    private final int queueCapacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, ArrayDeque<Waiter>> queues = new LinkedHashMap<>();
+    private int active;
+    private int queued;
+
+    public FairBulkhead(int maxConcurrency, int queueCapacity) {
+        this.maxConcurrency = maxConcurrency;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Waits up to {@code maxWaitNanos} for a slot. Returns false on timeout.
+     *
+     * @throws RejectedExecutionException when the wait queue is full
+     */
+    public boolean acquire(String key, long maxWaitNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            if (active < maxConcurrency && queued == 0) {
+                active++;
+                return true;
+            }
+            if (queued >= queueCapacity) {
+                throw new RejectedExecutionException("Fila de chamadas ao modelo cheia");
+            }
+
+            Waiter waiter = new Waiter(lock.newCondition());
+            queues.computeIfAbsent(key, ignored -> new ArrayDeque<>()).addLast(waiter);
+            queued++;
+            long remaining = maxWaitNanos;
+            try {
+                while (!waiter.granted) {
+                    if (remaining <= 0) {
+                        dequeue(key, waiter);
+                        return false;
+                    }
+                    remaining = waiter.condition.awaitNanos(remaining);
+                }
+                return true;
+            } catch (InterruptedException e) {
+                if (waiter.granted) {
+                    handOff();
+                } else {
+                    dequeue(key, waiter);
+                }
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release() {
+        lock.lock();
+        try {
+            handOff();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getActive() {
+        lock.lock();
+        try {
+            return active;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives the caller's slot to the head of the next key in line, moving that key to the back.
+     */
+    private void handOff() {
+        Iterator<Map.Entry<String, ArrayDeque<Waiter>>> iterator = queues.entrySet().iterator();
+        if (!iterator.hasNext()) {
+            active--;
+            return;
+        }
+        Map.Entry<String, ArrayDeque<Waiter>> next = iterator.next();
+        iterator.remove();
+        Waiter waiter = next.getValue().pollFirst();
+        if (!next.getValue().isEmpty()) {
+            queues.put(next.getKey(), next.getValue());
+        }
+        queued--;
+        waiter.granted = true;
+        waiter.condition.signal();
+    }
+
+    private void dequeue(String key, Waiter waiter) {
+        ArrayDeque<Waiter> queue = queues.get(key);
+        if (queue != null && queue.remove(waiter)) {
+            queued--;
+            if (queue.isEmpty()) {
+                queues.remove(key);
+            }
+        }
+    }
+
+    private static final class Waiter {
+
+        private final Condition condition;
+        private boolean granted;
+
+        private Waiter(Condition condition) {
+            this.condition = condition;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package br.com.roselabs.lbot_datagen_backend.admission;
+
+import br.com.roselabs.lbot_datagen_backend.metrics.PipelineMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Admission control in front of the LLM provider. A call first takes a slot in the {@link FairBulkhead},
+ * queued per chat for at most {@code max-wait}, then reserves a request and its estimated tokens from the
+ * model's {@link ModelRateLimit}. When either would make the caller wait longer than {@code max-wait} the
+ * call is shed with {@link LlmOverloadedException} instead, so provider throttling never reaches the retry
+ * loop and request threads do not pile up.
+ */
+@Slf4j
+@Component
+public class LlmAdmission {
+
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private final PipelineMetrics pipelineMetrics;
+    private final boolean enabled;
+    private final FairBulkhead bulkhead;
+    private final Map<String, ModelRateLimit> limits;
+    private final long maxWaitNanos;
+    private final Duration retryAfter;
+    private final int completionTokens;
+
+    public LlmAdmission(PipelineMetrics pipelineMetrics,
+                        @Value("${lbot.admission.enabled:true}") boolean enabled,
+                        @Value("${lbot.admission.max-concurrency:16}") int maxConcurrency,
+                        @Value("${lbot.admission.queue-capacity:64}") int queueCapacity,
+                        @Value("${lbot.admission.max-wait:2s}") Duration maxWait,
+                        @Value("${lbot.admission.retry-after:1s}") Duration retryAfter,
+                        @Value("${lbot.admission.completion-tokens:128}") int completionTokens,
+                        @Value("${lbot.admission.models:}") String models) {
+        this.pipelineMetrics = pipelineMetrics;
+        this.enabled = enabled;
+        this.bulkhead = new FairBulkhead(maxConcurrency, queueCapacity);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.retryAfter = retryAfter;
+        this.completionTokens = completionTokens;
+        this.limits = Arrays.stream(models.split(","))
+                .map(String::trim)
+                .filter(spec -> !spec.isEmpty())
+                .map(ModelRateLimit::parse)
+                .collect(Collectors.toMap(ModelRateLimit::getModel, Function.identity()));
+        if (enabled) {
+            log.info("Controle de admissão do LLM: {} chamadas simultâneas, fila de {}, limites para {}",
+                    maxConcurrency, queueCapacity, limits.keySet());
+        }
+    }
+
+    /**
+     * Admits one call of {@code model} on behalf of {@code caller}, blocking for at most {@code max-wait}.
+     * The returned permit must be closed when the call finishes.
+     *
+     * @throws LlmOverloadedException when the call is shed
+     */
+    public Permit admit(String model, String caller, int promptChars) {
+        return admit(model, caller, promptChars, maxWaitNanos);
+    }
+
+    /**
+     * Admits one call only if a slot and the model's budget are available right away, as for hedge requests,
+     * which are not worth queueing for. Takes one request and the estimated tokens like {@link #admit}.
+     *
+     * @throws LlmOverloadedException when the call would have to wait
+     */
+    public Permit tryAdmit(String model, String caller, int promptChars) {
+        return admit(model, caller, promptChars, 0);
+    }
+
+    private Permit admit(String model, String caller, int promptChars, long maxWaitNanos) {
+        if (!enabled) {
+            return Permit.NOOP;
+        }
+        long start = System.nanoTime();
+        try {
+            if (!bulkhead.acquire(caller, maxWaitNanos)) {
+                throw reject(model, "timeout", retryAfter);
+            }
+        } catch (RejectedExecutionException e) {
+            throw reject(model, "queue_full", retryAfter);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Espera por chamada ao modelo interrompida", e);
+        }
+
+        ModelRateLimit limit = limits.get(model);
+        int estimatedTokens = promptChars / CHARS_PER_TOKEN + completionTokens;
+        if (limit != null) {
+            long wait = limit.reserve(estimatedTokens, Math.max(0, maxWaitNanos - (System.nanoTime() - start)));
+            if (wait < 0) {
+                bulkhead.release();
+                throw reject(model, "rate_limited", Duration.ofNanos(-wait));
+            }
+            if (wait > 0 && !pause(wait)) {
+                bulkhead.release();
+                throw new IllegalStateException("Espera por chamada ao modelo interrompida");
+            }
+        }
+        return new Permit(this, limit, estimatedTokens);
+    }
+
+    public FairBulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+    private LlmOverloadedException reject(String model, String reason, Duration retryAfter) {
+        pipelineMetrics.recordAdmissionRejection(model, reason);
+        log.warn("Chamada ao modelo {} rejeitada ({}), fila com {} chamadas", model, reason, bulkhead.getQueued());
+        return new LlmOverloadedException(reason, retryAfter);
+    }
+
+    private static boolean pause(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * A slot in the bulkhead plus the tokens reserved for the call.
+     */
+    public static class Permit implements AutoCloseable {
+
+        static final Permit NOOP = new Permit(null, null, 0);
+
+        private final LlmAdmission admission;
+        private final ModelRateLimit limit;
+        private final int estimatedTokens;
+
+        Permit(LlmAdmission admission, ModelRateLimit limit, int estimatedTokens) {
+            this.admission = admission;
+            this.limit = limit;
+            this.estimatedTokens = estimatedTokens;
+        }
+
+        /**
+         * Charges or refunds the difference between the estimate and the usage reported by the provider.
+         */
+        public void recordUsage(Integer promptTokens, Integer completionTokens) {
+            if (limit == null || promptTokens == null || completionTokens == null) {
+                return;
+            }
+            limit.adjustTokens(promptTokens + completionTokens - estimatedTokens);
+        }
+
+        /**
+         * Like {@link #recordUsage} for calls the provider reported no usage for, such as a stream closed
+         * before its final chunk, using the same characters-per-token estimate as admission.
+         */
+        public void recordEstimatedUsage(int promptChars, int completionChars) {
+            recordUsage(promptChars / CHARS_PER_TOKEN, (completionChars + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN);
+        }
+
+        @Override
+        public void close() {
+            if (admission != null) {
+                admission.bulkhead.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.roselabs.lbot_datagen_backend.admission;
+
+import java.time.Duration;
+
+/**
+ * Thrown when an LLM call is shed by admission control instead of being queued. Callers should answer with
+ * 429 and {@code Retry-After}.
+ */
+public class LlmOverloadedException extends RuntimeException {
+
+    private final String reason;
+    private final Duration retryAfter;
+
+    public LlmOverloadedException(String reason, Duration retryAfter) {
+        super("Limite de chamadas ao modelo atingido (" + reason + "), tente novamente em "
+                + Math.max(1, retryAfter.toSeconds()) + " s");
+        this.reason = reason;
+        this.retryAfter = retryAfter;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * Whole seconds for the {@code Retry-After} header, rounded up.
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+}
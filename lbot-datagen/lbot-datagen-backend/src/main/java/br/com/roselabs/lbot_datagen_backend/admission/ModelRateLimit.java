@@ -0,0 +1,52 @@
+package br.com.roselabs.lbot_datagen_backend.admission;
+
+/**
+ * Requests-per-minute and tokens-per-minute budgets of one model, parsed from
+ * {@code model:requestsPerMinute:tokensPerMinute}.
+ */
+public final class ModelRateLimit {
+
+    private final String model;
+    private final TokenBucket requests;
+    private final TokenBucket tokens;
+
+    public ModelRateLimit(String model, double requestsPerMinute, double tokensPerMinute) {
+        long now = System.nanoTime();
+        this.model = model;
+        this.requests = new TokenBucket(requestsPerMinute, now);
+        this.tokens = new TokenBucket(tokensPerMinute, now);
+    }
+
+    public static ModelRateLimit parse(String spec) {
+        String[] parts = spec.split(":");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Limite inválido, esperado modelo:rpm:tpm: " + spec);
+        }
+        return new ModelRateLimit(parts[0].trim(), Double.parseDouble(parts[1].trim()),
+                Double.parseDouble(parts[2].trim()));
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    /**
+     * Reserves one request and {@code estimatedTokens} when both are available within {@code maxWaitNanos}.
+     * Returns how long the caller must wait before calling, or a negative value holding minus the wait that
+     * would have been needed when it is longer than allowed; nothing is reserved in that case.
+     */
+    public synchronized long reserve(int estimatedTokens, long maxWaitNanos) {
+        long now = System.nanoTime();
+        long wait = Math.max(requests.deficitNanos(1, now), tokens.deficitNanos(estimatedTokens, now));
+        if (wait > maxWaitNanos) {
+            return -wait;
+        }
+        requests.take(1);
+        tokens.take(estimatedTokens);
+        return wait;
+    }
+
+    public synchronized void adjustTokens(int delta) {
+        tokens.adjust(delta);
+    }
+}
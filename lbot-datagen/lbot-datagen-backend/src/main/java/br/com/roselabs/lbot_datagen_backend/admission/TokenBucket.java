@@ -0,0 +1,50 @@
+package br.com.roselabs.lbot_datagen_backend.admission;
+
+/**
+ * Token bucket refilled continuously at {@code perMinute / 60} per second, holding at most one minute of
+ * budget. The balance may go negative: a caller that reserves ahead of the refill waits for the deficit,
+ * and later callers see it too. Not thread-safe; {@link ModelRateLimit} guards it.
+ */
+final class TokenBucket {
+
+    private static final double NANOS_PER_MINUTE = 60e9;
+
+    private final double capacity;
+    private final double perNano;
+    private double balance;
+    private long refilledAt;
+
+    TokenBucket(double perMinute, long now) {
+        this.capacity = perMinute;
+        this.perNano = perMinute / NANOS_PER_MINUTE;
+        this.balance = perMinute;
+        this.refilledAt = now;
+    }
+
+    /**
+     * Nanoseconds until {@code amount} is available, 0 when it already is.
+     */
+    long deficitNanos(double amount, long now) {
+        refill(now);
+        double missing = Math.min(amount, capacity) - balance;
+        return missing <= 0 ? 0 : (long) Math.ceil(missing / perNano);
+    }
+
+    void take(double amount) {
+        balance -= Math.min(amount, capacity);
+    }
+
+    /**
+     * Corrects an earlier reservation once the real cost is known; positive deltas charge, negative refund.
+     */
+    void adjust(double delta) {
+        balance = Math.min(capacity, balance - delta);
+    }
+
+    private void refill(long now) {
+        if (now > refilledAt) {
+            balance = Math.min(capacity, balance + (now - refilledAt) * perNano);
+            refilledAt = now;
+        }
+    }
+}
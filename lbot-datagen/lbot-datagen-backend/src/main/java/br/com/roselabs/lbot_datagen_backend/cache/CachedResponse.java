@@ -0,0 +1,17 @@
+package br.com.roselabs.lbot_datagen_backend.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedResponse {
+
+    private String key;
+    private String value;
+    private long createdAt;
+}
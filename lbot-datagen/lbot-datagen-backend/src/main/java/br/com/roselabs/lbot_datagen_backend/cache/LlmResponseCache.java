@@ -0,0 +1,154 @@
+package br.com.roselabs.lbot_datagen_backend.cache;
+
+import br.com.roselabs.lbot_datagen_backend.dtos.CacheStatsDto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Component
+public class LlmResponseCache {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final String snapshotPath;
+    private final ObjectMapper objectMapper;
+
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public LlmResponseCache(@Value("${lbot.cache.max-entries:10000}") int maxEntries,
+                            @Value("${lbot.cache.ttl:7d}") Duration ttl,
+                            @Value("${lbot.cache.snapshot-path:}") String snapshotPath,
+                            ObjectMapper objectMapper) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        this.snapshotPath = snapshotPath;
+        this.objectMapper = objectMapper;
+    }
+
+    public String key(String stage, String model, double temperature, String systemPromptHash, String input) {
+        String normalizedInput = WHITESPACE.matcher(input.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+        return stage + '|' + model + '|' + temperature + '|' + systemPromptHash + '|' + normalizedInput;
+    }
+
+    public String getOrCompute(String key, Supplier<String> loader) {
+        Optional<String> cached = get(key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        String value = loader.get();
+        put(key, value);
+        return value;
+    }
+
+    public Optional<String> get(String key) {
+        synchronized (entries) {
+            CachedResponse entry = entries.get(key);
+            if (entry != null && isExpired(entry, System.currentTimeMillis())) {
+                entries.remove(key);
+                evictions.incrementAndGet();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.incrementAndGet();
+                return Optional.empty();
+            }
+            hits.incrementAndGet();
+            return Optional.of(entry.getValue());
+        }
+    }
+
+    public void put(String key, String value) {
+        synchronized (entries) {
+            entries.put(key, new CachedResponse(key, value, System.currentTimeMillis()));
+            evictOverflow();
+        }
+    }
+
+    public CacheStatsDto getStats() {
+        synchronized (entries) {
+            return new CacheStatsDto(entries.size(), hits.get(), misses.get(), evictions.get());
+        }
+    }
+
+    @PostConstruct
+    public void loadSnapshot() {
+        if (snapshotPath.isBlank() || !Files.exists(Path.of(snapshotPath))) {
+            return;
+        }
+        try {
+            List<CachedResponse> snapshot = objectMapper.readValue(Path.of(snapshotPath).toFile(),
+                    new TypeReference<List<CachedResponse>>() {});
+            long now = System.currentTimeMillis();
+            synchronized (entries) {
+                for (CachedResponse entry : snapshot) {
+                    if (!isExpired(entry, now)) {
+                        entries.put(entry.getKey(), entry);
+                    }
+                }
+                evictOverflow();
+            }
+            log.info("Cache de respostas restaurado com {} entradas de {}", entries.size(), snapshotPath);
+        } catch (IOException e) {
+            log.warn("Não foi possível restaurar o cache de {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void saveSnapshot() {
+        if (snapshotPath.isBlank()) {
+            return;
+        }
+        List<CachedResponse> snapshot;
+        synchronized (entries) {
+            snapshot = new ArrayList<>(entries.values());
+        }
+        try {
+            Path path = Path.of(snapshotPath);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            objectMapper.writeValue(path.toFile(), snapshot);
+            log.info("Cache de respostas salvo com {} entradas em {}", snapshot.size(), snapshotPath);
+        } catch (IOException e) {
+            log.warn("Não foi possível salvar o cache em {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, CachedResponse>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private boolean isExpired(CachedResponse entry, long now) {
+        return now - entry.getCreatedAt() > ttlMillis;
+    }
+}
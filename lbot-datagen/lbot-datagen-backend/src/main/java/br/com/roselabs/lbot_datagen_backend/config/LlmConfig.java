@@ -0,0 +1,44 @@
+package br.com.roselabs.lbot_datagen_backend.config;
+
+import br.com.roselabs.lbot_datagen_backend.inference.GptModel;
+import br.com.roselabs.lbot_datagen_backend.inference.GptWeights;
+import br.com.roselabs.lbot_datagen_backend.inference.LocalGptChatModel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Slf4j
+@Configuration
+public class LlmConfig {
+
+    public static final String LOCAL_BACKEND = "local";
+
+    @Bean
+    @Primary
+    public ChatModel lbotChatModel(ObjectProvider<OpenAiChatModel> openAiChatModel,
+                                   @Value("${lbot.llm.backend:openai}") String backend,
+                                   @Value("${lbot.llm.local.weights-path:}") String weightsPath,
+                                   @Value("${lbot.llm.local.max-tokens:64}") int maxTokens,
+                                   @Value("${lbot.llm.local.top-k:5}") int topK) throws IOException {
+        if (!LOCAL_BACKEND.equals(backend)) {
+            return openAiChatModel.getObject();
+        }
+        if (weightsPath.isBlank()) {
+            throw new IllegalStateException("lbot.llm.local.weights-path é obrigatório quando lbot.llm.backend=local");
+        }
+        long start = System.nanoTime();
+        GptWeights weights = GptWeights.load(Path.of(weightsPath));
+        log.info("Modelo local carregado de {} em {} ms ({} camadas, embedding {}, vocabulário {})", weightsPath,
+                (System.nanoTime() - start) / 1_000_000, weights.getConfig().getLayers(),
+                weights.getConfig().getEmbedding(), weights.getConfig().getVocabSize());
+        return new LocalGptChatModel(new GptModel(weights), maxTokens, topK);
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.roselabs.lbot_datagen_backend.controllers;
+
+import br.com.roselabs.lbot_datagen_backend.cache.LlmResponseCache;
+import br.com.roselabs.lbot_datagen_backend.dtos.CacheStatsDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final LlmResponseCache llmResponseCache;
+
+    @GetMapping("stats")
+    public ResponseEntity<CacheStatsDto> getStats() {
+        return ResponseEntity.ok(llmResponseCache.getStats());
+    }
+}
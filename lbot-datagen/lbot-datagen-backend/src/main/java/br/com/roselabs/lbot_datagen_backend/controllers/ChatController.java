@@ -1,25 +1,65 @@
 package br.com.roselabs.lbot_datagen_backend.controllers;
 
+import br.com.roselabs.lbot_datagen_backend.dtos.ChatDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.MessageDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.PageDto;
 import br.com.roselabs.lbot_datagen_backend.entities.Chat;
 import br.com.roselabs.lbot_datagen_backend.services.ChatService;
+import br.com.roselabs.lbot_datagen_backend.services.MessageService;
+import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.UUID;
+
 @RestController
 @RequestMapping("chats")
 @RequiredArgsConstructor
 public class ChatController {
 
     private final ChatService chatService;
+    private final MessageService messageService;
 
     @GetMapping
-    public ResponseEntity<Chat> createChat() {
+    public ResponseEntity<ChatDto> createChat() {
         Chat createdChat = chatService.createChat();
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdChat);
+        return ResponseEntity.status(HttpStatus.CREATED).body(new ChatDto(createdChat));
+    }
+
+    @GetMapping("history")
+    public ResponseEntity<PageDto<ChatDto>> listChats(@RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return ResponseEntity.ok(chatService.listChats(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("{chatId}")
+    public ResponseEntity<ChatDto> getChat(@PathVariable UUID chatId) {
+        return chatService.findSummary(chatId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("{chatId}/messages")
+    public ResponseEntity<PageDto<MessageDto>> listMessages(@PathVariable UUID chatId,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return ResponseEntity.ok(messageService.listMessages(chatId, cursor, limit));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
-}
\ No newline at end of file
+}
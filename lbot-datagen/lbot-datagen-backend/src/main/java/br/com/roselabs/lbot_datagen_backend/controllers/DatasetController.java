@@ -0,0 +1,53 @@
+package br.com.roselabs.lbot_datagen_backend.controllers;
+
+import br.com.roselabs.lbot_datagen_backend.dtos.DatasetFilterDto;
+import br.com.roselabs.lbot_datagen_backend.services.DatasetExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("datasets")
+@RequiredArgsConstructor
+public class DatasetController {
+
+    private static final MediaType CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+    private final DatasetExportService datasetExportService;
+
+    @GetMapping("export")
+    public ResponseEntity<StreamingResponseBody> export(@ModelAttribute DatasetFilterDto filter,
+                                                        @RequestParam(defaultValue = "jsonl") String format,
+                                                        @RequestParam(defaultValue = "false") boolean gzip) {
+        try {
+            DatasetExportService.Format exportFormat = DatasetExportService.Format.valueOf(format.toUpperCase());
+            StreamingResponseBody body = datasetExportService.export(filter, exportFormat, gzip);
+
+            String filename = "dataset." + exportFormat.name().toLowerCase() + (gzip ? ".gz" : "");
+            MediaType contentType = gzip ? GZIP
+                    : exportFormat == DatasetExportService.Format.CSV ? CSV : MediaType.APPLICATION_NDJSON;
+
+            return ResponseEntity.ok()
+                    .contentType(contentType)
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            ContentDisposition.attachment().filename(filename).build().toString())
+                    .body(body);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
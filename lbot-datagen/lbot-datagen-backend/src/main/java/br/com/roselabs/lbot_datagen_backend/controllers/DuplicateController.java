@@ -0,0 +1,60 @@
+package br.com.roselabs.lbot_datagen_backend.controllers;
+
+import br.com.roselabs.lbot_datagen_backend.dtos.DuplicateClusterDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.DuplicateStatsDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.NearDuplicateDto;
+import br.com.roselabs.lbot_datagen_backend.services.NearDuplicateService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("duplicates")
+@RequiredArgsConstructor
+public class DuplicateController {
+
+    private final NearDuplicateService nearDuplicateService;
+
+    @GetMapping
+    public ResponseEntity<List<NearDuplicateDto>> findSimilar(@RequestParam String prompt,
+                                                              @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(nearDuplicateService.findSimilar(prompt, limit));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("clusters")
+    public ResponseEntity<List<DuplicateClusterDto>> clusters(@RequestParam(defaultValue = "2") int minSize,
+                                                              @RequestParam(defaultValue = "100") int limit) {
+        try {
+            return ResponseEntity.ok(nearDuplicateService.clusters(minSize, limit));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @GetMapping("stats")
+    public ResponseEntity<DuplicateStatsDto> getStats() {
+        return ResponseEntity.ok(nearDuplicateService.getStats());
+    }
+
+    @PostMapping("warm-cache")
+    public ResponseEntity<Integer> warmCache(@RequestParam(defaultValue = "500") int limit) {
+        try {
+            return ResponseEntity.ok(nearDuplicateService.warmCache(limit));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+}
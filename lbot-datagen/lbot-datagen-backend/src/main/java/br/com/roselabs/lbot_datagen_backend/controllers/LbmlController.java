@@ -0,0 +1,31 @@
+package br.com.roselabs.lbot_datagen_backend.controllers;
+
+import br.com.roselabs.lbot_datagen_backend.dtos.LbmlDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.LbmlValidationDto;
+import br.com.roselabs.lbot_datagen_backend.lbml.LbmlOptimizer;
+import br.com.roselabs.lbot_datagen_backend.lbml.LbmlParser;
+import br.com.roselabs.lbot_datagen_backend.lbml.LbmlSyntaxException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("lbml")
+public class LbmlController {
+
+    @PostMapping("validate")
+    public ResponseEntity<LbmlValidationDto> validate(@RequestBody LbmlDto lbmlDto) {
+        try {
+            long[] commands = LbmlParser.parse(lbmlDto.getLbml());
+            long[] optimized = LbmlOptimizer.optimize(commands);
+            return ResponseEntity.ok(new LbmlValidationDto(true, null, null,
+                    LbmlParser.toLbml(commands), commands.length,
+                    optimized.length == 0 ? null : LbmlParser.toLbml(optimized), optimized.length));
+        } catch (LbmlSyntaxException e) {
+            return ResponseEntity.ok(new LbmlValidationDto(false, e.getOffset(), e.getMessage(), null, null,
+                    null, null));
+        }
+    }
+}
@@ -1,34 +1,112 @@
 package br.com.roselabs.lbot_datagen_backend.controllers;
 
+import br.com.roselabs.lbot_datagen_backend.admission.LlmOverloadedException;
+import br.com.roselabs.lbot_datagen_backend.dtos.AutoGradeReportDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.EvaluateChatDto;
 import br.com.roselabs.lbot_datagen_backend.dtos.EvaluateMessageDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.EvaluationResultDto;
 import br.com.roselabs.lbot_datagen_backend.dtos.MessageDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.MessageJobDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.SendBatchDto;
 import br.com.roselabs.lbot_datagen_backend.dtos.SendMessageDto;
+import br.com.roselabs.lbot_datagen_backend.idempotency.IdempotencyConflictException;
+import br.com.roselabs.lbot_datagen_backend.jobs.MessageJobService;
+import br.com.roselabs.lbot_datagen_backend.services.AutoGradingService;
+import br.com.roselabs.lbot_datagen_backend.services.MessageBatchService;
 import br.com.roselabs.lbot_datagen_backend.services.MessageService;
+import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("messages")
 @RequiredArgsConstructor
 public class MessageController {
 
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     private final MessageService messageService;
+    private final MessageJobService messageJobService;
+    private final MessageBatchService messageBatchService;
+    private final AutoGradingService autoGradingService;
 
     @PostMapping
-    public ResponseEntity<MessageDto> sendMessage(@RequestBody SendMessageDto sendMessageDto) {
+    public ResponseEntity<MessageDto> sendMessage(
+            @RequestBody SendMessageDto sendMessageDto,
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey != null
+                && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
-            MessageDto createdMessage = messageService.sendMessage(sendMessageDto);
+            MessageDto createdMessage = messageService.sendMessage(sendMessageDto, idempotencyKey);
             return ResponseEntity.status(HttpStatus.CREATED).body(createdMessage);
+        } catch (IdempotencyConflictException e) {
+            return ResponseEntity.unprocessableEntity().build();
+        } catch (LlmOverloadedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+                    .build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping(path = "batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> sendBatch(@RequestBody SendBatchDto sendBatchDto) {
+        try {
+            StreamingResponseBody results = messageBatchService.process(sendBatchDto);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(results);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("jobs")
+    public ResponseEntity<MessageJobDto> submitMessage(@RequestBody SendMessageDto sendMessageDto) {
+        try {
+            MessageJobDto job = messageJobService.submit(sendMessageDto);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    @GetMapping("jobs/{jobId}")
+    public ResponseEntity<MessageJobDto> getJob(@PathVariable UUID jobId) {
+        return messageJobService.findById(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(path = "jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamJob(@PathVariable UUID jobId) {
+        return messageJobService.subscribe(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @PostMapping("evaluate")
     public ResponseEntity<MessageDto> evaluateMessage(@RequestBody EvaluateMessageDto evaluateMessageDto) {
         try {
@@ -39,4 +117,39 @@ public class MessageController {
         }
     }
 
+    @PostMapping("evaluate/batch")
+    public ResponseEntity<List<EvaluationResultDto>> evaluateMessages(
+            @RequestBody List<EvaluateMessageDto> evaluations) {
+        return ResponseEntity.ok(messageService.evaluateMessages(evaluations));
+    }
+
+    @PostMapping("evaluate/chat")
+    public ResponseEntity<Integer> evaluateChat(@RequestBody EvaluateChatDto evaluateChatDto) {
+        return ResponseEntity.ok(messageService.evaluateChat(evaluateChatDto));
+    }
+
+    @PostMapping("grade")
+    public Callable<ResponseEntity<AutoGradeReportDto>> gradeAll() {
+        return () -> {
+            try {
+                return ResponseEntity.ok(autoGradingService.gradeAll());
+            } catch (IllegalStateException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+        };
+    }
+
+    /**
+     * Only reached by endpoints that let service exceptions propagate; anything else stays a 500.
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ProblemDetail> invalidRequest(IllegalArgumentException e) {
+        return ResponseEntity.of(ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage())).build();
+    }
+
+    @ExceptionHandler(EntityNotFoundException.class)
+    public ResponseEntity<ProblemDetail> notFound(EntityNotFoundException e) {
+        return ResponseEntity.of(ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, e.getMessage())).build();
+    }
+
 }
\ No newline at end of file
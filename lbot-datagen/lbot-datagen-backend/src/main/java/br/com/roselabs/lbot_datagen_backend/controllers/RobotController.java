@@ -0,0 +1,77 @@
+package br.com.roselabs.lbot_datagen_backend.controllers;
+
+import br.com.roselabs.lbot_datagen_backend.dtos.LbmlDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.RobotStatusDto;
+import br.com.roselabs.lbot_datagen_backend.robot.RobotGateway;
+import br.com.roselabs.lbot_datagen_backend.robot.RobotLinkException;
+import br.com.roselabs.lbot_datagen_backend.robot.RobotStatusSample;
+import br.com.roselabs.lbot_datagen_backend.robot.RobotTelemetry;
+import br.com.roselabs.lbot_datagen_backend.services.RobotDispatchService;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("robots")
+@RequiredArgsConstructor
+public class RobotController {
+
+    private final RobotGateway robotGateway;
+    private final RobotTelemetry robotTelemetry;
+    private final RobotDispatchService robotDispatchService;
+
+    @GetMapping
+    public ResponseEntity<List<RobotStatusDto>> listRobots() {
+        List<RobotStatusDto> robots = robotGateway.getEndpoints().stream()
+                .map(endpoint -> new RobotStatusDto(endpoint.getName(),
+                        endpoint.getHost() + ":" + endpoint.getPort(),
+                        robotGateway.isConnected(endpoint.getName()),
+                        robotGateway.getInFlightCount(endpoint.getName())))
+                .toList();
+        return ResponseEntity.ok(robots);
+    }
+
+    @GetMapping("{robot}/telemetry")
+    public ResponseEntity<List<RobotStatusSample>> getTelemetry(@PathVariable String robot,
+                                                                @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(robotTelemetry.recent(robot, Math.max(1, limit)));
+    }
+
+    @PostMapping("{robot}/messages/{messageId}")
+    public ResponseEntity<Void> dispatchMessage(@PathVariable String robot, @PathVariable UUID messageId) {
+        try {
+            return robotDispatchService.dispatch(messageId, robot).isPresent()
+                    ? ResponseEntity.accepted().build()
+                    : ResponseEntity.noContent().build();
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("{robot}/commands")
+    public CompletableFuture<ResponseEntity<LbmlDto>> execute(@PathVariable String robot,
+                                                              @RequestBody LbmlDto lbmlDto) {
+        try {
+            return robotGateway.executeAndWait(robot, lbmlDto.getLbml())
+                    .thenApply(done -> ResponseEntity.ok(lbmlDto))
+                    .exceptionally(e -> ResponseEntity.status(e.getCause() instanceof RobotLinkException
+                            ? HttpStatus.BAD_GATEWAY : HttpStatus.INTERNAL_SERVER_ERROR).build());
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+    }
+}
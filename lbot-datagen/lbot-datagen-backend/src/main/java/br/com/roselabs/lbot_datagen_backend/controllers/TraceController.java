@@ -0,0 +1,37 @@
+package br.com.roselabs.lbot_datagen_backend.controllers;
+
+import br.com.roselabs.lbot_datagen_backend.dtos.LatencySummaryDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.MessageTraceDto;
+import br.com.roselabs.lbot_datagen_backend.tracing.MessageTraceRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("traces")
+@RequiredArgsConstructor
+public class TraceController {
+
+    private final MessageTraceRegistry messageTraceRegistry;
+
+    @GetMapping("latency")
+    public ResponseEntity<List<LatencySummaryDto>> getLatencies() {
+        List<LatencySummaryDto> latencies = messageTraceRegistry.getLatencies().entrySet().stream()
+                .map(entry -> new LatencySummaryDto(entry.getKey(), entry.getValue()))
+                .toList();
+        return ResponseEntity.ok(latencies);
+    }
+
+    @GetMapping("{messageId}")
+    public ResponseEntity<MessageTraceDto> getTrace(@PathVariable UUID messageId) {
+        return messageTraceRegistry.find(messageId)
+                .map(trace -> ResponseEntity.ok(new MessageTraceDto(trace)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
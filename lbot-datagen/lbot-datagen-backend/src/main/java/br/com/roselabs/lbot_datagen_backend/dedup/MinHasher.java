@@ -0,0 +1,138 @@
+package br.com.roselabs.lbot_datagen_backend.dedup;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * MinHash over character 3-shingles of a canonicalized prompt. Canonicalization lowercases, drops accents and
+ * turns every non-alphanumeric run into a single space. Numbers are replaced by a placeholder and folded into
+ * a separate fingerprint by value, so {@code 1,5}, {@code 1.5} and {@code 1.50} match while prompts asking
+ * for different distances never do.
+ */
+public final class MinHasher {
+
+    public static final int HASHES = 64;
+    public static final int BANDS = 8;
+    public static final int ROWS = HASHES / BANDS;
+
+    private static final int SHINGLE = 3;
+    private static final char NUMBER = '#';
+    private static final long[] MULTIPLIERS = new long[HASHES];
+    private static final long[] OFFSETS = new long[HASHES];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x1b07_d3d0L);
+        for (int i = 0; i < HASHES; i++) {
+            MULTIPLIERS[i] = random.nextLong() | 1L;
+            OFFSETS[i] = random.nextLong();
+        }
+    }
+
+    private MinHasher() {
+    }
+
+    /**
+     * Signature of {@code text}, or null when nothing remains after canonicalization.
+     */
+    public static PromptSignature signature(String text) {
+        if (text == null) {
+            return null;
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder canonical = new StringBuilder(decomposed.length());
+        long numbers = 0;
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (!Character.isLetterOrDigit(c)) {
+                pendingSpace = true;
+                continue;
+            }
+            if (pendingSpace && canonical.length() > 0) {
+                canonical.append(' ');
+            }
+            pendingSpace = false;
+            if (c >= '0' && c <= '9') {
+                int end = numberEnd(decomposed, i);
+                String number = decomposed.substring(i, end).replace(',', '.');
+                numbers = mix(numbers * 31 + new BigDecimal(number).stripTrailingZeros().toPlainString().hashCode());
+                canonical.append(NUMBER);
+                i = end - 1;
+            } else {
+                canonical.append(Character.toLowerCase(c));
+            }
+        }
+        if (canonical.length() == 0) {
+            return null;
+        }
+
+        int[] hashes = new int[HASHES];
+        Arrays.fill(hashes, Integer.MAX_VALUE);
+        if (canonical.length() < SHINGLE) {
+            accept(hashes, shingle(canonical, 0, canonical.length()));
+        }
+        for (int i = 0; i + SHINGLE <= canonical.length(); i++) {
+            accept(hashes, shingle(canonical, i, i + SHINGLE));
+        }
+        return new PromptSignature(hashes, numbers);
+    }
+
+    static long bandKey(PromptSignature signature, int band) {
+        int[] hashes = signature.getHashes();
+        long hash = band ^ signature.getNumbers();
+        for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+            hash = hash * 0x9E3779B97F4A7C15L + hashes[row];
+        }
+        return mix(hash);
+    }
+
+    /**
+     * End of the number starting at {@code start}: digits, optionally followed by one decimal separator and
+     * more digits.
+     */
+    private static int numberEnd(String text, int start) {
+        int end = start;
+        while (end < text.length() && text.charAt(end) >= '0' && text.charAt(end) <= '9') {
+            end++;
+        }
+        if (end + 1 < text.length() && (text.charAt(end) == ',' || text.charAt(end) == '.')
+                && text.charAt(end + 1) >= '0' && text.charAt(end + 1) <= '9') {
+            end++;
+            while (end < text.length() && text.charAt(end) >= '0' && text.charAt(end) <= '9') {
+                end++;
+            }
+        }
+        return end;
+    }
+
+    private static long shingle(CharSequence canonical, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            value = (value << 16) | canonical.charAt(i);
+        }
+        return mix(value);
+    }
+
+    private static void accept(int[] hashes, long shingle) {
+        for (int i = 0; i < HASHES; i++) {
+            int hash = (int) ((MULTIPLIERS[i] * shingle + OFFSETS[i]) >>> 33);
+            if (hash < hashes[i]) {
+                hashes[i] = hash;
+            }
+        }
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,380 @@
+package br.com.roselabs.lbot_datagen_backend.dedup;
+
+import br.com.roselabs.lbot_datagen_backend.dtos.DuplicateClusterDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.NearDuplicateDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * LSH index over MinHash signatures of normalized prompts. Documents live in parallel primitive arrays
+ * addressed by insertion ordinal; each band keeps an open-addressing table from band key to the newest
+ * ordinal, chained to older ones through a per-band {@code next} array. Only the low byte of every MinHash
+ * value and the number fingerprint are kept for verification (b-bit MinHash), so a message costs roughly
+ * 400 bytes of heap.
+ * <p>
+ * Every document joins the cluster of its most similar earlier document, or starts its own; the first
+ * document of a cluster is its representative and the others are duplicates.
+ */
+public class NearDuplicateIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final double RANDOM_MATCH = 1.0 / 256;
+
+    private final double threshold;
+    private final int maxCandidates;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] idHigh = new long[INITIAL_CAPACITY];
+    private long[] idLow = new long[INITIAL_CAPACITY];
+    private byte[] signatures = new byte[INITIAL_CAPACITY * MinHasher.HASHES];
+    private long[] numbers = new long[INITIAL_CAPACITY];
+    private int[] representatives = new int[INITIAL_CAPACITY];
+    private int[] idSlots = new int[INITIAL_CAPACITY * 2];
+    private final BandTable[] bands = new BandTable[MinHasher.BANDS];
+    private int size;
+
+    public NearDuplicateIndex(double threshold, int maxCandidates) {
+        this.threshold = threshold;
+        this.maxCandidates = maxCandidates;
+        for (int band = 0; band < bands.length; band++) {
+            bands[band] = new BandTable(INITIAL_CAPACITY);
+        }
+    }
+
+    /**
+     * Indexes {@code text} under {@code id}. Returns false when the id is already indexed or the text is empty.
+     */
+    public boolean add(UUID id, String text) {
+        PromptSignature signature = MinHasher.signature(text);
+        if (signature == null) {
+            return false;
+        }
+        long[] keys = bandKeys(signature);
+
+        lock.writeLock().lock();
+        try {
+            if (find(id.getMostSignificantBits(), id.getLeastSignificantBits()) >= 0) {
+                return false;
+            }
+            int best = -1;
+            double bestSimilarity = threshold;
+            for (int candidate : candidates(keys)) {
+                double similarity = similarity(signature, candidate);
+                if (similarity > bestSimilarity || (similarity == bestSimilarity && best < 0)) {
+                    best = candidate;
+                    bestSimilarity = similarity;
+                }
+            }
+
+            ensureCapacity(size + 1);
+            int ordinal = size++;
+            idHigh[ordinal] = id.getMostSignificantBits();
+            idLow[ordinal] = id.getLeastSignificantBits();
+            for (int i = 0; i < MinHasher.HASHES; i++) {
+                signatures[ordinal * MinHasher.HASHES + i] = (byte) signature.getHashes()[i];
+            }
+            numbers[ordinal] = signature.getNumbers();
+            representatives[ordinal] = best < 0 ? ordinal : representatives[best];
+            insertId(ordinal);
+            for (int band = 0; band < bands.length; band++) {
+                bands[band].insert(keys[band], ordinal);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexed documents whose estimated Jaccard similarity to {@code text} reaches the threshold, most similar
+     * first.
+     */
+    public List<NearDuplicateDto> findSimilar(String text, int limit) {
+        PromptSignature signature = MinHasher.signature(text);
+        if (signature == null) {
+            return List.of();
+        }
+        long[] keys = bandKeys(signature);
+
+        lock.readLock().lock();
+        try {
+            List<NearDuplicateDto> matches = new ArrayList<>();
+            for (int candidate : candidates(keys)) {
+                double similarity = similarity(signature, candidate);
+                if (similarity >= threshold) {
+                    matches.add(new NearDuplicateDto(idOf(candidate), idOf(representatives[candidate]), similarity));
+                }
+            }
+            matches.sort(Comparator.comparingDouble(NearDuplicateDto::getSimilarity).reversed());
+            return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The representative of the cluster {@code id} belongs to, itself when it has no earlier near-duplicate,
+     * or {@code null} when {@code id} is not indexed.
+     */
+    public UUID representativeOf(UUID id) {
+        lock.readLock().lock();
+        try {
+            int ordinal = find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            return ordinal >= 0 ? idOf(representatives[ordinal]) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * True when {@code id} is indexed and belongs to a cluster represented by an earlier message.
+     */
+    public boolean isDuplicate(UUID id) {
+        lock.readLock().lock();
+        try {
+            int ordinal = find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            return ordinal >= 0 && representatives[ordinal] != ordinal;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Clusters with at least {@code minSize} messages, largest first.
+     */
+    public List<DuplicateClusterDto> clusters(int minSize, int limit) {
+        lock.readLock().lock();
+        try {
+            int[] counts = new int[size];
+            for (int i = 0; i < size; i++) {
+                counts[representatives[i]]++;
+            }
+            List<Integer> selected = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                if (counts[i] >= Math.max(minSize, 1)) {
+                    selected.add(i);
+                }
+            }
+            selected.sort(Comparator.<Integer>comparingInt(i -> counts[i]).reversed().thenComparingInt(i -> i));
+            if (selected.size() > limit) {
+                selected = selected.subList(0, limit);
+            }
+
+            Map<Integer, List<UUID>> members = new HashMap<>();
+            for (int representative : selected) {
+                members.put(representative, new ArrayList<>(counts[representative]));
+            }
+            for (int i = 0; i < size; i++) {
+                List<UUID> cluster = members.get(representatives[i]);
+                if (cluster != null) {
+                    cluster.add(idOf(i));
+                }
+            }
+
+            List<DuplicateClusterDto> clusters = new ArrayList<>(selected.size());
+            for (int representative : selected) {
+                clusters.add(new DuplicateClusterDto(idOf(representative), counts[representative],
+                        members.get(representative)));
+            }
+            return clusters;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of indexed messages that are duplicates of an earlier one.
+     */
+    public int duplicateCount() {
+        lock.readLock().lock();
+        try {
+            int duplicates = 0;
+            for (int i = 0; i < size; i++) {
+                if (representatives[i] != i) {
+                    duplicates++;
+                }
+            }
+            return duplicates;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static long[] bandKeys(PromptSignature signature) {
+        long[] keys = new long[MinHasher.BANDS];
+        for (int band = 0; band < keys.length; band++) {
+            keys[band] = MinHasher.bandKey(signature, band);
+        }
+        return keys;
+    }
+
+    /**
+     * Ordinals sharing at least one band with the signature, newest first, capped at {@code maxCandidates}
+     * so a very popular prompt cannot turn a lookup into a scan.
+     */
+    private Set<Integer> candidates(long[] keys) {
+        Set<Integer> candidates = new HashSet<>();
+        int examined = 0;
+        for (int band = 0; band < bands.length && examined < maxCandidates; band++) {
+            for (int ordinal = bands[band].head(keys[band]); ordinal >= 0 && examined < maxCandidates;
+                 ordinal = bands[band].next(ordinal)) {
+                candidates.add(ordinal);
+                examined++;
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * b-bit MinHash estimate: matching low bytes, corrected for the 1/256 chance of an accidental match.
+     * Prompts mentioning different numbers are never similar.
+     */
+    private double similarity(PromptSignature signature, int ordinal) {
+        if (numbers[ordinal] != signature.getNumbers()) {
+            return 0;
+        }
+        int[] hashes = signature.getHashes();
+        int matches = 0;
+        int offset = ordinal * MinHasher.HASHES;
+        for (int i = 0; i < MinHasher.HASHES; i++) {
+            if (signatures[offset + i] == (byte) hashes[i]) {
+                matches++;
+            }
+        }
+        double estimate = ((double) matches / MinHasher.HASHES - RANDOM_MATCH) / (1 - RANDOM_MATCH);
+        return Math.max(0, Math.min(1, estimate));
+    }
+
+    private UUID idOf(int ordinal) {
+        return new UUID(idHigh[ordinal], idLow[ordinal]);
+    }
+
+    private int find(long high, long low) {
+        int mask = idSlots.length - 1;
+        for (int slot = idHash(high, low) & mask; idSlots[slot] != 0; slot = (slot + 1) & mask) {
+            int ordinal = idSlots[slot] - 1;
+            if (idHigh[ordinal] == high && idLow[ordinal] == low) {
+                return ordinal;
+            }
+        }
+        return -1;
+    }
+
+    private void insertId(int ordinal) {
+        int mask = idSlots.length - 1;
+        int slot = idHash(idHigh[ordinal], idLow[ordinal]) & mask;
+        while (idSlots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        idSlots[slot] = ordinal + 1;
+    }
+
+    private static int idHash(long high, long low) {
+        long hash = high ^ low;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= idHigh.length) {
+            return;
+        }
+        int capacity = idHigh.length * 2;
+        idHigh = Arrays.copyOf(idHigh, capacity);
+        idLow = Arrays.copyOf(idLow, capacity);
+        signatures = Arrays.copyOf(signatures, capacity * MinHasher.HASHES);
+        numbers = Arrays.copyOf(numbers, capacity);
+        representatives = Arrays.copyOf(representatives, capacity);
+        for (BandTable band : bands) {
+            band.growDocuments(capacity);
+        }
+
+        idSlots = new int[capacity * 2];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            insertId(ordinal);
+        }
+    }
+
+    private static final class BandTable {
+
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private int[] heads = new int[INITIAL_CAPACITY];
+        private int[] next;
+        private int count;
+
+        BandTable(int documents) {
+            this.next = new int[documents];
+        }
+
+        int head(long key) {
+            int mask = keys.length - 1;
+            for (int slot = (int) key & mask; heads[slot] != 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return heads[slot] - 1;
+                }
+            }
+            return -1;
+        }
+
+        int next(int ordinal) {
+            return next[ordinal] - 1;
+        }
+
+        void insert(long key, int ordinal) {
+            int mask = keys.length - 1;
+            int slot = (int) key & mask;
+            while (heads[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (heads[slot] == 0) {
+                keys[slot] = key;
+                count++;
+            }
+            next[ordinal] = heads[slot];
+            heads[slot] = ordinal + 1;
+            if (count * 2 > keys.length) {
+                rehash();
+            }
+        }
+
+        void growDocuments(int capacity) {
+            next = Arrays.copyOf(next, capacity);
+        }
+
+        private void rehash() {
+            long[] oldKeys = keys;
+            int[] oldHeads = heads;
+            keys = new long[oldKeys.length * 2];
+            heads = new int[oldHeads.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldHeads[i] == 0) {
+                    continue;
+                }
+                int slot = (int) oldKeys[i] & mask;
+                while (heads[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                heads[slot] = oldHeads[i];
+            }
+        }
+    }
+}
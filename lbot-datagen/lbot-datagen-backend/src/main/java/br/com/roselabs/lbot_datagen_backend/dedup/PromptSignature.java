@@ -0,0 +1,23 @@
+package br.com.roselabs.lbot_datagen_backend.dedup;
+
+/**
+ * MinHash values of a prompt's wording plus a fingerprint of the numbers it mentions, in order.
+ */
+public final class PromptSignature {
+
+    private final int[] hashes;
+    private final long numbers;
+
+    PromptSignature(int[] hashes, long numbers) {
+        this.hashes = hashes;
+        this.numbers = numbers;
+    }
+
+    public int[] getHashes() {
+        return hashes;
+    }
+
+    public long getNumbers() {
+        return numbers;
+    }
+}
@@ -0,0 +1,21 @@
+package br.com.roselabs.lbot_datagen_backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutoGradeReportDto {
+
+    private long messages;
+    private long graded;
+    private long ungraded;
+    private Map<Integer, Long> distribution;
+    private long elapsedMs;
+}
@@ -0,0 +1,17 @@
+package br.com.roselabs.lbot_datagen_backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemDto {
+
+    private int index;
+    private MessageDto message;
+    private String error;
+}
@@ -0,0 +1,40 @@
+package br.com.roselabs.lbot_datagen_backend.dtos;
+
+import br.com.roselabs.lbot_datagen_backend.entities.Chat;
+import br.com.roselabs.lbot_datagen_backend.repositories.ChatSummaryView;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatDto {
+
+    private UUID id;
+    private LocalDateTime createdAt;
+    private String observation;
+    private Integer version;
+    private Long messageCount;
+
+    public ChatDto(Chat chat) {
+        this.id = chat.getId();
+        this.createdAt = chat.getCreatedAt();
+        this.observation = chat.getObservation();
+        this.version = chat.getVersion();
+        this.messageCount = 0L;
+    }
+
+    public ChatDto(ChatSummaryView view) {
+        this.id = view.getId();
+        this.createdAt = view.getCreatedAt();
+        this.observation = view.getObservation();
+        this.version = view.getVersion();
+        this.messageCount = view.getMessageCount();
+    }
+}
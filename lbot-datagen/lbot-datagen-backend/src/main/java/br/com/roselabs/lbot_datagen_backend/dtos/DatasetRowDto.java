@@ -0,0 +1,22 @@
+package br.com.roselabs.lbot_datagen_backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DatasetRowDto {
+
+    private UUID id;
+    private String prompt;
+    private String normalizedPrompt;
+    private String output;
+    private Integer grade;
+    private String lbmlRepairs;
+}
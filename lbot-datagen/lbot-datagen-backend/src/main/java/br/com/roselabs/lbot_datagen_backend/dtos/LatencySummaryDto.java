@@ -0,0 +1,32 @@
+package br.com.roselabs.lbot_datagen_backend.dtos;
+
+import br.com.roselabs.lbot_datagen_backend.tracing.LatencyHistogram;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LatencySummaryDto {
+
+    private String stage;
+    private long count;
+    private double meanMs;
+    private double p50Ms;
+    private double p90Ms;
+    private double p99Ms;
+    private double maxMs;
+
+    public LatencySummaryDto(String stage, LatencyHistogram histogram) {
+        this.stage = stage;
+        this.count = histogram.getCount();
+        this.meanMs = histogram.getMeanMicros() / 1000.0;
+        this.p50Ms = histogram.percentileMicros(50) / 1000.0;
+        this.p90Ms = histogram.percentileMicros(90) / 1000.0;
+        this.p99Ms = histogram.percentileMicros(99) / 1000.0;
+        this.maxMs = histogram.getMaxMicros() / 1000.0;
+    }
+}
@@ -0,0 +1,21 @@
+package br.com.roselabs.lbot_datagen_backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LbmlValidationDto {
+
+    private boolean valid;
+    private Integer errorOffset;
+    private String error;
+    private String canonical;
+    private Integer commandCount;
+    private String optimized;
+    private Integer optimizedCommandCount;
+}
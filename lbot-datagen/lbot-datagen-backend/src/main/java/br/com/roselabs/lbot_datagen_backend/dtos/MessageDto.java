@@ -1,11 +1,16 @@
 package br.com.roselabs.lbot_datagen_backend.dtos;
 
 import br.com.roselabs.lbot_datagen_backend.entities.Message;
+import br.com.roselabs.lbot_datagen_backend.entities.NormalizationPath;
+import br.com.roselabs.lbot_datagen_backend.entities.PipelineStage;
+import br.com.roselabs.lbot_datagen_backend.entities.PipelineStatus;
+import br.com.roselabs.lbot_datagen_backend.repositories.MessageView;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Getter
@@ -18,15 +23,51 @@ public class MessageDto {
     private String prompt;
     private String normalizedPrompt;
     private String output;
+    private String optimizedOutput;
+    private String lbmlRepairs;
     private Integer grade;
+    private Integer proposedGrade;
     private UUID chatId;
+    private LocalDateTime createdAt;
+    private NormalizationPath normalizationPath;
+    private PipelineStatus status;
+    private PipelineStage failedStage;
+    private Long normalizeMs;
+    private Long convertMs;
+    private Long validateMs;
 
     public MessageDto(Message message) {
         this.id = message.getId();
         this.normalizedPrompt = message.getNormalizedPrompt();
         this.prompt = message.getPrompt();
         this.output = message.getOutput();
+        this.optimizedOutput = message.getOptimizedOutput();
+        this.lbmlRepairs = message.getLbmlRepairs();
         this.grade = message.getGrade();
+        this.proposedGrade = message.getProposedGrade();
         this.chatId = message.getChat().getId();
+        this.createdAt = message.getCreatedAt();
+        this.normalizationPath = message.getNormalizationPath();
+        this.status = message.getStatus();
+        this.failedStage = message.getFailedStage();
+        this.normalizeMs = message.getNormalizeMs();
+        this.convertMs = message.getConvertMs();
+        this.validateMs = message.getValidateMs();
+    }
+
+    public MessageDto(UUID chatId, MessageView view) {
+        this.id = view.getId();
+        this.prompt = view.getPrompt();
+        this.normalizedPrompt = view.getNormalizedPrompt();
+        this.output = view.getOutput();
+        this.optimizedOutput = view.getOptimizedOutput();
+        this.lbmlRepairs = view.getLbmlRepairs();
+        this.grade = view.getGrade();
+        this.proposedGrade = view.getProposedGrade();
+        this.chatId = chatId;
+        this.createdAt = view.getCreatedAt();
+        this.normalizationPath = view.getNormalizationPath();
+        this.status = view.getStatus();
+        this.failedStage = view.getFailedStage();
     }
 }
@@ -0,0 +1,21 @@
+package br.com.roselabs.lbot_datagen_backend.dtos;
+
+import br.com.roselabs.lbot_datagen_backend.jobs.JobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageJobDto {
+
+    private UUID jobId;
+    private JobStatus status;
+    private MessageDto message;
+    private String error;
+}
@@ -0,0 +1,29 @@
+package br.com.roselabs.lbot_datagen_backend.dtos;
+
+import br.com.roselabs.lbot_datagen_backend.tracing.MessageTrace;
+import br.com.roselabs.lbot_datagen_backend.tracing.TraceStage;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageTraceDto {
+
+    private UUID messageId;
+    private Instant receivedAt;
+    private Map<TraceStage, Double> timelineMs;
+
+    public MessageTraceDto(MessageTrace trace) {
+        this.messageId = trace.getMessageId();
+        this.receivedAt = trace.getReceivedAt();
+        this.timelineMs = trace.getTimelineMillis();
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.roselabs.lbot_datagen_backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RobotStatusDto {
+
+    private String name;
+    private String address;
+    private boolean connected;
+    private int inFlight;
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.GenericGenerator;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
@@ -15,9 +16,13 @@ import java.util.UUID;
 @Builder
 public class Message {
 
+    /** Grades follow the frontend's 1-5 star rating. */
+    public static final int MIN_GRADE = 1;
+    public static final int MAX_GRADE = 5;
+
     @Id
     @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    @GenericGenerator(name = "UUID", type = TimeOrderedUuidGenerator.class)
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
@@ -30,9 +35,52 @@ public class Message {
     @Column(name = "output", columnDefinition = "TEXT")
     private String output;
 
+    @Column(name = "lbml_repairs")
+    private String lbmlRepairs;
+
+    @Column(name = "command_count")
+    private Integer commandCount;
+
+    @Column(name = "optimized_output", columnDefinition = "TEXT")
+    private String optimizedOutput;
+
+    @Column(name = "optimized_command_count")
+    private Integer optimizedCommandCount;
+
     @Column(name = "grade")
     private Integer grade;
 
+    @Column(name = "proposed_grade")
+    private Integer proposedGrade;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "normalization_path")
+    private NormalizationPath normalizationPath;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private PipelineStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "failed_stage")
+    private PipelineStage failedStage;
+
+    @Column(name = "convert_attempts")
+    private Integer convertAttempts;
+
+    @Column(name = "normalize_ms")
+    private Long normalizeMs;
+
+    @Column(name = "convert_ms")
+    private Long convertMs;
+
+    @Column(name = "validate_ms")
+    private Long validateMs;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "chat_id", nullable = false)
     private Chat chat;
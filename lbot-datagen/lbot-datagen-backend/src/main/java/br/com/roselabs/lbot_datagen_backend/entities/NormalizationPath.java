@@ -0,0 +1,7 @@
+package br.com.roselabs.lbot_datagen_backend.entities;
+
+public enum NormalizationPath {
+    LOCAL,
+    LLM,
+    SPECULATIVE
+}
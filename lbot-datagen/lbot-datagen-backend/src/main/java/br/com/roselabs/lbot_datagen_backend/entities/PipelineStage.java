@@ -0,0 +1,8 @@
+package br.com.roselabs.lbot_datagen_backend.entities;
+
+public enum PipelineStage {
+    NORMALIZE,
+    CONVERT,
+    VALIDATE,
+    PERSIST
+}
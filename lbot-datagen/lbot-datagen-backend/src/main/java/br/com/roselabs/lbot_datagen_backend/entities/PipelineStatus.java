@@ -0,0 +1,6 @@
+package br.com.roselabs.lbot_datagen_backend.entities;
+
+public enum PipelineStatus {
+    SUCCESS,
+    FAILED
+}
@@ -0,0 +1,39 @@
+package br.com.roselabs.lbot_datagen_backend.entities;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates version 7 UUIDs: 48 bits of Unix milliseconds, then a 12-bit sequence that keeps ids created in
+ * the same millisecond increasing, then random bits. New rows land at the right edge of the primary key
+ * B-tree instead of on random pages.
+ */
+public class TimeOrderedUuidGenerator implements IdentifierGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final AtomicLong LAST = new AtomicLong();
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return next();
+    }
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long state;
+        while (true) {
+            long last = LAST.get();
+            state = Math.max(now, last + 1);
+            if (LAST.compareAndSet(last, state)) {
+                break;
+            }
+        }
+        long mostSignificant = (state >>> 12) << 16 | 0x7000L | (state & 0xFFFL);
+        long leastSignificant = RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+}
@@ -0,0 +1,235 @@
+package br.com.roselabs.lbot_datagen_backend.hedging;
+
+import br.com.roselabs.lbot_datagen_backend.metrics.PipelineMetrics;
+import br.com.roselabs.lbot_datagen_backend.tracing.LatencyHistogram;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs LLM calls with an optional hedge: when a call is still pending after the model's observed latency
+ * percentile, an identical request is issued and the first successful answer wins; the other is cancelled.
+ * Callers that pay per request (admission control, rate limits) pass a separate action for the hedge.
+ * Hedges and speculative calls share a budget expressed as a fraction of primary calls.
+ */
+@Slf4j
+@Component
+public class HedgedExecutor {
+
+    private static final int WARMUP_SAMPLES = 20;
+
+    private final ExecutorService hedgingExecutor;
+    private final PipelineMetrics pipelineMetrics;
+    private final boolean enabled;
+    private final boolean speculativeConversion;
+    private final double percentile;
+    private final long minDelayMicros;
+    private final double budgetRatio;
+
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    private final AtomicLong primaryCalls = new AtomicLong();
+    private final AtomicLong extraCalls = new AtomicLong();
+
+    public HedgedExecutor(@Qualifier("hedgingExecutor") ExecutorService hedgingExecutor,
+                          PipelineMetrics pipelineMetrics,
+                          @Value("${lbot.hedging.enabled:false}") boolean enabled,
+                          @Value("${lbot.hedging.speculative-conversion:false}") boolean speculativeConversion,
+                          @Value("${lbot.hedging.percentile:95}") double percentile,
+                          @Value("${lbot.hedging.min-delay:300ms}") Duration minDelay,
+                          @Value("${lbot.hedging.budget-ratio:0.1}") double budgetRatio) {
+        this.hedgingExecutor = hedgingExecutor;
+        this.pipelineMetrics = pipelineMetrics;
+        this.enabled = enabled;
+        this.speculativeConversion = speculativeConversion;
+        this.percentile = percentile;
+        this.minDelayMicros = TimeUnit.NANOSECONDS.toMicros(minDelay.toNanos());
+        this.budgetRatio = budgetRatio;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isSpeculativeConversion() {
+        return speculativeConversion;
+    }
+
+    public <T> T call(String model, Supplier<T> action) {
+        return call(model, action, action);
+    }
+
+    /**
+     * Like {@link #call(String, Supplier)}, running {@code hedge} instead of {@code action} for the hedge
+     * request. A hedge that fails, for instance because it was not admitted, leaves the primary to answer.
+     */
+    public <T> T call(String model, Supplier<T> action, Supplier<T> hedge) {
+        primaryCalls.incrementAndGet();
+        if (!enabled) {
+            return action.get();
+        }
+
+        CompletionService<T> completion = new ExecutorCompletionService<>(hedgingExecutor);
+        List<Future<T>> attempts = new ArrayList<>(2);
+        long start = System.nanoTime();
+        try {
+            attempts.add(completion.submit(action::get));
+        } catch (RejectedExecutionException e) {
+            return action.get();
+        }
+
+        try {
+            Future<T> first = completion.poll(hedgeDelayMicros(model), TimeUnit.MICROSECONDS);
+            if (first == null) {
+                if (tryAcquireExtraCall()) {
+                    attempts.add(completion.submit(hedge::get));
+                    pipelineMetrics.recordHedge(model, "issued");
+                    log.debug("Requisição hedge emitida para {}", model);
+                } else {
+                    pipelineMetrics.recordHedge(model, "budget_exhausted");
+                }
+            } else {
+                return finish(model, start, attempts, first, completion);
+            }
+            return finish(model, start, attempts, completion.take(), completion);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            attempts.forEach(attempt -> attempt.cancel(true));
+            throw new IllegalStateException("Chamada ao modelo interrompida", e);
+        } catch (RejectedExecutionException e) {
+            releaseExtraCall();
+            pipelineMetrics.recordHedge(model, "rejected");
+            return await(attempts.get(0));
+        }
+    }
+
+    /**
+     * Runs the alternatives concurrently and returns the first that succeeds, cancelling the rest.
+     */
+    public <T> T race(List<Callable<T>> alternatives) {
+        CompletionService<T> completion = new ExecutorCompletionService<>(hedgingExecutor);
+        List<Future<T>> attempts = new ArrayList<>(alternatives.size());
+        try {
+            alternatives.forEach(alternative -> attempts.add(completion.submit(alternative)));
+        } catch (RejectedExecutionException e) {
+            attempts.forEach(attempt -> attempt.cancel(true));
+            throw e;
+        }
+
+        RuntimeException failure = null;
+        try {
+            for (int i = 0; i < attempts.size(); i++) {
+                Future<T> done = completion.take();
+                try {
+                    T result = done.get();
+                    attempts.forEach(attempt -> attempt.cancel(true));
+                    return result;
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = unwrap(e);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            attempts.forEach(attempt -> attempt.cancel(true));
+            throw new IllegalStateException("Execução especulativa interrompida", e);
+        }
+        throw failure;
+    }
+
+    /**
+     * Takes one unit of the extra-call budget; at most {@code budget-ratio} of the primary calls, plus one.
+     */
+    public boolean tryAcquireExtraCall() {
+        while (true) {
+            long extra = extraCalls.get();
+            if (extra + 1 > budgetRatio * primaryCalls.get() + 1) {
+                return false;
+            }
+            if (extraCalls.compareAndSet(extra, extra + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gives back a unit taken by {@link #tryAcquireExtraCall()} for an extra call that never ran.
+     */
+    public void releaseExtraCall() {
+        extraCalls.decrementAndGet();
+    }
+
+    private <T> T finish(String model, long start, List<Future<T>> attempts, Future<T> first,
+                         CompletionService<T> completion) throws InterruptedException {
+        Future<T> done = first;
+        RuntimeException failure = null;
+        for (int remaining = attempts.size(); remaining > 0; remaining--) {
+            try {
+                T result = done.get();
+                latencies.computeIfAbsent(model, key -> new LatencyHistogram()).recordNanos(System.nanoTime() - start);
+                if (attempts.size() > 1) {
+                    pipelineMetrics.recordHedge(model, done == attempts.get(0) ? "primary_won" : "hedge_won");
+                }
+                attempts.forEach(attempt -> attempt.cancel(true));
+                return result;
+            } catch (ExecutionException e) {
+                // The primary's failure is the meaningful one; a hedge may just not have been admitted.
+                if (failure == null || done == attempts.get(0)) {
+                    failure = unwrap(e);
+                }
+                if (remaining > 1) {
+                    done = completion.take();
+                }
+            }
+        }
+        throw failure;
+    }
+
+    private long hedgeDelayMicros(String model) {
+        LatencyHistogram histogram = latencies.get(model);
+        if (histogram == null || histogram.getCount() < WARMUP_SAMPLES) {
+            return Math.max(minDelayMicros, 1);
+        }
+        return Math.max(minDelayMicros, histogram.percentileMicros(percentile));
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Chamada ao modelo interrompida", e);
+        }
+    }
+
+    private RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+}
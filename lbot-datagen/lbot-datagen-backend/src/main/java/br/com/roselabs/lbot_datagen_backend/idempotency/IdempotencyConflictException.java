@@ -0,0 +1,11 @@
+package br.com.roselabs.lbot_datagen_backend.idempotency;
+
+/**
+ * An {@code Idempotency-Key} was reused for a different request.
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    public IdempotencyConflictException(String key) {
+        super("Idempotency-Key já usada com outra requisição: " + key);
+    }
+}
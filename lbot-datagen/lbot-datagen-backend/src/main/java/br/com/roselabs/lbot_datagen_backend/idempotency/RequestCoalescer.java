@@ -0,0 +1,160 @@
+package br.com.roselabs.lbot_datagen_backend.idempotency;
+
+import br.com.roselabs.lbot_datagen_backend.metrics.PipelineMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution of identical requests plus replay of completed ones. Requests with the same
+ * fingerprint that overlap in time share one execution: the first runs it, the others wait for its result
+ * or failure. When the request carries an {@code Idempotency-Key} the successful result is also kept for
+ * {@code replay-window}, so a retry that arrives after completion gets the same answer without re-running.
+ */
+@Slf4j
+@Component
+public class RequestCoalescer {
+
+    private final PipelineMetrics pipelineMetrics;
+    private final long replayWindowMillis;
+    private final int maxEntries;
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, String> runningKeys = new ConcurrentHashMap<>();
+    private final Map<String, Completed> completed;
+
+    public RequestCoalescer(PipelineMetrics pipelineMetrics,
+                            @Value("${lbot.idempotency.replay-window:10m}") Duration replayWindow,
+                            @Value("${lbot.idempotency.max-entries:10000}") int maxEntries) {
+        this.pipelineMetrics = pipelineMetrics;
+        this.replayWindowMillis = replayWindow.toMillis();
+        this.maxEntries = maxEntries;
+        this.completed = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Completed> eldest) {
+                return size() > RequestCoalescer.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Runs {@code action} unless an identical request is already running or, for keyed requests, has
+     * completed within the replay window.
+     *
+     * @param idempotencyKey client-supplied key, or null
+     * @param fingerprint    identifies the request content; equal fingerprints are coalesced
+     * @throws IdempotencyConflictException when the key is running or was used for a different fingerprint
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String idempotencyKey, String fingerprint, Supplier<T> action) {
+        if (idempotencyKey == null) {
+            return coalesce(null, fingerprint, action);
+        }
+
+        // Claimed before the replay lookup so a conflicting request cannot slip in while the first is running.
+        String running = runningKeys.putIfAbsent(idempotencyKey, fingerprint);
+        if (running != null && !running.equals(fingerprint)) {
+            throw new IdempotencyConflictException(idempotencyKey);
+        }
+        try {
+            Completed previous = findCompleted(idempotencyKey);
+            if (previous != null) {
+                if (!previous.fingerprint.equals(fingerprint)) {
+                    throw new IdempotencyConflictException(idempotencyKey);
+                }
+                pipelineMetrics.recordCoalescing("replayed");
+                return (T) previous.result;
+            }
+            return coalesce(idempotencyKey, fingerprint, action);
+        } finally {
+            if (running == null) {
+                runningKeys.remove(idempotencyKey, fingerprint);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T coalesce(String idempotencyKey, String fingerprint, Supplier<T> action) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(fingerprint, flight);
+        if (existing != null) {
+            pipelineMetrics.recordCoalescing("joined");
+            log.info("Requisição idêntica em andamento, aguardando o resultado compartilhado");
+            T result = (T) await(existing);
+            if (idempotencyKey != null) {
+                remember(idempotencyKey, fingerprint, result);
+            }
+            return result;
+        }
+
+        pipelineMetrics.recordCoalescing("executed");
+        try {
+            T result = action.get();
+            if (idempotencyKey != null) {
+                remember(idempotencyKey, fingerprint, result);
+            }
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(fingerprint, flight);
+        }
+    }
+
+    private Completed findCompleted(String key) {
+        synchronized (completed) {
+            Completed entry = completed.get(key);
+            if (entry != null && System.currentTimeMillis() - entry.completedAt > replayWindowMillis) {
+                completed.remove(key);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    private void remember(String key, String fingerprint, Object result) {
+        synchronized (completed) {
+            completed.put(key, new Completed(fingerprint, result, System.currentTimeMillis()));
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        } catch (CancellationException e) {
+            throw new IllegalStateException("Requisição compartilhada cancelada", e);
+        }
+    }
+
+    private static final class Completed {
+
+        private final String fingerprint;
+        private final Object result;
+        private final long completedAt;
+
+        private Completed(String fingerprint, Object result, long completedAt) {
+            this.fingerprint = fingerprint;
+            this.result = result;
+            this.completedAt = completedAt;
+        }
+    }
+}
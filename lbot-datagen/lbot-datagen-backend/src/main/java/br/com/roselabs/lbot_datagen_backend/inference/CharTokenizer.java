@@ -0,0 +1,48 @@
+package br.com.roselabs.lbot_datagen_backend.inference;
+
+/**
+ * Character vocabulary of the model: token {@code i} is the {@code i}-th code point of the sorted training
+ * alphabet, exactly like {@code stoi}/{@code itos} in the training notebook.
+ */
+public class CharTokenizer {
+
+    private final int[] codePoints;
+
+    public CharTokenizer(int[] codePoints) {
+        this.codePoints = codePoints.clone();
+    }
+
+    public int size() {
+        return codePoints.length;
+    }
+
+    public int[] encode(String text) {
+        return text.codePoints().map(this::tokenOf).toArray();
+    }
+
+    public String decode(int token) {
+        return new String(Character.toChars(codePoints[token]));
+    }
+
+    public boolean canEncode(String text) {
+        return text.codePoints().allMatch(codePoint -> indexOf(codePoint) >= 0);
+    }
+
+    private int tokenOf(int codePoint) {
+        int index = indexOf(codePoint);
+        if (index < 0) {
+            throw new IllegalArgumentException("Caractere fora do vocabulário do modelo: '"
+                    + new String(Character.toChars(codePoint)) + "'");
+        }
+        return index;
+    }
+
+    private int indexOf(int codePoint) {
+        for (int i = 0; i < codePoints.length; i++) {
+            if (codePoints[i] == codePoint) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
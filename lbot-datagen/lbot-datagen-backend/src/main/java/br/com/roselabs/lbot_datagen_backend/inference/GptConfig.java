@@ -0,0 +1,22 @@
+package br.com.roselabs.lbot_datagen_backend.inference;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Hyper-parameters of the character-level GPT trained in {@code lbot-v3} ({@code GPTConfig} on the Python side).
+ */
+@Getter
+@AllArgsConstructor
+public class GptConfig {
+
+    private final int blockSize;
+    private final int vocabSize;
+    private final int layers;
+    private final int heads;
+    private final int embedding;
+
+    public int getHeadSize() {
+        return embedding / heads;
+    }
+}
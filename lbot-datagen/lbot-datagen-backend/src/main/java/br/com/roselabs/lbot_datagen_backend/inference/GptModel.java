@@ -0,0 +1,332 @@
+package br.com.roselabs.lbot_datagen_backend.inference;
+
+import java.util.Arrays;
+
+/**
+ * CPU forward pass of the GPT over primitive arrays. The model itself is immutable and shared; every
+ * generation opens a {@link Session} that owns the key/value cache and scratch buffers, so a prompt is
+ * prefilled once and each new token costs a single-row pass instead of re-running the whole context.
+ *
+ * <p>Linear weights are kept transposed as one {@code float[]} per input feature and activations as one
+ * {@code float[]} per token: every multiply-add then runs over two whole arrays from index zero, the shape
+ * C2 turns into SIMD code on Java 17 (loops over arrays at different offsets, or dot-product reductions,
+ * stay scalar and run several times slower).
+ */
+public class GptModel {
+
+    private static final float LAYER_NORM_EPS = 1e-5f;
+
+    private final GptConfig config;
+    private final CharTokenizer tokenizer;
+    private final float[][] tokenEmbedding;
+    private final float[][] positionEmbedding;
+    private final Layer[] layers;
+    private final float[] finalNormWeight;
+    private final float[] finalNormBias;
+
+    /**
+     * Copies the parameters into the layout described above; the loaded {@link GptWeights} can be discarded
+     * afterwards.
+     */
+    public GptModel(GptWeights weights) {
+        this.config = weights.getConfig();
+        this.tokenizer = weights.getTokenizer();
+        int e = config.getEmbedding();
+        this.tokenEmbedding = rows(weights.getTokenEmbedding(), config.getVocabSize(), e);
+        this.positionEmbedding = rows(weights.getPositionEmbedding(), config.getBlockSize(), e);
+        this.layers = new Layer[config.getLayers()];
+        for (int i = 0; i < layers.length; i++) {
+            layers[i] = new Layer(weights.getLayers()[i], e);
+        }
+        this.finalNormWeight = weights.getFinalNormWeight();
+        this.finalNormBias = weights.getFinalNormBias();
+    }
+
+    public GptConfig getConfig() {
+        return config;
+    }
+
+    public CharTokenizer getTokenizer() {
+        return tokenizer;
+    }
+
+    public Session newSession() {
+        return new Session();
+    }
+
+    private static final class Layer {
+
+        private final float[] norm1Weight;
+        private final float[] norm1Bias;
+        private final float[][] attention;
+        private final float[] attentionBias;
+        private final float[][] attentionProjection;
+        private final float[] attentionProjectionBias;
+        private final float[] norm2Weight;
+        private final float[] norm2Bias;
+        private final float[][] mlp;
+        private final float[] mlpBias;
+        private final float[][] mlpProjection;
+        private final float[] mlpProjectionBias;
+
+        private Layer(GptWeights.Layer layer, int e) {
+            this.norm1Weight = layer.getNorm1Weight();
+            this.norm1Bias = layer.getNorm1Bias();
+            this.attention = transpose(layer.getAttentionWeight(), 3 * e, e);
+            this.attentionBias = layer.getAttentionBias();
+            this.attentionProjection = transpose(layer.getAttentionProjectionWeight(), e, e);
+            this.attentionProjectionBias = layer.getAttentionProjectionBias();
+            this.norm2Weight = layer.getNorm2Weight();
+            this.norm2Bias = layer.getNorm2Bias();
+            this.mlp = transpose(layer.getMlpWeight(), 4 * e, e);
+            this.mlpBias = layer.getMlpBias();
+            this.mlpProjection = transpose(layer.getMlpProjectionWeight(), e, 4 * e);
+            this.mlpProjectionBias = layer.getMlpProjectionBias();
+        }
+    }
+
+    /**
+     * Incremental decoding state. Not thread-safe; use one session per generation.
+     */
+    public class Session {
+
+        private final int e = config.getEmbedding();
+        private final int[] tokens = new int[config.getBlockSize()];
+        private final float[][][] keys = new float[config.getLayers()][config.getBlockSize()][e];
+        private final float[][][] values = new float[config.getLayers()][config.getBlockSize()][e];
+        private final float[][] x = new float[config.getBlockSize()][e];
+        private final float[][] normed = new float[config.getBlockSize()][e];
+        private final float[][] qkv = new float[config.getBlockSize()][3 * e];
+        private final float[][] attended = new float[config.getBlockSize()][e];
+        private final float[][] hidden = new float[config.getBlockSize()][4 * e];
+        private final float[][] projected = new float[config.getBlockSize()][e];
+        private final float[] scores = new float[config.getBlockSize()];
+        private final float[] logits = new float[config.getVocabSize()];
+        private int length;
+
+        private Session() {
+        }
+
+        public int length() {
+            return length;
+        }
+
+        /**
+         * Feeds {@code input} and returns the logits for the token following the last one. The returned
+         * array is reused by the next call. Once the context exceeds the block size the cache is rebuilt
+         * from the most recent {@code block_size} tokens, which is what the Python {@code generate} does.
+         */
+        public float[] append(int... input) {
+            if (input.length == 0) {
+                throw new IllegalArgumentException("Nenhum token para processar");
+            }
+            int blockSize = config.getBlockSize();
+            if (length + input.length > blockSize) {
+                int[] window = new int[Math.min(blockSize, length + input.length)];
+                int fromInput = Math.min(window.length, input.length);
+                int fromCache = window.length - fromInput;
+                System.arraycopy(tokens, length - fromCache, window, 0, fromCache);
+                System.arraycopy(input, input.length - fromInput, window, fromCache, fromInput);
+                length = 0;
+                input = window;
+            }
+            forward(input);
+            return logits;
+        }
+
+        private void forward(int[] input) {
+            int rows = input.length;
+            int start = length;
+            for (int t = 0; t < rows; t++) {
+                int token = input[t];
+                if (token < 0 || token >= config.getVocabSize()) {
+                    throw new IllegalArgumentException("Token fora do vocabulário: " + token);
+                }
+                tokens[start + t] = token;
+                float[] row = x[t];
+                float[] tokenRow = tokenEmbedding[token];
+                float[] positionRow = positionEmbedding[start + t];
+                for (int i = 0; i < e; i++) {
+                    row[i] = tokenRow[i] + positionRow[i];
+                }
+            }
+
+            for (int l = 0; l < layers.length; l++) {
+                Layer layer = layers[l];
+                layerNorm(x, normed, rows, layer.norm1Weight, layer.norm1Bias);
+                matmul(normed, rows, layer.attention, layer.attentionBias, qkv);
+                attention(l, start, rows);
+                matmul(attended, rows, layer.attentionProjection, layer.attentionProjectionBias, projected);
+                add(x, projected, rows);
+
+                layerNorm(x, normed, rows, layer.norm2Weight, layer.norm2Bias);
+                matmul(normed, rows, layer.mlp, layer.mlpBias, hidden);
+                gelu(hidden, rows);
+                matmul(hidden, rows, layer.mlpProjection, layer.mlpProjectionBias, projected);
+                add(x, projected, rows);
+            }
+            length = start + rows;
+
+            float[] last = normed[0];
+            System.arraycopy(x[rows - 1], 0, last, 0, e);
+            layerNorm(normed, normed, 1, finalNormWeight, finalNormBias);
+            for (int v = 0; v < logits.length; v++) {
+                logits[v] = dot(tokenEmbedding[v], last, e);
+            }
+        }
+
+        private void attention(int layer, int start, int rows) {
+            float[][] k = keys[layer];
+            float[][] v = values[layer];
+            for (int t = 0; t < rows; t++) {
+                System.arraycopy(qkv[t], e, k[start + t], 0, e);
+                System.arraycopy(qkv[t], 2 * e, v[start + t], 0, e);
+            }
+
+            int headSize = config.getHeadSize();
+            float scale = (float) (1.0 / Math.sqrt(headSize));
+            for (int t = 0; t < rows; t++) {
+                int position = start + t;
+                float[] query = qkv[t];
+                float[] out = attended[t];
+                Arrays.fill(out, 0f);
+                for (int h = 0; h < config.getHeads(); h++) {
+                    int offset = h * headSize;
+                    float max = Float.NEGATIVE_INFINITY;
+                    for (int p = 0; p <= position; p++) {
+                        float[] key = k[p];
+                        float score = 0;
+                        for (int i = offset; i < offset + headSize; i++) {
+                            score += query[i] * key[i];
+                        }
+                        score *= scale;
+                        scores[p] = score;
+                        max = Math.max(max, score);
+                    }
+                    float sum = 0;
+                    for (int p = 0; p <= position; p++) {
+                        float weight = (float) Math.exp(scores[p] - max);
+                        scores[p] = weight;
+                        sum += weight;
+                    }
+                    for (int p = 0; p <= position; p++) {
+                        float weight = scores[p] / sum;
+                        float[] value = v[p];
+                        for (int i = offset; i < offset + headSize; i++) {
+                            out[i] += weight * value[i];
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * {@code out[t] = bias + in[t] · W} for {@code W} given as {@code (in, out)} rows. Each weight row is
+     * applied to every token before moving to the next, so a prefill streams the matrix from memory once
+     * instead of once per token.
+     */
+    private static void matmul(float[][] in, int rows, float[][] weight, float[] bias, float[][] out) {
+        for (int t = 0; t < rows; t++) {
+            System.arraycopy(bias, 0, out[t], 0, bias.length);
+        }
+        for (int i = 0; i < weight.length; i++) {
+            float[] weightRow = weight[i];
+            for (int t = 0; t < rows; t++) {
+                axpy(in[t][i], weightRow, out[t]);
+            }
+        }
+    }
+
+    private static void axpy(float a, float[] x, float[] y) {
+        for (int i = 0; i < y.length; i++) {
+            y[i] += a * x[i];
+        }
+    }
+
+    private static float dot(float[] a, float[] b, int length) {
+        float sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private static float[][] rows(float[] flat, int rows, int columns) {
+        float[][] result = new float[rows][];
+        for (int r = 0; r < rows; r++) {
+            result[r] = Arrays.copyOfRange(flat, r * columns, (r + 1) * columns);
+        }
+        return result;
+    }
+
+    /**
+     * Turns a PyTorch {@code (out, in)} linear weight into {@code in} rows of {@code out} values.
+     */
+    private static float[][] transpose(float[] weight, int outSize, int inSize) {
+        float[][] transposed = new float[inSize][outSize];
+        for (int o = 0; o < outSize; o++) {
+            for (int i = 0; i < inSize; i++) {
+                transposed[i][o] = weight[o * inSize + i];
+            }
+        }
+        return transposed;
+    }
+
+    private static void layerNorm(float[][] in, float[][] out, int rows, float[] weight, float[] bias) {
+        int size = weight.length;
+        for (int t = 0; t < rows; t++) {
+            float[] source = in[t];
+            float[] target = out[t];
+            float mean = 0;
+            for (int i = 0; i < size; i++) {
+                mean += source[i];
+            }
+            mean /= size;
+            float variance = 0;
+            for (int i = 0; i < size; i++) {
+                float d = source[i] - mean;
+                variance += d * d;
+            }
+            float inv = (float) (1.0 / Math.sqrt(variance / size + LAYER_NORM_EPS));
+            for (int i = 0; i < size; i++) {
+                target[i] = (source[i] - mean) * inv * weight[i] + bias[i];
+            }
+        }
+    }
+
+    private static void add(float[][] target, float[][] delta, int rows) {
+        for (int t = 0; t < rows; t++) {
+            float[] row = target[t];
+            float[] d = delta[t];
+            for (int i = 0; i < row.length; i++) {
+                row[i] += d[i];
+            }
+        }
+    }
+
+    /**
+     * Exact (erf-based) GELU, matching {@code nn.GELU()} without the tanh approximation.
+     */
+    private static void gelu(float[][] values, int rows) {
+        for (int t = 0; t < rows; t++) {
+            float[] row = values[t];
+            for (int i = 0; i < row.length; i++) {
+                float v = row[i];
+                row[i] = (float) (0.5 * v * (1 + erf(v / Math.sqrt(2))));
+            }
+        }
+    }
+
+    /**
+     * Abramowitz–Stegun 7.1.26, absolute error below 1.5e-7 — under float resolution for these activations.
+     */
+    static double erf(double x) {
+        double sign = Math.signum(x);
+        double a = Math.abs(x);
+        double t = 1 / (1 + 0.3275911 * a);
+        double y = 1 - (((((1.061405429 * t - 1.453152027) * t) + 1.421413741) * t - 0.284496736) * t
+                + 0.254829592) * t * Math.exp(-a * a);
+        return sign * y;
+    }
+}
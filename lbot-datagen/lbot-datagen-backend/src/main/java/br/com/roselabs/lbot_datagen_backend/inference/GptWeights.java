@@ -0,0 +1,100 @@
+package br.com.roselabs.lbot_datagen_backend.inference;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Parameters of the GPT as flat row-major {@code float} arrays in the PyTorch layout (linear weights are
+ * {@code (out, in)}), exactly as exported; {@link GptModel} rearranges them for inference.
+ *
+ * <p>The file written by {@code lbot-v3/export_weights.py} is little-endian: the magic {@code LBT1},
+ * the five {@link GptConfig} integers, the vocabulary code points, then {@code wte}, {@code wpe}, the
+ * tensors of every block in declaration order and finally {@code ln_f}. The language-model head shares
+ * {@code wte}, as in training.
+ */
+@Getter
+@AllArgsConstructor
+public class GptWeights {
+
+    static final int MAGIC = 0x3154424C;
+
+    private final GptConfig config;
+    private final CharTokenizer tokenizer;
+    private final float[] tokenEmbedding;
+    private final float[] positionEmbedding;
+    private final Layer[] layers;
+    private final float[] finalNormWeight;
+    private final float[] finalNormBias;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Layer {
+
+        private final float[] norm1Weight;
+        private final float[] norm1Bias;
+        private final float[] attentionWeight;
+        private final float[] attentionBias;
+        private final float[] attentionProjectionWeight;
+        private final float[] attentionProjectionBias;
+        private final float[] norm2Weight;
+        private final float[] norm2Bias;
+        private final float[] mlpWeight;
+        private final float[] mlpBias;
+        private final float[] mlpProjectionWeight;
+        private final float[] mlpProjectionBias;
+    }
+
+    public static GptWeights load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Arquivo de pesos inválido: " + path);
+            }
+            GptConfig config = new GptConfig(buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt(),
+                    buffer.getInt());
+            int[] vocabulary = new int[config.getVocabSize()];
+            for (int i = 0; i < vocabulary.length; i++) {
+                vocabulary[i] = buffer.getInt();
+            }
+
+            FloatBuffer floats = buffer.asFloatBuffer();
+            int e = config.getEmbedding();
+            float[] tokenEmbedding = read(floats, config.getVocabSize() * e);
+            float[] positionEmbedding = read(floats, config.getBlockSize() * e);
+            Layer[] layers = new Layer[config.getLayers()];
+            for (int i = 0; i < layers.length; i++) {
+                layers[i] = new Layer(read(floats, e), read(floats, e),
+                        read(floats, 3 * e * e), read(floats, 3 * e),
+                        read(floats, e * e), read(floats, e),
+                        read(floats, e), read(floats, e),
+                        read(floats, 4 * e * e), read(floats, 4 * e),
+                        read(floats, 4 * e * e), read(floats, e));
+            }
+            float[] finalNormWeight = read(floats, e);
+            float[] finalNormBias = read(floats, e);
+            if (floats.hasRemaining()) {
+                throw new IOException("Arquivo de pesos com " + floats.remaining() + " valores excedentes: " + path);
+            }
+            return new GptWeights(config, new CharTokenizer(vocabulary), tokenEmbedding, positionEmbedding, layers,
+                    finalNormWeight, finalNormBias);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Arquivo de pesos truncado: " + path, e);
+        }
+    }
+
+    private static float[] read(FloatBuffer floats, int length) {
+        float[] values = new float[length];
+        floats.get(values);
+        return values;
+    }
+}
@@ -0,0 +1,181 @@
+package br.com.roselabs.lbot_datagen_backend.inference;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * {@link ChatModel} backed by the in-process {@link GptModel}. The model was trained on lines shaped like
+ * {@code "<comando> -> <saída>\n"}, so only the first user message is used: it is fed as {@code "<comando> ->"}
+ * and tokens are decoded until the newline. System messages and retry hints are ignored; with temperature 0
+ * decoding is greedy and deterministic.
+ */
+public class LocalGptChatModel implements ChatModel {
+
+    public static final String MODEL = "lbot-gpt-local";
+
+    private static final String SEPARATOR = " ->";
+
+    private final GptModel model;
+    private final int maxTokens;
+    private final int topK;
+
+    public LocalGptChatModel(GptModel model, int maxTokens, int topK) {
+        this.model = model;
+        this.maxTokens = maxTokens;
+        this.topK = topK;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        Decoder decoder = new Decoder(prompt);
+        StringBuilder text = new StringBuilder();
+        for (String chunk = decoder.next(); chunk != null; chunk = decoder.next()) {
+            text.append(chunk);
+        }
+        return decoder.response(text.toString());
+    }
+
+    /**
+     * Emits one chunk per generated character on a worker thread, so consumers see commands as soon as
+     * they are decoded and cancelling the subscription stops the generation.
+     */
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.<ChatResponse, Decoder>generate(() -> new Decoder(prompt), (decoder, sink) -> {
+                    String chunk = decoder.next();
+                    if (chunk == null) {
+                        sink.complete();
+                    } else {
+                        sink.next(decoder.response(chunk));
+                    }
+                    return decoder;
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return ChatOptions.builder().model(MODEL).temperature(0D).topK(topK).maxTokens(maxTokens).build();
+    }
+
+    private final class Decoder {
+
+        private final GptModel.Session session = model.newSession();
+        private final CharTokenizer tokenizer = model.getTokenizer();
+        private final double temperature;
+        private final int limit;
+        private final int promptTokens;
+        private float[] logits;
+        private int generated;
+        private boolean started;
+        private boolean finished;
+
+        private Decoder(Prompt prompt) {
+            ChatOptions options = prompt.getOptions();
+            this.temperature = options != null && options.getTemperature() != null ? options.getTemperature() : 0;
+            this.limit = options != null && options.getMaxTokens() != null ? options.getMaxTokens() : maxTokens;
+
+            List<UserMessage> messages = prompt.getUserMessages();
+            if (messages.isEmpty()) {
+                throw new IllegalArgumentException("Prompt sem mensagem do usuário");
+            }
+            int[] input = tokenizer.encode(messages.get(0).getText().strip() + SEPARATOR);
+            this.promptTokens = input.length;
+            this.logits = session.append(input);
+        }
+
+        /**
+         * Next piece of output text, or {@code null} at the end of the line or once the token limit is hit.
+         * The blank that follows the separator in the training data is swallowed.
+         */
+        private String next() {
+            while (!finished && generated < limit) {
+                int token = sample(logits);
+                generated++;
+                String text = tokenizer.decode(token);
+                if (text.equals("\n")) {
+                    finished = true;
+                    return null;
+                }
+                logits = session.append(token);
+                if (!started && text.isBlank()) {
+                    continue;
+                }
+                started = true;
+                return text;
+            }
+            return null;
+        }
+
+        private ChatResponse response(String text) {
+            ChatResponseMetadata metadata = ChatResponseMetadata.builder()
+                    .model(MODEL)
+                    .usage(new DefaultUsage(promptTokens, generated))
+                    .build();
+            return new ChatResponse(List.of(new Generation(new AssistantMessage(text))), metadata);
+        }
+
+        private int sample(float[] logits) {
+            if (temperature <= 0 || topK == 1) {
+                return argmax(logits);
+            }
+            int k = Math.min(Math.max(topK, 1), logits.length);
+            int[] candidates = new int[k];
+            float[] best = new float[k];
+            int size = 0;
+            for (int token = 0; token < logits.length; token++) {
+                float value = logits[token];
+                if (size < k) {
+                    size++;
+                } else if (value <= best[k - 1]) {
+                    continue;
+                }
+                int i = size - 1;
+                while (i > 0 && best[i - 1] < value) {
+                    best[i] = best[i - 1];
+                    candidates[i] = candidates[i - 1];
+                    i--;
+                }
+                best[i] = value;
+                candidates[i] = token;
+            }
+
+            double[] weights = new double[k];
+            double sum = 0;
+            for (int i = 0; i < k; i++) {
+                weights[i] = Math.exp((best[i] - best[0]) / temperature);
+                sum += weights[i];
+            }
+            double target = ThreadLocalRandom.current().nextDouble() * sum;
+            for (int i = 0; i < k; i++) {
+                target -= weights[i];
+                if (target <= 0) {
+                    return candidates[i];
+                }
+            }
+            return candidates[k - 1];
+        }
+
+        private int argmax(float[] logits) {
+            int best = 0;
+            for (int token = 1; token < logits.length; token++) {
+                if (logits[token] > logits[best]) {
+                    best = token;
+                }
+            }
+            return best;
+        }
+    }
+}
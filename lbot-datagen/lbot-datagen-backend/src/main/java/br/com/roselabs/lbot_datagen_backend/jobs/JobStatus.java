@@ -0,0 +1,8 @@
+package br.com.roselabs.lbot_datagen_backend.jobs;
+
+public enum JobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
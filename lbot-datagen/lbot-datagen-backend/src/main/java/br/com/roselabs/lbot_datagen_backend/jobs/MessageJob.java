@@ -0,0 +1,69 @@
+package br.com.roselabs.lbot_datagen_backend.jobs;
+
+import br.com.roselabs.lbot_datagen_backend.dtos.MessageDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.MessageJobDto;
+import lombok.Getter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class MessageJob {
+
+    @Getter
+    private final UUID id = UUID.randomUUID();
+    private final List<SseEmitter> emitters = new ArrayList<>();
+    @Getter
+    private volatile JobStatus status = JobStatus.PENDING;
+    private volatile MessageDto result;
+    private volatile String error;
+    @Getter
+    private volatile long finishedAt;
+
+    public synchronized void markRunning() {
+        status = JobStatus.RUNNING;
+    }
+
+    public synchronized List<SseEmitter> complete(MessageDto result) {
+        this.result = result;
+        return finish(JobStatus.COMPLETED);
+    }
+
+    public synchronized List<SseEmitter> fail(String error) {
+        this.error = error;
+        return finish(JobStatus.FAILED);
+    }
+
+    public synchronized boolean subscribe(SseEmitter emitter) {
+        if (isFinished()) {
+            return false;
+        }
+        emitters.add(emitter);
+        return true;
+    }
+
+    public synchronized List<SseEmitter> subscribers() {
+        return new ArrayList<>(emitters);
+    }
+
+    public synchronized void unsubscribe(SseEmitter emitter) {
+        emitters.remove(emitter);
+    }
+
+    public boolean isFinished() {
+        return status == JobStatus.COMPLETED || status == JobStatus.FAILED;
+    }
+
+    public MessageJobDto toDto() {
+        return new MessageJobDto(id, status, result, error);
+    }
+
+    private List<SseEmitter> finish(JobStatus finalStatus) {
+        status = finalStatus;
+        finishedAt = System.currentTimeMillis();
+        List<SseEmitter> subscribers = new ArrayList<>(emitters);
+        emitters.clear();
+        return subscribers;
+    }
+}
@@ -0,0 +1,148 @@
+package br.com.roselabs.lbot_datagen_backend.jobs;
+
+import br.com.roselabs.lbot_datagen_backend.dtos.MessageDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.MessageJobDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.SendMessageDto;
+import br.com.roselabs.lbot_datagen_backend.lbml.LbmlStreamListener;
+import br.com.roselabs.lbot_datagen_backend.services.ChatService;
+import br.com.roselabs.lbot_datagen_backend.services.MessageService;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+@Slf4j
+@Service
+public class MessageJobService {
+
+    private final MessageService messageService;
+    private final ChatService chatService;
+    private final ExecutorService pipelineExecutor;
+    private final long retentionMillis;
+    private final long sseTimeoutMillis;
+    private final Map<UUID, MessageJob> jobs = new ConcurrentHashMap<>();
+
+    public MessageJobService(MessageService messageService,
+                             ChatService chatService,
+                             @Qualifier("pipelineExecutor") ExecutorService pipelineExecutor,
+                             @Value("${lbot.jobs.retention:1h}") Duration retention,
+                             @Value("${lbot.jobs.sse-timeout:5m}") Duration sseTimeout) {
+        this.messageService = messageService;
+        this.chatService = chatService;
+        this.pipelineExecutor = pipelineExecutor;
+        this.retentionMillis = retention.toMillis();
+        this.sseTimeoutMillis = sseTimeout.toMillis();
+    }
+
+    public MessageJobDto submit(SendMessageDto sendMessageDto) {
+        UUID chatId = sendMessageDto.getChatId();
+        if (chatId == null || chatService.findById(chatId).isEmpty()) {
+            throw new EntityNotFoundException("Chat not found with id: " + chatId);
+        }
+
+        pruneFinishedJobs();
+
+        MessageJob job = new MessageJob();
+        jobs.put(job.getId(), job);
+        try {
+            pipelineExecutor.execute(() -> run(job, sendMessageDto));
+        } catch (RuntimeException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        return job.toDto();
+    }
+
+    public Optional<MessageJobDto> findById(UUID jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(MessageJob::toDto);
+    }
+
+    public Optional<SseEmitter> subscribe(UUID jobId) {
+        MessageJob job = jobs.get(jobId);
+        if (job == null) {
+            return Optional.empty();
+        }
+
+        SseEmitter emitter = new SseEmitter(sseTimeoutMillis);
+        emitter.onCompletion(() -> job.unsubscribe(emitter));
+        emitter.onTimeout(() -> job.unsubscribe(emitter));
+        emitter.onError(e -> job.unsubscribe(emitter));
+
+        if (!job.subscribe(emitter)) {
+            send(emitter, job);
+        } else {
+            try {
+                emitter.send(SseEmitter.event().name("status").data(job.toDto()));
+            } catch (IOException | IllegalStateException e) {
+                job.unsubscribe(emitter);
+            }
+        }
+        return Optional.of(emitter);
+    }
+
+    private void run(MessageJob job, SendMessageDto sendMessageDto) {
+        job.markRunning();
+        List<SseEmitter> subscribers;
+        try {
+            MessageDto result = messageService.sendMessage(sendMessageDto, new LbmlStreamListener() {
+                @Override
+                public void onCommand(String command) {
+                    broadcast(job, "command", command);
+                }
+
+                @Override
+                public void onRetry(int attempt, String reason) {
+                    broadcast(job, "retry", attempt);
+                }
+            });
+            subscribers = job.complete(result);
+        } catch (RuntimeException e) {
+            log.error("Erro ao processar job {}: {}", job.getId(), e.getMessage(), e);
+            subscribers = job.fail(e.getMessage());
+        }
+        subscribers.forEach(emitter -> send(emitter, job));
+    }
+
+    /**
+     * Runs on the pipeline thread, inside the model stream: a subscriber that went away, including one whose
+     * emitter already timed out or completed (send then throws {@link IllegalStateException}), is dropped
+     * rather than failing the job.
+     */
+    private void broadcast(MessageJob job, String eventName, Object data) {
+        for (SseEmitter emitter : job.subscribers()) {
+            try {
+                emitter.send(SseEmitter.event().name(eventName).data(data));
+            } catch (IOException | IllegalStateException e) {
+                job.unsubscribe(emitter);
+            }
+        }
+    }
+
+    private void send(SseEmitter emitter, MessageJob job) {
+        try {
+            String eventName = job.getStatus() == JobStatus.COMPLETED ? "completed" : "failed";
+            emitter.send(SseEmitter.event().name(eventName).data(job.toDto()));
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        } catch (IllegalStateException e) {
+            log.debug("Assinante do job {} já encerrado: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private void pruneFinishedJobs() {
+        long threshold = System.currentTimeMillis() - retentionMillis;
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt() < threshold);
+    }
+}
@@ -0,0 +1,52 @@
+package br.com.roselabs.lbot_datagen_backend.lbml;
+
+import java.util.Locale;
+
+/**
+ * Coarse classification of why model output is not valid LBML, used for metrics and repair decisions.
+ */
+public enum LbmlFailureReason {
+    EMPTY,
+    MARKDOWN_FENCE,
+    LOWERCASE,
+    MISSING_SEMICOLON,
+    DECIMAL,
+    SURROUNDING_TEXT,
+    INCOMPLETE,
+    INVALID_DIRECTION,
+    OTHER;
+
+    /**
+     * Returns {@code null} when the input is valid.
+     */
+    public static LbmlFailureReason classify(CharSequence input) {
+        if (input == null || input.toString().isBlank()) {
+            return EMPTY;
+        }
+        int offset = LbmlParser.errorOffset(input);
+        if (offset < 0) {
+            return null;
+        }
+
+        String text = input.toString();
+        if (text.contains("```")) {
+            return MARKDOWN_FENCE;
+        }
+        if (LbmlParser.isValid(text.toUpperCase(Locale.ROOT))) {
+            return LOWERCASE;
+        }
+        if (offset >= text.length()) {
+            return LbmlParser.isValid(text + ";") ? MISSING_SEMICOLON : INCOMPLETE;
+        }
+
+        char c = text.charAt(offset);
+        if ((c == '.' || c == ',') && offset > 0 && LbmlParser.isDigit(text.charAt(offset - 1))) {
+            return DECIMAL;
+        }
+        if (Character.isLetter(c)) {
+            boolean afterNumber = offset > 0 && LbmlParser.isDigit(text.charAt(offset - 1));
+            return afterNumber ? INVALID_DIRECTION : SURROUNDING_TEXT;
+        }
+        return OTHER;
+    }
+}
@@ -0,0 +1,102 @@
+package br.com.roselabs.lbot_datagen_backend.lbml;
+
+import java.util.Arrays;
+
+/**
+ * Peephole pass that shortens a program without changing the robot's final pose, following the Enki
+ * controller: {@code DxL}/{@code DxR} turn 90° and then move forward, and every turn changes the heading
+ * for good. Commands are lowered to signed turns and moves, adjacent ones of the same kind are summed
+ * (turns modulo 360, towards the shorter side), zeros are dropped and a ±90° turn followed by a forward
+ * move is folded back into {@code DxL}/{@code DxR}.
+ */
+public final class LbmlOptimizer {
+
+    private static final int MOVE = 0;
+    private static final int TURN = 1;
+
+    private LbmlOptimizer() {
+    }
+
+    /**
+     * Returns an empty array when the program has no net effect.
+     */
+    public static long[] optimize(long[] commands) {
+        int[] kinds = new int[commands.length * 2];
+        long[] amounts = new long[commands.length * 2];
+        int size = 0;
+
+        for (long command : commands) {
+            int magnitude = LbmlParser.magnitude(command);
+            int direction = LbmlParser.direction(command);
+            if (LbmlParser.opcode(command) == LbmlParser.ROTATION) {
+                size = push(kinds, amounts, size, TURN, direction == LbmlParser.LEFT ? magnitude : -magnitude);
+            } else if (direction == LbmlParser.FORWARD || direction == LbmlParser.BACKWARD) {
+                size = push(kinds, amounts, size, MOVE, direction == LbmlParser.FORWARD ? magnitude : -magnitude);
+            } else {
+                size = push(kinds, amounts, size, TURN, direction == LbmlParser.LEFT ? 90 : -90);
+                size = push(kinds, amounts, size, MOVE, magnitude);
+            }
+        }
+
+        long[] optimized = new long[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            long amount = amounts[i];
+            if (kinds[i] == TURN) {
+                if (Math.abs(amount) == 90 && i + 1 < size && kinds[i + 1] == MOVE && amounts[i + 1] > 0) {
+                    optimized[count++] = LbmlParser.encode(LbmlParser.DISPLACEMENT,
+                            amount > 0 ? LbmlParser.LEFT : LbmlParser.RIGHT, (int) amounts[++i]);
+                } else {
+                    optimized[count++] = LbmlParser.encode(LbmlParser.ROTATION,
+                            amount > 0 ? LbmlParser.LEFT : LbmlParser.RIGHT, (int) Math.abs(amount));
+                }
+            } else {
+                optimized[count++] = LbmlParser.encode(LbmlParser.DISPLACEMENT,
+                        amount > 0 ? LbmlParser.FORWARD : LbmlParser.BACKWARD, (int) Math.abs(amount));
+            }
+        }
+        return Arrays.copyOf(optimized, count);
+    }
+
+    /**
+     * Returns {@code null} when the program has no net effect, since empty LBML is not valid.
+     */
+    public static String optimize(CharSequence lbml) {
+        long[] optimized = optimize(LbmlParser.parse(lbml));
+        return optimized.length == 0 ? null : LbmlParser.toLbml(optimized);
+    }
+
+    /**
+     * Appends a signed turn or move, merging it with the previous entry of the same kind. The stack never
+     * holds two mergeable neighbours, so cancelling an entry may expose one that the next push merges with.
+     */
+    private static int push(int[] kinds, long[] amounts, int size, int kind, long amount) {
+        if (size > 0 && kinds[size - 1] == kind) {
+            long merged = amounts[size - 1] + amount;
+            if (kind == MOVE && Math.abs(merged) > Integer.MAX_VALUE) {
+                kinds[size] = kind;
+                amounts[size] = amount;
+                return size + 1;
+            }
+            size--;
+            amount = merged;
+        }
+        if (kind == TURN) {
+            amount = normalizeDegrees(amount);
+        }
+        if (amount == 0) {
+            return size;
+        }
+        kinds[size] = kind;
+        amounts[size] = amount;
+        return size + 1;
+    }
+
+    /**
+     * Maps an angle to (-180, 180], positive meaning left.
+     */
+    static long normalizeDegrees(long degrees) {
+        long normalized = Math.floorMod(degrees, 360L);
+        return normalized > 180 ? normalized - 360 : normalized;
+    }
+}
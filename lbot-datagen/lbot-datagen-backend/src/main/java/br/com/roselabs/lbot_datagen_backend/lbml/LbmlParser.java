@@ -0,0 +1,193 @@
+package br.com.roselabs.lbot_datagen_backend.lbml;
+
+public final class LbmlParser {
+
+    public static final int DISPLACEMENT = 0;
+    public static final int ROTATION = 1;
+
+    public static final int FORWARD = 0;
+    public static final int BACKWARD = 1;
+    public static final int LEFT = 2;
+    public static final int RIGHT = 3;
+
+    private static final char[] OPCODE_SYMBOLS = {'D', 'R'};
+    private static final char[] DIRECTION_SYMBOLS = {'F', 'B', 'L', 'R'};
+
+    private static final int EXPECT_PREFIX = 0;
+    private static final int EXPECT_DIGIT = 1;
+    private static final int IN_NUMBER = 2;
+    private static final int EXPECT_SEMICOLON = 3;
+
+    private LbmlParser() {
+    }
+
+    /**
+     * Decodes {@code input} into {@code out} without allocating. Returns the number of
+     * commands found, or {@code -(offset + 1)} pointing at the first invalid character.
+     * When {@code out} is null or too small the input is still fully validated.
+     */
+    public static int parse(CharSequence input, long[] out) {
+        if (input == null) {
+            return -1;
+        }
+
+        int length = input.length();
+        int state = EXPECT_PREFIX;
+        int opcode = DISPLACEMENT;
+        int direction = FORWARD;
+        long magnitude = 0;
+        int count = 0;
+
+        for (int i = 0; i < length; i++) {
+            char c = input.charAt(i);
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+
+            switch (state) {
+                case EXPECT_PREFIX:
+                    if (c == 'D') {
+                        opcode = DISPLACEMENT;
+                    } else if (c == 'R') {
+                        opcode = ROTATION;
+                    } else {
+                        return -(i + 1);
+                    }
+                    state = EXPECT_DIGIT;
+                    break;
+                case EXPECT_DIGIT:
+                    if (!isDigit(c)) {
+                        return -(i + 1);
+                    }
+                    magnitude = c - '0';
+                    state = IN_NUMBER;
+                    break;
+                case IN_NUMBER:
+                    if (isDigit(c)) {
+                        magnitude = magnitude * 10 + (c - '0');
+                        if (magnitude > Integer.MAX_VALUE) {
+                            return -(i + 1);
+                        }
+                    } else {
+                        direction = direction(opcode, c);
+                        if (direction < 0) {
+                            return -(i + 1);
+                        }
+                        state = EXPECT_SEMICOLON;
+                    }
+                    break;
+                default:
+                    if (c != ';') {
+                        return -(i + 1);
+                    }
+                    if (out != null && count < out.length) {
+                        out[count] = encode(opcode, direction, (int) magnitude);
+                    }
+                    count++;
+                    state = EXPECT_PREFIX;
+                    break;
+            }
+        }
+
+        if (state != EXPECT_PREFIX || count == 0) {
+            return -(length + 1);
+        }
+        return count;
+    }
+
+    public static long[] parse(CharSequence input) {
+        long[] commands = new long[countTerminators(input)];
+        int result = parse(input, commands);
+        if (result < 0) {
+            int offset = -result - 1;
+            throw new LbmlSyntaxException(describeError(input, offset), offset);
+        }
+        return commands;
+    }
+
+    public static int errorOffset(CharSequence input) {
+        int result = parse(input, null);
+        return result < 0 ? -result - 1 : -1;
+    }
+
+    public static boolean isValid(CharSequence input) {
+        return parse(input, null) > 0;
+    }
+
+    public static String canonicalize(CharSequence input) {
+        return toLbml(parse(input));
+    }
+
+    public static String toLbml(long[] commands) {
+        return toLbml(commands, commands.length);
+    }
+
+    public static String toLbml(long[] commands, int count) {
+        StringBuilder builder = new StringBuilder(count * 6);
+        for (int i = 0; i < count; i++) {
+            appendCommand(builder, commands[i]);
+        }
+        return builder.toString();
+    }
+
+    public static void appendCommand(StringBuilder builder, long command) {
+        builder.append(OPCODE_SYMBOLS[opcode(command)])
+                .append(magnitude(command))
+                .append(DIRECTION_SYMBOLS[direction(command)])
+                .append(';');
+    }
+
+    public static long encode(int opcode, int direction, int magnitude) {
+        return ((long) magnitude << 32) | ((long) opcode << 8) | direction;
+    }
+
+    public static int opcode(long command) {
+        return (int) (command >>> 8) & 0xFF;
+    }
+
+    public static int direction(long command) {
+        return (int) command & 0xFF;
+    }
+
+    public static int magnitude(long command) {
+        return (int) (command >>> 32);
+    }
+
+    static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    static int direction(int opcode, char c) {
+        switch (c) {
+            case 'L':
+                return LEFT;
+            case 'R':
+                return RIGHT;
+            case 'F':
+                return opcode == DISPLACEMENT ? FORWARD : -1;
+            case 'B':
+                return opcode == DISPLACEMENT ? BACKWARD : -1;
+            default:
+                return -1;
+        }
+    }
+
+    private static int countTerminators(CharSequence input) {
+        int count = 0;
+        if (input != null) {
+            for (int i = 0; i < input.length(); i++) {
+                if (input.charAt(i) == ';') {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static String describeError(CharSequence input, int offset) {
+        if (input == null || offset >= input.length()) {
+            return "LBML incompleto: fim inesperado na posição " + offset;
+        }
+        return "LBML inválido: caractere inesperado '" + input.charAt(offset) + "' na posição " + offset;
+    }
+}
@@ -0,0 +1,158 @@
+package br.com.roselabs.lbot_datagen_backend.lbml;
+
+import java.util.EnumSet;
+
+/**
+ * Deterministic fixes for near-valid model output: markdown fences, lowercase letters, missing {@code ;},
+ * decimal magnitudes (rounded, since the robot works in whole centimetres and degrees) and prose around
+ * the commands. Anything it cannot turn into valid LBML is left for an LLM retry.
+ * <p>
+ * Prose is only stripped around the first run of commands: commands that reappear after more text are
+ * usually an example or an alternative, not part of the answer. A reply that quotes {@link #HINT_EXAMPLE}
+ * among prose is a refusal or an explanation echoing the retry hint, and is not repaired at all.
+ */
+public final class LbmlRepairEngine {
+
+    /**
+     * The example program given to the model in the retry hint.
+     */
+    public static final String HINT_EXAMPLE = "D40F;R90L;D20B;";
+
+    private static final String FENCE = "```";
+
+    private LbmlRepairEngine() {
+    }
+
+    /**
+     * Returns {@code null} when no valid LBML can be recovered.
+     */
+    public static LbmlRepairResult repair(CharSequence input) {
+        if (input == null) {
+            return null;
+        }
+        EnumSet<LbmlRepairKind> repairs = EnumSet.noneOf(LbmlRepairKind.class);
+
+        String body = input.toString();
+        int fence = body.indexOf(FENCE);
+        if (fence >= 0) {
+            body = stripFences(body, fence);
+            repairs.add(LbmlRepairKind.STRIPPED_FENCE);
+        }
+
+        StringBuilder out = new StringBuilder(body.length());
+        int lastCommandEnd = 0;
+        boolean textAfterCommands = false;
+        int i = 0;
+        while (i < body.length()) {
+            if (!textAfterCommands) {
+                int end = matchCommand(body, i, i == lastCommandEnd, out, repairs);
+                if (end > 0) {
+                    i = end;
+                    lastCommandEnd = skipWhitespace(body, end);
+                    continue;
+                }
+            }
+            char c = body.charAt(i);
+            if (!Character.isWhitespace(c) && c != ';') {
+                repairs.add(LbmlRepairKind.REMOVED_TEXT);
+                textAfterCommands = !out.isEmpty();
+            }
+            i++;
+        }
+
+        if (out.isEmpty() || !LbmlParser.isValid(out)) {
+            return null;
+        }
+        if (repairs.contains(LbmlRepairKind.REMOVED_TEXT) && body.contains(HINT_EXAMPLE)) {
+            return null;
+        }
+        return new LbmlRepairResult(out.toString(), repairs);
+    }
+
+    /**
+     * Keeps the content of the first fenced block, dropping an optional language tag after the opening fence.
+     */
+    private static String stripFences(String text, int open) {
+        int start = open + FENCE.length();
+        int newline = text.indexOf('\n', start);
+        int close = text.indexOf(FENCE, start);
+        if (newline >= 0 && (close < 0 || newline < close)) {
+            String tag = text.substring(start, newline).trim();
+            if (!tag.isEmpty() && tag.chars().allMatch(Character::isLetter)) {
+                start = newline + 1;
+            }
+        }
+        return close < 0 ? text.substring(start) : text.substring(start, close);
+    }
+
+    private static int matchCommand(String text, int start, boolean adjacent, StringBuilder out,
+                                    EnumSet<LbmlRepairKind> repairs) {
+        char prefix = text.charAt(start);
+        char opcode = Character.toUpperCase(prefix);
+        if (opcode != 'D' && opcode != 'R') {
+            return -1;
+        }
+        if (!adjacent && start > 0 && Character.isLetterOrDigit(text.charAt(start - 1))) {
+            return -1;
+        }
+
+        int i = skipWhitespace(text, start + 1);
+        int digitsStart = i;
+        while (i < text.length() && LbmlParser.isDigit(text.charAt(i))) {
+            i++;
+        }
+        if (i == digitsStart || i - digitsStart > 10) {
+            return -1;
+        }
+        long magnitude = Long.parseLong(text, digitsStart, i, 10);
+
+        boolean rounded = false;
+        if (i + 1 < text.length() && (text.charAt(i) == '.' || text.charAt(i) == ',')
+                && LbmlParser.isDigit(text.charAt(i + 1))) {
+            if (text.charAt(i + 1) >= '5') {
+                magnitude++;
+            }
+            i++;
+            while (i < text.length() && LbmlParser.isDigit(text.charAt(i))) {
+                i++;
+            }
+            rounded = true;
+        }
+        if (magnitude > Integer.MAX_VALUE) {
+            return -1;
+        }
+
+        i = skipWhitespace(text, i);
+        if (i >= text.length()) {
+            return -1;
+        }
+        char directionChar = text.charAt(i);
+        char direction = Character.toUpperCase(directionChar);
+        if (direction != 'F' && direction != 'B' && direction != 'L' && direction != 'R') {
+            return -1;
+        }
+        i++;
+
+        int semicolon = skipWhitespace(text, i);
+        boolean terminated = semicolon < text.length() && text.charAt(semicolon) == ';';
+
+        if (rounded) {
+            repairs.add(LbmlRepairKind.ROUNDED_DECIMAL);
+        }
+        if (prefix != opcode || directionChar != direction) {
+            repairs.add(LbmlRepairKind.UPPERCASED);
+        }
+        if (!terminated) {
+            repairs.add(LbmlRepairKind.ADDED_SEMICOLON);
+        }
+        out.append(opcode).append(magnitude).append(direction).append(';');
+        return terminated ? semicolon + 1 : i;
+    }
+
+    private static int skipWhitespace(String text, int i) {
+        while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+}
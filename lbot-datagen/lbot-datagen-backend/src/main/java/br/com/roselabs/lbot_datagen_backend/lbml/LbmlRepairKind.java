@@ -0,0 +1,9 @@
+package br.com.roselabs.lbot_datagen_backend.lbml;
+
+public enum LbmlRepairKind {
+    STRIPPED_FENCE,
+    UPPERCASED,
+    ADDED_SEMICOLON,
+    ROUNDED_DECIMAL,
+    REMOVED_TEXT
+}
@@ -0,0 +1,26 @@
+package br.com.roselabs.lbot_datagen_backend.lbml;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Getter
+@AllArgsConstructor
+public class LbmlRepairResult {
+
+    private final String lbml;
+    private final Set<LbmlRepairKind> repairs;
+
+    public boolean isRepaired() {
+        return !repairs.isEmpty();
+    }
+
+    /**
+     * Comma separated repair names as stored on the message, or {@code null} when nothing was changed.
+     */
+    public String describe() {
+        return repairs.isEmpty() ? null : repairs.stream().map(Enum::name).collect(Collectors.joining(","));
+    }
+}
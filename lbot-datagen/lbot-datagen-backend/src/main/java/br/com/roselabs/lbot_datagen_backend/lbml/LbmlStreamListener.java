@@ -0,0 +1,12 @@
+package br.com.roselabs.lbot_datagen_backend.lbml;
+
+public interface LbmlStreamListener {
+
+    LbmlStreamListener NOOP = command -> {
+    };
+
+    void onCommand(String command);
+
+    default void onRetry(int attempt, String reason) {
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.roselabs.lbot_datagen_backend.lbml;
+
+public class LbmlStreamValidator {
+
+    public enum Step {
+        CONTINUE,
+        COMMAND,
+        INVALID
+    }
+
+    private static final int EXPECT_PREFIX = 0;
+    private static final int EXPECT_DIGIT = 1;
+    private static final int IN_NUMBER = 2;
+    private static final int EXPECT_SEMICOLON = 3;
+    private static final int FAILED = 4;
+
+    private final StringBuilder text = new StringBuilder();
+    private int state = EXPECT_PREFIX;
+    private char prefix;
+    private int commandStart;
+    private int commands;
+    private int errorOffset = -1;
+    private boolean wrongDirection;
+
+    public Step accept(char c) {
+        if (state == FAILED) {
+            return Step.INVALID;
+        }
+        if (Character.isWhitespace(c)) {
+            return Step.CONTINUE;
+        }
+
+        text.append(c);
+        switch (state) {
+            case EXPECT_PREFIX:
+                if (c == 'D' || c == 'R') {
+                    prefix = c;
+                    commandStart = text.length() - 1;
+                    state = EXPECT_DIGIT;
+                    return Step.CONTINUE;
+                }
+                return fail();
+            case EXPECT_DIGIT:
+                if (LbmlParser.isDigit(c)) {
+                    state = IN_NUMBER;
+                    return Step.CONTINUE;
+                }
+                return fail();
+            case IN_NUMBER:
+                if (LbmlParser.isDigit(c)) {
+                    return Step.CONTINUE;
+                }
+                int opcode = prefix == 'R' ? LbmlParser.ROTATION : LbmlParser.DISPLACEMENT;
+                if (LbmlParser.direction(opcode, c) >= 0) {
+                    state = EXPECT_SEMICOLON;
+                    return Step.CONTINUE;
+                }
+                wrongDirection = Character.isLetter(c) && LbmlParser.direction(opcode, Character.toUpperCase(c)) < 0;
+                return fail();
+            case EXPECT_SEMICOLON:
+                if (c == ';') {
+                    commands++;
+                    state = EXPECT_PREFIX;
+                    return Step.COMMAND;
+                }
+                return fail();
+            default:
+                return fail();
+        }
+    }
+
+    public String lastCommand() {
+        return text.substring(commandStart);
+    }
+
+    public boolean isComplete() {
+        return state == EXPECT_PREFIX && commands > 0;
+    }
+
+    public int getCommands() {
+        return commands;
+    }
+
+    public int getErrorOffset() {
+        return errorOffset;
+    }
+
+    /**
+     * Whether the stream failed on a letter that is not a direction of its command in any case, such as
+     * {@code F} after a rotation. A lowercase direction is not: the repair engine upper-cases it.
+     */
+    public boolean isWrongDirection() {
+        return wrongDirection;
+    }
+
+    public String getText() {
+        return text.toString();
+    }
+
+    private Step fail() {
+        state = FAILED;
+        errorOffset = text.length() - 1;
+        return Step.INVALID;
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.roselabs.lbot_datagen_backend.lbml;
+
+import lombok.Getter;
+
+@Getter
+public class LbmlSyntaxException extends RuntimeException {
+
+    private final int offset;
+
+    public LbmlSyntaxException(String message, int offset) {
+        super(message);
+        this.offset = offset;
+    }
+}
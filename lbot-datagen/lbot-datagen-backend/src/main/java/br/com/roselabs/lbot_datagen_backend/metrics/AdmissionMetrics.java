@@ -0,0 +1,26 @@
+package br.com.roselabs.lbot_datagen_backend.metrics;
+
+import br.com.roselabs.lbot_datagen_backend.admission.FairBulkhead;
+import br.com.roselabs.lbot_datagen_backend.admission.LlmAdmission;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class AdmissionMetrics implements MeterBinder {
+
+    private final LlmAdmission llmAdmission;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("lbot.llm.admission.queue", llmAdmission.getBulkhead(), FairBulkhead::getQueued)
+                .description("Chamadas ao modelo aguardando vaga")
+                .register(registry);
+        Gauge.builder("lbot.llm.admission.active", llmAdmission.getBulkhead(), FairBulkhead::getActive)
+                .description("Chamadas ao modelo em andamento")
+                .register(registry);
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.roselabs.lbot_datagen_backend.metrics;
+
+import br.com.roselabs.lbot_datagen_backend.cache.LlmResponseCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class CacheMetrics implements MeterBinder {
+
+    private final LlmResponseCache llmResponseCache;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("lbot.llm.cache.requests", llmResponseCache, cache -> cache.getStats().getHits())
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("lbot.llm.cache.requests", llmResponseCache, cache -> cache.getStats().getMisses())
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("lbot.llm.cache.evictions", llmResponseCache,
+                        cache -> cache.getStats().getEvictions())
+                .register(registry);
+        Gauge.builder("lbot.llm.cache.size", llmResponseCache, cache -> cache.getStats().getSize())
+                .register(registry);
+    }
+}
@@ -0,0 +1,133 @@
+package br.com.roselabs.lbot_datagen_backend.metrics;
+
+import br.com.roselabs.lbot_datagen_backend.entities.Message;
+import br.com.roselabs.lbot_datagen_backend.entities.PipelineStage;
+import br.com.roselabs.lbot_datagen_backend.lbml.LbmlFailureReason;
+import br.com.roselabs.lbot_datagen_backend.lbml.LbmlRepairKind;
+import br.com.roselabs.lbot_datagen_backend.pipeline.StageTimings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for the prompt-to-LBML pipeline. Meter lookups are cached by the registry, so recording stays cheap
+ * on the hot path.
+ */
+@Component
+public class PipelineMetrics {
+
+    private final MeterRegistry registry;
+
+    public PipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void recordLlmCall(String model, String prompt, boolean streaming, boolean success, long nanos) {
+        Timer.builder("lbot.llm.calls")
+                .description("Latência das chamadas ao modelo")
+                .tag("model", model)
+                .tag("prompt", prompt)
+                .tag("mode", streaming ? "stream" : "call")
+                .tag("outcome", success ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordTokens(String model, String type, Integer tokens) {
+        if (tokens == null || tokens <= 0) {
+            return;
+        }
+        Counter.builder("lbot.llm.tokens")
+                .description("Tokens consumidos por modelo")
+                .tag("model", model)
+                .tag("type", type)
+                .register(registry)
+                .increment(tokens);
+    }
+
+    public void recordConversionAttempt(int attempt, boolean valid) {
+        Counter.builder("lbot.conversion.attempts")
+                .description("Tentativas de conversão para LBML")
+                .tag("attempt", Integer.toString(attempt))
+                .tag("outcome", valid ? "valid" : "invalid")
+                .register(registry)
+                .increment();
+    }
+
+    public void recordValidationFailure(LbmlFailureReason reason) {
+        Counter.builder("lbot.lbml.validation.failures")
+                .description("Saídas do modelo rejeitadas pelo validador LBML")
+                .tag("reason", reason.name().toLowerCase())
+                .register(registry)
+                .increment();
+    }
+
+    public void recordRepair(LbmlRepairKind kind) {
+        Counter.builder("lbot.lbml.repairs")
+                .description("Reparos locais aplicados a saídas quase válidas")
+                .tag("kind", kind.name().toLowerCase())
+                .register(registry)
+                .increment();
+    }
+
+    public void recordHedge(String model, String outcome) {
+        Counter.builder("lbot.llm.hedges")
+                .description("Requisições hedge ao modelo")
+                .tag("model", model)
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    public void recordAdmissionRejection(String model, String reason) {
+        Counter.builder("lbot.llm.admission.rejections")
+                .description("Chamadas ao modelo rejeitadas pelo controle de admissão")
+                .tag("model", model)
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    public void recordCoalescing(String outcome) {
+        Counter.builder("lbot.messages.coalescing")
+                .description("Requisições de mensagem executadas, agrupadas com outra em andamento ou repetidas")
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    public void recordSpeculation(String outcome) {
+        Counter.builder("lbot.conversion.speculations")
+                .description("Conversões especulativas sobre o prompt original")
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    public void recordPipeline(Message message, StageTimings timings) {
+        for (PipelineStage stage : PipelineStage.values()) {
+            Long elapsed = timings.get(stage);
+            if (elapsed != null) {
+                Timer.builder("lbot.pipeline.stage")
+                        .description("Duração de cada estágio do pipeline")
+                        .tag("stage", stage.name().toLowerCase())
+                        .register(registry)
+                        .record(elapsed, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        Counter.builder("lbot.pipeline.messages")
+                .description("Mensagens processadas pelo pipeline")
+                .tag("status", String.valueOf(message.getStatus()).toLowerCase())
+                .tag("failed_stage", message.getFailedStage() != null
+                        ? message.getFailedStage().name().toLowerCase() : "none")
+                .tag("normalization", message.getNormalizationPath() != null
+                        ? message.getNormalizationPath().name().toLowerCase() : "none")
+                .register(registry)
+                .increment();
+    }
+}
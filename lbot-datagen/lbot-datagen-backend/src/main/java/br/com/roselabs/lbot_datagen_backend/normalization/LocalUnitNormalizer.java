@@ -0,0 +1,366 @@
+package br.com.roselabs.lbot_datagen_backend.normalization;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Component
+public class LocalUnitNormalizer {
+
+    private static final Map<String, BigDecimal> UNIT_FACTORS = new HashMap<>();
+    private static final Set<String> CENTIMETER_UNITS = Set.of("cm", "centimetro", "centimetros");
+    private static final Set<String> UNSUPPORTED_MEASURES = Set.of(
+            "legua", "leguas", "quadra", "quadras", "quarteirao", "quarteiroes",
+            "braca", "bracas", "covado", "covados", "vara", "varas");
+    private static final Set<String> AMBIGUOUS_WHEN_UNQUANTIFIED = Set.of(
+            "metro", "metros", "milimetro", "milimetros", "quilometro", "quilometros", "km", "mm",
+            "polegada", "polegadas", "jarda", "jardas", "milha", "milhas",
+            "palmos", "passos", "andares", "dedos", "pes");
+    private static final Set<String> NON_DISTANCE_WORDS = Set.of("grau", "graus", "vez", "vezes", "segundo", "segundos");
+    private static final Map<String, Integer> NUMERALS = new HashMap<>();
+    private static final Set<String> HALF_WORDS = Set.of("meio", "meia");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}");
+
+    static {
+        registerUnit("100", "m", "metro", "metros");
+        registerUnit("0.1", "mm", "milimetro", "milimetros");
+        registerUnit("100000", "km", "quilometro", "quilometros");
+        registerUnit("2.54", "inch", "in", "pol", "polegada", "polegadas");
+        registerUnit("30.48", "ft", "pe", "pes");
+        registerUnit("91.44", "yd", "jarda", "jardas");
+        registerUnit("160934", "mi", "milha", "milhas");
+        registerUnit("20", "palmo", "palmos");
+        registerUnit("75", "passo", "passos");
+        registerUnit("300", "andar", "andares");
+        registerUnit("2", "dedo", "dedos");
+
+        registerNumeral(0, "zero");
+        registerNumeral(1, "um", "uma");
+        registerNumeral(2, "dois", "duas");
+        registerNumeral(3, "tres");
+        registerNumeral(4, "quatro");
+        registerNumeral(5, "cinco");
+        registerNumeral(6, "seis");
+        registerNumeral(7, "sete");
+        registerNumeral(8, "oito");
+        registerNumeral(9, "nove");
+        registerNumeral(10, "dez");
+        registerNumeral(11, "onze");
+        registerNumeral(12, "doze");
+        registerNumeral(13, "treze");
+        registerNumeral(14, "quatorze", "catorze");
+        registerNumeral(15, "quinze");
+        registerNumeral(16, "dezesseis", "dezasseis");
+        registerNumeral(17, "dezessete", "dezassete");
+        registerNumeral(18, "dezoito");
+        registerNumeral(19, "dezenove", "dezanove");
+        registerNumeral(20, "vinte");
+        registerNumeral(30, "trinta");
+        registerNumeral(40, "quarenta");
+        registerNumeral(50, "cinquenta");
+        registerNumeral(60, "sessenta");
+        registerNumeral(70, "setenta");
+        registerNumeral(80, "oitenta");
+        registerNumeral(90, "noventa");
+        registerNumeral(100, "cem", "cento");
+        registerNumeral(200, "duzentos", "duzentas");
+        registerNumeral(300, "trezentos", "trezentas");
+        registerNumeral(400, "quatrocentos", "quatrocentas");
+        registerNumeral(500, "quinhentos", "quinhentas");
+        registerNumeral(600, "seiscentos", "seiscentas");
+        registerNumeral(700, "setecentos", "setecentas");
+        registerNumeral(800, "oitocentos", "oitocentas");
+        registerNumeral(900, "novecentos", "novecentas");
+        registerNumeral(1000, "mil");
+    }
+
+    public Optional<String> normalize(String text) {
+        if (text == null || text.isBlank()) {
+            return Optional.empty();
+        }
+
+        List<Token> tokens = tokenize(text);
+        StringBuilder result = new StringBuilder(text.length());
+        int copiedUntil = 0;
+        int i = 0;
+
+        while (i < tokens.size()) {
+            Token token = tokens.get(i);
+
+            if (token.type == TokenType.WORD && UNSUPPORTED_MEASURES.contains(token.key)) {
+                log.debug("Medida não suportada localmente: '{}'", token.text);
+                return Optional.empty();
+            }
+
+            Quantity quantity = parseQuantity(tokens, i);
+            if (quantity == null) {
+                if (token.type == TokenType.NUMBER && isAmbiguousNumber(token)) {
+                    log.debug("Número ambíguo: '{}'", token.text);
+                    return Optional.empty();
+                }
+                if (token.type == TokenType.WORD && AMBIGUOUS_WHEN_UNQUANTIFIED.contains(token.key)) {
+                    log.debug("Unidade sem quantidade: '{}'", token.text);
+                    return Optional.empty();
+                }
+                i++;
+                continue;
+            }
+            int unitIndex = nextSignificant(tokens, quantity.end);
+            Token unit = unitIndex < 0 ? null : tokens.get(unitIndex);
+            if (unit == null || unit.type != TokenType.WORD
+                    || (!UNIT_FACTORS.containsKey(unit.key) && !CENTIMETER_UNITS.contains(unit.key))) {
+                i = quantity.end;
+                continue;
+            }
+
+            BigDecimal value = quantity.value;
+            int end = unitIndex + 1;
+
+            int conjunction = nextSignificant(tokens, end);
+            if (conjunction >= 0 && tokens.get(conjunction).is("e")) {
+                int following = nextSignificant(tokens, conjunction + 1);
+                if (following >= 0 && HALF_WORDS.contains(tokens.get(following).key)) {
+                    value = value.add(new BigDecimal("0.5"));
+                    end = following + 1;
+                } else if (following >= 0 && startsQuantity(tokens.get(following))) {
+                    Quantity trailing = parseQuantity(tokens, following);
+                    int trailingUnit = trailing == null ? -1 : nextSignificant(tokens, trailing.end);
+                    if (trailingUnit < 0 || !isUnitOrNonDistance(tokens.get(trailingUnit))) {
+                        log.debug("Medida composta ambígua após '{}'", unit.text);
+                        return Optional.empty();
+                    }
+                }
+            }
+
+            if (CENTIMETER_UNITS.contains(unit.key)) {
+                i = end;
+                continue;
+            }
+
+            BigDecimal centimeters = value.multiply(UNIT_FACTORS.get(unit.key))
+                    .setScale(2, RoundingMode.HALF_UP)
+                    .stripTrailingZeros();
+
+            result.append(text, copiedUntil, tokens.get(i).start);
+            result.append(centimeters.toPlainString()).append(" cm");
+            copiedUntil = tokens.get(end - 1).end;
+            i = end;
+        }
+
+        result.append(text, copiedUntil, text.length());
+        return Optional.of(result.toString());
+    }
+
+    private Quantity parseQuantity(List<Token> tokens, int index) {
+        Token first = tokens.get(index);
+        BigDecimal value;
+        int end;
+
+        if (first.type == TokenType.NUMBER) {
+            if (isAmbiguousNumber(first)) {
+                return null;
+            }
+            value = new BigDecimal(first.text.replace(',', '.'));
+            end = index + 1;
+        } else if (first.type == TokenType.WORD && HALF_WORDS.contains(first.key)) {
+            return new Quantity(new BigDecimal("0.5"), index + 1);
+        } else if (first.type == TokenType.WORD && NUMERALS.containsKey(first.key)) {
+            long total = 0;
+            long current = 0;
+            int cursor = index;
+            while (true) {
+                int numeral = NUMERALS.get(tokens.get(cursor).key);
+                if (numeral == 1000) {
+                    total += Math.max(current, 1) * 1000;
+                    current = 0;
+                } else {
+                    current += numeral;
+                }
+                end = cursor + 1;
+
+                int next = nextSignificant(tokens, end);
+                if (next >= 0 && NUMERALS.containsKey(tokens.get(next).key)) {
+                    cursor = next;
+                    continue;
+                }
+                if (next >= 0 && tokens.get(next).is("e")) {
+                    int afterConjunction = nextSignificant(tokens, next + 1);
+                    if (afterConjunction >= 0 && NUMERALS.containsKey(tokens.get(afterConjunction).key)) {
+                        cursor = afterConjunction;
+                        continue;
+                    }
+                }
+                break;
+            }
+            value = BigDecimal.valueOf(total + current);
+        } else {
+            return null;
+        }
+
+        int next = nextSignificant(tokens, end);
+        if (next >= 0 && tokens.get(next).is("e")) {
+            int afterConjunction = nextSignificant(tokens, next + 1);
+            if (afterConjunction >= 0 && HALF_WORDS.contains(tokens.get(afterConjunction).key)) {
+                int unit = nextSignificant(tokens, afterConjunction + 1);
+                if (unit >= 0 && isUnit(tokens.get(unit))) {
+                    return new Quantity(value.add(new BigDecimal("0.5")), afterConjunction + 1);
+                }
+            }
+        }
+
+        return new Quantity(value, end);
+    }
+
+    /**
+     * More than one separator ("1.000,5"), or a single dot before exactly three digits ("1.000"), which pt-BR
+     * reads as a thousands separator and English as a decimal point.
+     */
+    private static boolean isAmbiguousNumber(Token token) {
+        if (token.separators > 1) {
+            return true;
+        }
+        int dot = token.text.indexOf('.');
+        return dot >= 0 && token.text.length() - dot - 1 == 3;
+    }
+
+    private static boolean startsQuantity(Token token) {
+        return token.type == TokenType.NUMBER || NUMERALS.containsKey(token.key) || HALF_WORDS.contains(token.key);
+    }
+
+    private static boolean isUnit(Token token) {
+        return token.type == TokenType.WORD
+                && (UNIT_FACTORS.containsKey(token.key) || CENTIMETER_UNITS.contains(token.key));
+    }
+
+    private static boolean isUnitOrNonDistance(Token token) {
+        return isUnit(token) || NON_DISTANCE_WORDS.contains(token.key) || token.text.equals("°");
+    }
+
+    private static int nextSignificant(List<Token> tokens, int from) {
+        int index = from;
+        while (index < tokens.size() && tokens.get(index).type == TokenType.SPACE) {
+            index++;
+        }
+        return index < tokens.size() ? index : -1;
+    }
+
+    private static List<Token> tokenize(String text) {
+        List<Token> tokens = new ArrayList<>();
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            int start = i;
+            if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(text.charAt(i))) {
+                    i++;
+                }
+                tokens.add(new Token(TokenType.SPACE, text, start, i, 0));
+            } else if (Character.isDigit(c)) {
+                int separators = 0;
+                while (i < length) {
+                    char current = text.charAt(i);
+                    if (Character.isDigit(current)) {
+                        i++;
+                    } else if ((current == '.' || current == ',') && i + 1 < length
+                            && Character.isDigit(text.charAt(i + 1))) {
+                        separators++;
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                tokens.add(new Token(TokenType.NUMBER, text, start, i, separators));
+            } else if (Character.isLetter(c)) {
+                while (i < length && Character.isLetter(text.charAt(i))) {
+                    i++;
+                }
+                tokens.add(new Token(TokenType.WORD, text, start, i, 0));
+            } else {
+                i++;
+                tokens.add(new Token(TokenType.OTHER, text, start, i, 0));
+            }
+        }
+        return tokens;
+    }
+
+    private static String key(String word) {
+        String lower = word.toLowerCase(Locale.ROOT);
+        boolean ascii = true;
+        for (int i = 0; i < lower.length(); i++) {
+            if (lower.charAt(i) > 127) {
+                ascii = false;
+                break;
+            }
+        }
+        if (ascii) {
+            return lower;
+        }
+        return DIACRITICS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    private static void registerUnit(String factor, String... names) {
+        for (String name : names) {
+            UNIT_FACTORS.put(name, new BigDecimal(factor));
+        }
+    }
+
+    private static void registerNumeral(int value, String... names) {
+        for (String name : names) {
+            NUMERALS.put(name, value);
+        }
+    }
+
+    private enum TokenType {
+        WORD,
+        NUMBER,
+        SPACE,
+        OTHER
+    }
+
+    private static final class Token {
+
+        private final TokenType type;
+        private final String text;
+        private final String key;
+        private final int start;
+        private final int end;
+        private final int separators;
+
+        private Token(TokenType type, String source, int start, int end, int separators) {
+            this.type = type;
+            this.text = source.substring(start, end);
+            this.key = type == TokenType.WORD ? key(text) : text;
+            this.start = start;
+            this.end = end;
+            this.separators = separators;
+        }
+
+        private boolean is(String word) {
+            return type == TokenType.WORD && key.equals(word);
+        }
+    }
+
+    private static final class Quantity {
+
+        private final BigDecimal value;
+        private final int end;
+
+        private Quantity(BigDecimal value, int end) {
+            this.value = value;
+            this.end = end;
+        }
+    }
+}
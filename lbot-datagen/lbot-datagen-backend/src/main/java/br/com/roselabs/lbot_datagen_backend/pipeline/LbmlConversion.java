@@ -0,0 +1,13 @@
+package br.com.roselabs.lbot_datagen_backend.pipeline;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class LbmlConversion {
+
+    private final String lbml;
+    private final int attempts;
+    private final String repairs;
+}
@@ -0,0 +1,14 @@
+package br.com.roselabs.lbot_datagen_backend.pipeline;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class LbmlValidation {
+
+    private final String lbml;
+    private final int commandCount;
+    private final String optimizedLbml;
+    private final int optimizedCommandCount;
+}
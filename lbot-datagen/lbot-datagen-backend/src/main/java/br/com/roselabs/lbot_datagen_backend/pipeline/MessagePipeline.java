@@ -0,0 +1,197 @@
+package br.com.roselabs.lbot_datagen_backend.pipeline;
+
+import br.com.roselabs.lbot_datagen_backend.admission.LlmOverloadedException;
+import br.com.roselabs.lbot_datagen_backend.entities.Chat;
+import br.com.roselabs.lbot_datagen_backend.entities.Message;
+import br.com.roselabs.lbot_datagen_backend.entities.NormalizationPath;
+import br.com.roselabs.lbot_datagen_backend.entities.PipelineStage;
+import br.com.roselabs.lbot_datagen_backend.entities.PipelineStatus;
+import br.com.roselabs.lbot_datagen_backend.hedging.HedgedExecutor;
+import br.com.roselabs.lbot_datagen_backend.lbml.LbmlOptimizer;
+import br.com.roselabs.lbot_datagen_backend.lbml.LbmlParser;
+import br.com.roselabs.lbot_datagen_backend.lbml.LbmlStreamListener;
+import br.com.roselabs.lbot_datagen_backend.metrics.PipelineMetrics;
+import br.com.roselabs.lbot_datagen_backend.normalization.LocalUnitNormalizer;
+import br.com.roselabs.lbot_datagen_backend.repositories.MessageRepository;
+import br.com.roselabs.lbot_datagen_backend.services.AIService;
+import br.com.roselabs.lbot_datagen_backend.services.NearDuplicateService;
+import br.com.roselabs.lbot_datagen_backend.simulation.KinematicGrader;
+import br.com.roselabs.lbot_datagen_backend.tracing.MessageTraceRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MessagePipeline {
+
+    private final AIService aiService;
+    private final LocalUnitNormalizer localUnitNormalizer;
+    private final MessageRepository messageRepository;
+    private final MessageTraceRegistry messageTraceRegistry;
+    private final PipelineMetrics pipelineMetrics;
+    private final HedgedExecutor hedgedExecutor;
+    private final NearDuplicateService nearDuplicateService;
+
+    public PipelineResult run(Chat chat, String prompt) {
+        return run(chat, prompt, LbmlStreamListener.NOOP);
+    }
+
+    public PipelineResult run(Chat chat, String prompt, LbmlStreamListener listener) {
+        PipelineResult result = process(chat, prompt, listener);
+        Message message = result.getMessage();
+
+        result.getTimings().measure(PipelineStage.PERSIST, () -> messageRepository.save(message));
+        log.info("Pipeline concluído com status {} em {} ms por estágio", message.getStatus(), result.getTimings());
+        messageTraceRegistry.record(message.getId(), result.getTimings());
+        nearDuplicateService.index(message);
+        pipelineMetrics.recordPipeline(message, result.getTimings());
+
+        return result;
+    }
+
+    public PipelineResult process(Chat chat, String prompt, LbmlStreamListener listener) {
+        StageTimings timings = new StageTimings();
+        String caller = String.valueOf(chat.getId());
+        Message message = Message.builder()
+                .prompt(prompt)
+                .chat(chat)
+                .status(PipelineStatus.SUCCESS)
+                .build();
+
+        try {
+            Optional<String> local = localUnitNormalizer.normalize(prompt);
+            NormalizedPrompt normalized;
+            LbmlConversion conversion;
+            if (local.isEmpty() && hedgedExecutor.isSpeculativeConversion() && hedgedExecutor.tryAcquireExtraCall()) {
+                SpeculativeConversion speculative = convertSpeculatively(prompt, listener, caller, timings);
+                normalized = speculative.normalized;
+                conversion = speculative.conversion;
+            } else {
+                normalized = timings.measure(PipelineStage.NORMALIZE, () -> normalize(prompt, local, caller));
+                conversion = timings.measure(PipelineStage.CONVERT, () -> convert(normalized, listener, caller));
+            }
+            message.setNormalizedPrompt(normalized.getNormalized());
+            message.setNormalizationPath(normalized.getPath());
+            message.setConvertAttempts(conversion.getAttempts());
+            message.setLbmlRepairs(conversion.getRepairs());
+
+            LbmlValidation validation = timings.measure(PipelineStage.VALIDATE, () -> validate(conversion));
+            message.setOutput(validation.getLbml());
+            message.setCommandCount(validation.getCommandCount());
+            message.setOptimizedOutput(validation.getOptimizedLbml());
+            message.setOptimizedCommandCount(validation.getOptimizedCommandCount());
+        } catch (LlmOverloadedException e) {
+            // Shed by admission control, possibly after the LLM normalization succeeded. That normalization is
+            // in the response cache for the caller's retry, so a failed message is not worth persisting.
+            throw e;
+        } catch (RuntimeException e) {
+            log.error("Erro no estágio {} do pipeline: {}", timings.getCurrentStage(), e.getMessage(), e);
+            message.setStatus(PipelineStatus.FAILED);
+            message.setFailedStage(timings.getCurrentStage());
+            message.setOutput("ERRO: " + e.getMessage());
+        }
+
+        int proposedGrade = new KinematicGrader().propose(message.getNormalizedPrompt(), message.getOutput());
+        message.setProposedGrade(proposedGrade == KinematicGrader.UNGRADED ? null : proposedGrade);
+
+        message.setNormalizeMs(timings.get(PipelineStage.NORMALIZE));
+        message.setConvertMs(timings.get(PipelineStage.CONVERT));
+        message.setValidateMs(timings.get(PipelineStage.VALIDATE));
+
+        return new PipelineResult(message, timings);
+    }
+
+    private NormalizedPrompt normalize(String prompt, Optional<String> local, String caller) {
+        if (local.isPresent()) {
+            log.info("Prompt normalizado localmente: {}", local.get());
+            return new NormalizedPrompt(prompt, local.get(), NormalizationPath.LOCAL);
+        }
+
+        String normalized = aiService.normalizePromptImCm(prompt, caller);
+        log.info("Prompt normalizado pelo LLM: {}", normalized);
+        return new NormalizedPrompt(prompt, normalized, NormalizationPath.LLM);
+    }
+
+    private LbmlConversion convert(NormalizedPrompt normalized, LbmlStreamListener listener, String caller) {
+        LbmlConversion conversion = aiService.convertToLML(normalized.getNormalized(), listener, caller);
+        log.info("Comando LBML gerado: {}", conversion.getLbml());
+        return conversion;
+    }
+
+    /**
+     * Races the regular path (LLM normalization, then conversion) against a conversion of the raw prompt and
+     * keeps whichever valid LBML arrives first. Commands are forwarded once the winner is known, since the
+     * two branches would otherwise interleave on the listener. When the regular path wins, its normalization
+     * and conversion are timed as separate stages like outside the race.
+     */
+    private SpeculativeConversion convertSpeculatively(String prompt, LbmlStreamListener listener, String caller,
+                                                       StageTimings timings) {
+        long start = System.nanoTime();
+        SpeculativeConversion winner;
+        try {
+            winner = timings.measure(PipelineStage.CONVERT, () -> hedgedExecutor.race(List.of(
+                    () -> {
+                        NormalizedPrompt normalized = normalize(prompt, Optional.empty(), caller);
+                        long normalizedAt = System.nanoTime();
+                        return new SpeculativeConversion(normalized,
+                                aiService.convertToLML(normalized.getNormalized(), LbmlStreamListener.NOOP, caller),
+                                normalizedAt);
+                    },
+                    () -> new SpeculativeConversion(new NormalizedPrompt(prompt, prompt, NormalizationPath.SPECULATIVE),
+                            aiService.convertToLML(prompt, LbmlStreamListener.NOOP, caller), start))));
+        } catch (RejectedExecutionException e) {
+            hedgedExecutor.releaseExtraCall();
+            pipelineMetrics.recordSpeculation("rejected");
+            NormalizedPrompt normalized = timings.measure(PipelineStage.NORMALIZE,
+                    () -> normalize(prompt, Optional.empty(), caller));
+            return new SpeculativeConversion(normalized,
+                    timings.measure(PipelineStage.CONVERT, () -> convert(normalized, listener, caller)), start);
+        }
+
+        if (winner.normalized.getPath() != NormalizationPath.SPECULATIVE) {
+            long end = timings.getFinishedAtNanos(PipelineStage.CONVERT);
+            timings.record(PipelineStage.NORMALIZE, start, winner.normalizedAtNanos);
+            timings.record(PipelineStage.CONVERT, winner.normalizedAtNanos, end);
+        }
+
+        pipelineMetrics.recordSpeculation(winner.normalized.getPath() == NormalizationPath.SPECULATIVE
+                ? "speculative_won" : "normalized_won");
+        log.info("Conversão especulativa vencida pelo caminho {}: {}", winner.normalized.getPath(),
+                winner.conversion.getLbml());
+        for (long command : LbmlParser.parse(winner.conversion.getLbml())) {
+            StringBuilder builder = new StringBuilder(8);
+            LbmlParser.appendCommand(builder, command);
+            listener.onCommand(builder.toString());
+        }
+        return winner;
+    }
+
+    private LbmlValidation validate(LbmlConversion conversion) {
+        long[] commands = LbmlParser.parse(conversion.getLbml());
+        long[] optimized = LbmlOptimizer.optimize(commands);
+        if (optimized.length < commands.length) {
+            log.info("LBML otimizado de {} para {} comandos", commands.length, optimized.length);
+        }
+        return new LbmlValidation(LbmlParser.toLbml(commands), commands.length,
+                optimized.length == 0 ? null : LbmlParser.toLbml(optimized), optimized.length);
+    }
+
+    private static final class SpeculativeConversion {
+
+        private final NormalizedPrompt normalized;
+        private final LbmlConversion conversion;
+        private final long normalizedAtNanos;
+
+        private SpeculativeConversion(NormalizedPrompt normalized, LbmlConversion conversion, long normalizedAtNanos) {
+            this.normalized = normalized;
+            this.conversion = conversion;
+            this.normalizedAtNanos = normalizedAtNanos;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.roselabs.lbot_datagen_backend.pipeline;
+
+import br.com.roselabs.lbot_datagen_backend.entities.NormalizationPath;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class NormalizedPrompt {
+
+    private final String original;
+    private final String normalized;
+    private final NormalizationPath path;
+}
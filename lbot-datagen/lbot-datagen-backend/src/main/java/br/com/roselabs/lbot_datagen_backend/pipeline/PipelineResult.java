@@ -0,0 +1,13 @@
+package br.com.roselabs.lbot_datagen_backend.pipeline;
+
+import br.com.roselabs.lbot_datagen_backend.entities.Message;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PipelineResult {
+
+    private final Message message;
+    private final StageTimings timings;
+}
@@ -0,0 +1,54 @@
+package br.com.roselabs.lbot_datagen_backend.pipeline;
+
+import br.com.roselabs.lbot_datagen_backend.entities.PipelineStage;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+public class StageTimings {
+
+    private final long startNanos = System.nanoTime();
+    private final Map<PipelineStage, Long> elapsedMillis = new EnumMap<>(PipelineStage.class);
+    private final Map<PipelineStage, Long> finishedAtNanos = new EnumMap<>(PipelineStage.class);
+    private PipelineStage currentStage;
+
+    public <T> T measure(PipelineStage stage, Supplier<T> action) {
+        currentStage = stage;
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            record(stage, start, System.nanoTime());
+        }
+    }
+
+    /**
+     * Records a stage that was not run through {@link #measure}, replacing any earlier timing for it.
+     */
+    public void record(PipelineStage stage, long startNanos, long endNanos) {
+        elapsedMillis.put(stage, (endNanos - startNanos) / 1_000_000);
+        finishedAtNanos.put(stage, endNanos);
+    }
+
+    public Long get(PipelineStage stage) {
+        return elapsedMillis.get(stage);
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public Long getFinishedAtNanos(PipelineStage stage) {
+        return finishedAtNanos.get(stage);
+    }
+
+    public PipelineStage getCurrentStage() {
+        return currentStage;
+    }
+
+    @Override
+    public String toString() {
+        return elapsedMillis.toString();
+    }
+}
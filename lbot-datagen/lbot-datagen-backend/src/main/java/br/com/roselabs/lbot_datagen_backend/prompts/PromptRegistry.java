@@ -0,0 +1,117 @@
+package br.com.roselabs.lbot_datagen_backend.prompts;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+public class PromptRegistry {
+
+    public static final String NORMALIZE = "normalize-prompts-in-cm";
+    public static final String CONVERT = "convert-to-lml";
+
+    private static final String CLASSPATH_LOCATION = "static/prompts/";
+    private static final List<String> TEMPLATE_NAMES = List.of(NORMALIZE, CONVERT);
+
+    private final Path directory;
+    private final long reloadIntervalMillis;
+    private final Map<String, PromptTemplate> templates = new ConcurrentHashMap<>();
+    private volatile long lastReloadCheck;
+
+    public PromptRegistry(@Value("${lbot.prompts.directory:}") String directory,
+                          @Value("${lbot.prompts.reload-interval:5s}") Duration reloadInterval) {
+        this.directory = directory.isBlank() ? null : Path.of(directory);
+        this.reloadIntervalMillis = reloadInterval.toMillis();
+    }
+
+    @PostConstruct
+    public void loadAll() {
+        for (String name : TEMPLATE_NAMES) {
+            PromptTemplate template = load(name);
+            templates.put(name, template);
+            log.info("Prompt {} carregado de {} (versão {})", name,
+                    template.getSource() != null ? template.getSource() : "classpath", template.getShortVersion());
+        }
+        lastReloadCheck = System.currentTimeMillis();
+    }
+
+    public PromptTemplate get(String name) {
+        if (directory != null) {
+            reloadIfChanged();
+        }
+        PromptTemplate template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("Prompt desconhecido: " + name);
+        }
+        return template;
+    }
+
+    private void reloadIfChanged() {
+        long now = System.currentTimeMillis();
+        if (now - lastReloadCheck < reloadIntervalMillis) {
+            return;
+        }
+        synchronized (this) {
+            if (now - lastReloadCheck < reloadIntervalMillis) {
+                return;
+            }
+            lastReloadCheck = now;
+            for (String name : TEMPLATE_NAMES) {
+                PromptTemplate current = templates.get(name);
+                Path file = directory.resolve(name + ".txt");
+                try {
+                    if (Files.exists(file) && Files.getLastModifiedTime(file).toMillis() != current.getLastModified()) {
+                        PromptTemplate reloaded = load(name);
+                        templates.put(name, reloaded);
+                        log.info("Prompt {} recarregado: versão {} -> {}", name,
+                                current.getShortVersion(), reloaded.getShortVersion());
+                    }
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Não foi possível recarregar o prompt {}: {}", name, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private PromptTemplate load(String name) {
+        try {
+            if (directory != null) {
+                Path file = directory.resolve(name + ".txt");
+                if (Files.exists(file)) {
+                    String content = Files.readString(file, StandardCharsets.UTF_8);
+                    return new PromptTemplate(name, content, sha256(content), file,
+                            Files.getLastModifiedTime(file).toMillis());
+                }
+            }
+            String content = new ClassPathResource(CLASSPATH_LOCATION + name + ".txt")
+                    .getContentAsString(StandardCharsets.UTF_8);
+            return new PromptTemplate(name, content, sha256(content), null, 0L);
+        } catch (IOException e) {
+            throw new IllegalStateException("Erro ao carregar arquivo de prompt " + name, e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package br.com.roselabs.lbot_datagen_backend.prompts;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+@Getter
+@AllArgsConstructor
+public class PromptTemplate {
+
+    private final String name;
+    private final String content;
+    private final String version;
+    private final Path source;
+    private final long lastModified;
+
+    public String getShortVersion() {
+        return version.substring(0, 12);
+    }
+}
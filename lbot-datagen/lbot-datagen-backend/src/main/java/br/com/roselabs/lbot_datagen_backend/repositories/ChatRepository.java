@@ -1,6 +1,7 @@
 package br.com.roselabs.lbot_datagen_backend.repositories;
 
 import br.com.roselabs.lbot_datagen_backend.entities.Chat;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -12,4 +13,17 @@ import java.util.UUID;
 
 @Repository
 public interface ChatRepository extends JpaRepository<Chat, UUID> {
-}
\ No newline at end of file
+
+    String CHAT_SUMMARY = "select c.id as id, c.createdAt as createdAt, c.observation as observation, " +
+            "c.version as version, (select count(m) from Message m where m.chat = c) as messageCount from Chat c ";
+
+    @Query(CHAT_SUMMARY + "where c.id = :id")
+    Optional<ChatSummaryView> findSummaryById(UUID id);
+
+    @Query(CHAT_SUMMARY + "order by c.createdAt desc, c.id desc")
+    List<ChatSummaryView> findSummaries(Pageable pageable);
+
+    @Query(CHAT_SUMMARY + "where c.createdAt < :createdAt or (c.createdAt = :createdAt and c.id < :id) " +
+            "order by c.createdAt desc, c.id desc")
+    List<ChatSummaryView> findSummariesBefore(LocalDateTime createdAt, UUID id, Pageable pageable);
+}
@@ -0,0 +1,17 @@
+package br.com.roselabs.lbot_datagen_backend.repositories;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface ChatSummaryView {
+
+    UUID getId();
+
+    LocalDateTime getCreatedAt();
+
+    String getObservation();
+
+    Integer getVersion();
+
+    Long getMessageCount();
+}
@@ -1,13 +1,48 @@
 package br.com.roselabs.lbot_datagen_backend.repositories;
 
+import br.com.roselabs.lbot_datagen_backend.dtos.PromptRowDto;
 import br.com.roselabs.lbot_datagen_backend.entities.Message;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface MessageRepository extends JpaRepository<Message, UUID> {
-}
\ No newline at end of file
+public interface MessageRepository extends JpaRepository<Message, UUID>, MessageRepositoryCustom {
+
+    String MESSAGE_VIEW = "select m.id as id, m.prompt as prompt, m.normalizedPrompt as normalizedPrompt, " +
+            "m.output as output, m.optimizedOutput as optimizedOutput, m.lbmlRepairs as lbmlRepairs, m.grade as grade, m.proposedGrade as proposedGrade, m.createdAt as createdAt, " +
+            "m.normalizationPath as normalizationPath, m.status as status, m.failedStage as failedStage " +
+            "from Message m ";
+
+    @Query(MESSAGE_VIEW + "where m.chat.id = :chatId order by m.createdAt, m.id")
+    List<MessageView> findByChat(UUID chatId, Pageable pageable);
+
+    @Query(MESSAGE_VIEW + "where m.chat.id = :chatId " +
+            "and (m.createdAt > :createdAt or (m.createdAt = :createdAt and m.id > :id)) " +
+            "order by m.createdAt, m.id")
+    List<MessageView> findByChatAfter(UUID chatId, LocalDateTime createdAt, UUID id, Pageable pageable);
+
+    String PROMPT_ROW = "select new br.com.roselabs.lbot_datagen_backend.dtos.PromptRowDto(" +
+            "m.id, m.normalizedPrompt, m.createdAt) from Message m ";
+
+    @Query(PROMPT_ROW + "order by m.createdAt, m.id")
+    List<PromptRowDto> findPromptChunk(Pageable pageable);
+
+    @Query(PROMPT_ROW + "where m.createdAt > :createdAt or (m.createdAt = :createdAt and m.id > :id) " +
+            "order by m.createdAt, m.id")
+    List<PromptRowDto> findPromptChunkAfter(LocalDateTime createdAt, UUID id, Pageable pageable);
+
+    @Query(MESSAGE_VIEW + "where m.id in :ids")
+    List<MessageView> findViewsByIds(Collection<UUID> ids);
+
+    @Modifying
+    @Query("update Message m set m.grade = :grade where m.chat.id = :chatId and m.output = :output")
+    int updateGradeByChatAndOutput(UUID chatId, String output, Integer grade);
+}
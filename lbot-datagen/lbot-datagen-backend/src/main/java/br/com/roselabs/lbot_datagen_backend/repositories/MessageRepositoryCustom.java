@@ -0,0 +1,31 @@
+package br.com.roselabs.lbot_datagen_backend.repositories;
+
+import br.com.roselabs.lbot_datagen_backend.dtos.DatasetFilterDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.DatasetRowDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.GradingRowDto;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface MessageRepositoryCustom {
+
+    Stream<DatasetRowDto> streamDataset(DatasetFilterDto filter, int fetchSize);
+
+    /**
+     * Next {@code limit} messages ordered by id, starting after {@code after} (or from the first when null).
+     */
+    List<GradingRowDto> findGradingChunk(UUID after, int limit);
+
+    /**
+     * Writes {@code proposed_grade} for every id in one JDBC batch; a grade of 0 clears it.
+     */
+    void updateProposedGrades(UUID[] ids, int[] grades, int count);
+
+    /**
+     * Sets the human {@code grade} of every id in a single {@code UPDATE ... FROM unnest(...)}, without loading
+     * entities. Returns the ids that exist.
+     */
+    Set<UUID> updateGrades(UUID[] ids, Integer[] grades);
+}
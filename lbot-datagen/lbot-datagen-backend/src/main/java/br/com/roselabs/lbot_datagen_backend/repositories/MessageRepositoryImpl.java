@@ -0,0 +1,116 @@
+package br.com.roselabs.lbot_datagen_backend.repositories;
+
+import br.com.roselabs.lbot_datagen_backend.dtos.DatasetFilterDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.DatasetRowDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.GradingRowDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public class MessageRepositoryImpl implements MessageRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<DatasetRowDto> streamDataset(DatasetFilterDto filter, int fetchSize) {
+        StringBuilder jpql = new StringBuilder("select new br.com.roselabs.lbot_datagen_backend.dtos.DatasetRowDto(")
+                .append("m.id, m.prompt, m.normalizedPrompt, m.output, m.grade, m.lbmlRepairs) from Message m where 1 = 1");
+
+        if (filter.getMinGrade() != null) {
+            jpql.append(" and m.grade >= :minGrade");
+        }
+        if (filter.getChatId() != null) {
+            jpql.append(" and m.chat.id = :chatId");
+        }
+        if (filter.getFrom() != null) {
+            jpql.append(" and m.createdAt >= :from");
+        }
+        if (filter.getTo() != null) {
+            jpql.append(" and m.createdAt < :to");
+        }
+        jpql.append(" order by m.createdAt, m.id");
+
+        TypedQuery<DatasetRowDto> query = entityManager.createQuery(jpql.toString(), DatasetRowDto.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+
+        if (filter.getMinGrade() != null) {
+            query.setParameter("minGrade", filter.getMinGrade());
+        }
+        if (filter.getChatId() != null) {
+            query.setParameter("chatId", filter.getChatId());
+        }
+        if (filter.getFrom() != null) {
+            query.setParameter("from", filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            query.setParameter("to", filter.getTo());
+        }
+
+        return query.getResultStream();
+    }
+
+    @Override
+    public List<GradingRowDto> findGradingChunk(UUID after, int limit) {
+        String jpql = "select new br.com.roselabs.lbot_datagen_backend.dtos.GradingRowDto(" +
+                "m.id, m.normalizedPrompt, m.output) from Message m" +
+                (after != null ? " where m.id > :after" : "") + " order by m.id";
+        TypedQuery<GradingRowDto> query = entityManager.createQuery(jpql, GradingRowDto.class)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setMaxResults(limit);
+        if (after != null) {
+            query.setParameter("after", after);
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public void updateProposedGrades(UUID[] ids, int[] grades, int count) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "update messages set proposed_grade = ? where id = ?")) {
+                for (int i = 0; i < count; i++) {
+                    if (grades[i] == 0) {
+                        statement.setNull(1, Types.INTEGER);
+                    } else {
+                        statement.setInt(1, grades[i]);
+                    }
+                    statement.setObject(2, ids[i]);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    @Override
+    public Set<UUID> updateGrades(UUID[] ids, Integer[] grades) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "update messages m set grade = v.grade from unnest(?::uuid[], ?::integer[]) as v(id, grade) " +
+                            "where m.id = v.id returning m.id")) {
+                statement.setArray(1, connection.createArrayOf("uuid", ids));
+                statement.setArray(2, connection.createArrayOf("int4", grades));
+                Set<UUID> updated = new HashSet<>(ids.length * 2);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        updated.add(resultSet.getObject(1, UUID.class));
+                    }
+                }
+                return updated;
+            }
+        });
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.roselabs.lbot_datagen_backend.repositories;
+
+import br.com.roselabs.lbot_datagen_backend.entities.NormalizationPath;
+import br.com.roselabs.lbot_datagen_backend.entities.PipelineStage;
+import br.com.roselabs.lbot_datagen_backend.entities.PipelineStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface MessageView {
+
+    UUID getId();
+
+    String getPrompt();
+
+    String getNormalizedPrompt();
+
+    String getOutput();
+
+    String getOptimizedOutput();
+
+    String getLbmlRepairs();
+
+    Integer getGrade();
+
+    Integer getProposedGrade();
+
+    LocalDateTime getCreatedAt();
+
+    NormalizationPath getNormalizationPath();
+
+    PipelineStatus getStatus();
+
+    PipelineStage getFailedStage();
+}
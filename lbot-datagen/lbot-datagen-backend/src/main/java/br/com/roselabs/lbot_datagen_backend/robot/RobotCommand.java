@@ -0,0 +1,33 @@
+package br.com.roselabs.lbot_datagen_backend.robot;
+
+import lombok.Getter;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A single LBML command in flight to a robot. {@link #getCompletion()} completes with the controller's
+ * final {@code OK:} line once the movement is finished, or exceptionally on {@code ERROR:} or link loss.
+ */
+@Getter
+public class RobotCommand {
+
+    private final String command;
+    private final CompletableFuture<String> completion = new CompletableFuture<>();
+    private volatile boolean started;
+
+    RobotCommand(String command) {
+        this.command = command;
+    }
+
+    void markStarted() {
+        started = true;
+    }
+
+    void complete(String reply) {
+        completion.complete(reply);
+    }
+
+    void fail(RuntimeException cause) {
+        completion.completeExceptionally(cause);
+    }
+}
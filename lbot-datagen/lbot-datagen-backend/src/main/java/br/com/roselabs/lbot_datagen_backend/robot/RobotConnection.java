@@ -0,0 +1,307 @@
+package br.com.roselabs.lbot_datagen_backend.robot;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Non-blocking link to one Enki controller. Channel operations run on the gateway's selector thread only;
+ * {@link #enqueue} may be called from any thread.
+ *
+ * <p>The controller executes movements in FIFO order and reports each one, so replies are matched to the
+ * oldest command still in flight. Payloads are written without newlines: the controller splits whatever
+ * it reads on {@code ;}, so pipelined writes that coalesce in TCP still parse as one sequence.</p>
+ *
+ * <p>{@code status} is only recognized when it arrives alone in a read; merged with movements it is parsed
+ * as one. Status requests are therefore only sent to an idle link, and movements enqueued while one is
+ * outstanding are held until its {@code STATUS:} reply arrives (or {@value #STATUS_TIMEOUT_MILLIS} ms pass).</p>
+ */
+@Slf4j
+final class RobotConnection {
+
+    enum State {
+        DISCONNECTED, CONNECTING, CONNECTED
+    }
+
+    private static final int READ_BUFFER_SIZE = 8192;
+    private static final byte[] STATUS_REQUEST = "status".getBytes(StandardCharsets.US_ASCII);
+    private static final long STATUS_TIMEOUT_MILLIS = 2000;
+
+    private final RobotEndpoint endpoint;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final RobotGateway.ReplyListener replyListener;
+
+    private final Deque<RobotCommand> inFlight = new ArrayDeque<>();
+    private final Deque<ByteBuffer> writes = new ArrayDeque<>();
+    private final Deque<ByteBuffer> held = new ArrayDeque<>();
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    private byte[] line = new byte[256];
+    private int lineLength;
+
+    private volatile State state = State.DISCONNECTED;
+    private SocketChannel channel;
+    private SelectionKey key;
+    private long backoffMillis;
+    private long reconnectAtMillis;
+    private long statusRequestedAtMillis = -1;
+
+    RobotConnection(RobotEndpoint endpoint, long initialBackoffMillis, long maxBackoffMillis,
+                    RobotGateway.ReplyListener replyListener) {
+        this.endpoint = endpoint;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.replyListener = replyListener;
+        this.backoffMillis = initialBackoffMillis;
+    }
+
+    RobotEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    State getState() {
+        return state;
+    }
+
+    boolean isConnected() {
+        return state == State.CONNECTED;
+    }
+
+    synchronized int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    long getReconnectAtMillis() {
+        return reconnectAtMillis;
+    }
+
+    /**
+     * Queues the execution's commands for writing. Returns {@code false} when the link is down.
+     */
+    synchronized boolean enqueue(RobotExecution execution) {
+        if (state != State.CONNECTED) {
+            return false;
+        }
+        inFlight.addAll(execution.getCommands());
+        ByteBuffer payload = ByteBuffer.wrap(execution.payload().getBytes(StandardCharsets.US_ASCII));
+        (statusRequestedAtMillis >= 0 ? held : writes).add(payload);
+        return true;
+    }
+
+    /**
+     * Asks the controller for a {@code STATUS:} line. Only done when no command is queued or in flight and no
+     * other status request is outstanding, so the request never shares a read with a movement sequence.
+     */
+    synchronized boolean enqueueStatusRequest() {
+        if (state != State.CONNECTED || statusRequestedAtMillis >= 0 || !inFlight.isEmpty() || !writes.isEmpty()) {
+            return false;
+        }
+        statusRequestedAtMillis = System.currentTimeMillis();
+        writes.add(ByteBuffer.wrap(STATUS_REQUEST));
+        return true;
+    }
+
+    /**
+     * Gives up on a status request the controller never answered, releasing the movements held behind it.
+     * Returns {@code true} when there is something to write.
+     */
+    synchronized boolean expireStatusRequest(long now) {
+        if (statusRequestedAtMillis < 0 || now - statusRequestedAtMillis < STATUS_TIMEOUT_MILLIS) {
+            return false;
+        }
+        log.debug("Robô {} não respondeu ao pedido de status", endpoint.getName());
+        releaseHeldWrites();
+        return !writes.isEmpty();
+    }
+
+    void connect(Selector selector) {
+        try {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            state = State.CONNECTING;
+            if (channel.connect(endpoint.toAddress())) {
+                key = channel.register(selector, SelectionKey.OP_READ, this);
+                onConnected();
+            } else {
+                key = channel.register(selector, SelectionKey.OP_CONNECT, this);
+            }
+        } catch (IOException | RuntimeException e) {
+            close("falha ao conectar: " + e.getMessage());
+        }
+    }
+
+    void finishConnect() {
+        try {
+            if (channel.finishConnect()) {
+                key.interestOps(SelectionKey.OP_READ);
+                onConnected();
+            }
+        } catch (IOException e) {
+            close("falha ao conectar: " + e.getMessage());
+        }
+    }
+
+    void onConnected() {
+        state = State.CONNECTED;
+        backoffMillis = initialBackoffMillis;
+        log.info("Conectado ao robô {}", endpoint);
+    }
+
+    void read() {
+        try {
+            int read;
+            while ((read = channel.read(readBuffer)) > 0) {
+                readBuffer.flip();
+                while (readBuffer.hasRemaining()) {
+                    byte b = readBuffer.get();
+                    if (b == '\n') {
+                        onLine(new String(line, 0, lineLength, StandardCharsets.UTF_8));
+                        lineLength = 0;
+                    } else if (b != '\r') {
+                        if (lineLength == line.length) {
+                            line = Arrays.copyOf(line, line.length * 2);
+                        }
+                        line[lineLength++] = b;
+                    }
+                }
+                readBuffer.clear();
+            }
+            if (read < 0) {
+                close("conexão encerrada pelo robô");
+            }
+        } catch (IOException e) {
+            close("erro de leitura: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Flushes queued payloads; several pending executions go out in a single gathering write.
+     */
+    void write() {
+        try {
+            synchronized (this) {
+                while (!writes.isEmpty()) {
+                    ByteBuffer[] buffers = writes.toArray(new ByteBuffer[0]);
+                    channel.write(buffers);
+                    while (!writes.isEmpty() && !writes.peekFirst().hasRemaining()) {
+                        writes.pollFirst();
+                    }
+                    if (!writes.isEmpty()) {
+                        key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                        return;
+                    }
+                }
+            }
+            if (key.isValid()) {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        } catch (IOException e) {
+            close("erro de escrita: " + e.getMessage());
+        }
+    }
+
+    synchronized boolean hasPendingWrites() {
+        return !writes.isEmpty();
+    }
+
+    /**
+     * Matches one reply line to the command it belongs to. Package-private for tests.
+     */
+    void onLine(String text) {
+        if (text.isBlank()) {
+            return;
+        }
+        RobotReply reply = RobotReply.parse(text);
+        log.debug("Robô {}: {}", endpoint.getName(), text);
+
+        synchronized (this) {
+            RobotCommand head = inFlight.peekFirst();
+            if (reply.getType() == RobotReply.Type.STATUS) {
+                releaseHeldWrites();
+            } else if (reply.isCommandError() && reply.getText().endsWith(": status")) {
+                // A status request parsed as a movement: it is not the head command that failed.
+                log.warn("Robô {} interpretou o pedido de status como movimento", endpoint.getName());
+                releaseHeldWrites();
+            } else if (reply.isCommandStarted() && head != null) {
+                head.markStarted();
+            } else if (reply.isCommandCompleted() && head != null) {
+                inFlight.pollFirst().complete(reply.getText());
+            } else if (reply.isCommandError() && head != null) {
+                inFlight.pollFirst().fail(new RobotLinkException(reply.getText()));
+            } else if (reply.isQueueCleared()) {
+                failInFlight("fila de comandos do robô foi limpa");
+            } else if (reply.getType() == RobotReply.Type.ERROR) {
+                log.warn("Robô {} respondeu com erro: {}", endpoint.getName(), reply.getText());
+            }
+        }
+
+        if (replyListener != null) {
+            replyListener.onReply(endpoint, reply);
+        }
+    }
+
+    void shutdown() {
+        closeChannel("gateway encerrado");
+    }
+
+    void close(String reason) {
+        boolean wasConnected = state == State.CONNECTED;
+        closeChannel(reason);
+
+        long jitter = ThreadLocalRandom.current().nextLong(backoffMillis / 5 + 1);
+        reconnectAtMillis = System.currentTimeMillis() + backoffMillis + jitter;
+        if (wasConnected) {
+            log.warn("Robô {} desconectado ({}); reconectando em {} ms", endpoint, reason, backoffMillis);
+        } else {
+            log.debug("Robô {} indisponível ({}); nova tentativa em {} ms", endpoint, reason, backoffMillis);
+        }
+        backoffMillis = Math.min(backoffMillis * 2, maxBackoffMillis);
+    }
+
+    private void closeChannel(String reason) {
+        state = State.DISCONNECTED;
+        if (key != null) {
+            key.cancel();
+        }
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // already closing
+            }
+        }
+        channel = null;
+        key = null;
+        lineLength = 0;
+        readBuffer.clear();
+
+        synchronized (this) {
+            writes.clear();
+            held.clear();
+            statusRequestedAtMillis = -1;
+            failInFlight("conexão com o robô " + endpoint.getName() + " perdida: " + reason);
+        }
+    }
+
+    private void releaseHeldWrites() {
+        statusRequestedAtMillis = -1;
+        writes.addAll(held);
+        held.clear();
+    }
+
+    private void failInFlight(String reason) {
+        RobotCommand command;
+        while ((command = inFlight.pollFirst()) != null) {
+            command.fail(new RobotLinkException(reason));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.roselabs.lbot_datagen_backend.robot;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.net.InetSocketAddress;
+
+@Getter
+@AllArgsConstructor
+public class RobotEndpoint {
+
+    private final String name;
+    private final String host;
+    private final int port;
+
+    /**
+     * Accepts {@code host:port} or {@code name=host:port}; without a name the address is used as one.
+     */
+    public static RobotEndpoint parse(String spec) {
+        String value = spec.trim();
+        String name = null;
+        int equals = value.indexOf('=');
+        if (equals >= 0) {
+            name = value.substring(0, equals).trim();
+            value = value.substring(equals + 1).trim();
+        }
+
+        int colon = value.lastIndexOf(':');
+        if (colon <= 0 || colon == value.length() - 1) {
+            throw new IllegalArgumentException("Endpoint de robô inválido: " + spec);
+        }
+        String host = value.substring(0, colon);
+        int port = Integer.parseInt(value.substring(colon + 1));
+
+        return new RobotEndpoint(name == null || name.isEmpty() ? value : name, host, port);
+    }
+
+    public InetSocketAddress toAddress() {
+        return new InetSocketAddress(host, port);
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + host + ":" + port + ")";
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.roselabs.lbot_datagen_backend.robot;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@Getter
+public class RobotExecution {
+
+    private final RobotEndpoint endpoint;
+    private final List<RobotCommand> commands;
+    private final CompletableFuture<Void> completion;
+
+    RobotExecution(RobotEndpoint endpoint, List<RobotCommand> commands) {
+        this.endpoint = endpoint;
+        this.commands = commands;
+        this.completion = CompletableFuture.allOf(commands.stream()
+                .map(RobotCommand::getCompletion)
+                .toArray(CompletableFuture[]::new));
+    }
+
+    String payload() {
+        StringBuilder payload = new StringBuilder(commands.size() * 6);
+        for (RobotCommand command : commands) {
+            payload.append(command.getCommand());
+        }
+        return payload.toString();
+    }
+}
@@ -0,0 +1,239 @@
+package br.com.roselabs.lbot_datagen_backend.robot;
+
+import br.com.roselabs.lbot_datagen_backend.lbml.LbmlParser;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Links to the Enki robot controllers configured in {@code lbot.robot.endpoints}. A single selector thread
+ * owns every socket, reconnects dropped links with exponential backoff and pipelines queued commands.
+ */
+@Slf4j
+@Component
+public class RobotGateway {
+
+    public interface ReplyListener {
+        void onReply(RobotEndpoint endpoint, RobotReply reply);
+    }
+
+    private final Map<String, RobotConnection> connections = new LinkedHashMap<>();
+    private final Queue<RobotConnection> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final List<ReplyListener> listeners = new CopyOnWriteArrayList<>();
+
+    private Selector selector;
+    private Thread selectorThread;
+    private final long statusPollMillis;
+    private long nextStatusPollMillis;
+    private volatile boolean running;
+
+    public RobotGateway(@Value("${lbot.robot.endpoints:}") String endpoints,
+                        @Value("${lbot.robot.reconnect-initial-backoff:500ms}") Duration initialBackoff,
+                        @Value("${lbot.robot.reconnect-max-backoff:30s}") Duration maxBackoff,
+                        @Value("${lbot.robot.status-poll-interval:0s}") Duration statusPollInterval) {
+        this.statusPollMillis = statusPollInterval.toMillis();
+        Arrays.stream(endpoints.split(","))
+                .map(String::trim)
+                .filter(spec -> !spec.isEmpty())
+                .map(RobotEndpoint::parse)
+                .forEach(endpoint -> connections.put(endpoint.getName(), new RobotConnection(endpoint,
+                        initialBackoff.toMillis(), maxBackoff.toMillis(), this::dispatch)));
+    }
+
+    @PostConstruct
+    public void start() {
+        if (connections.isEmpty()) {
+            log.info("Nenhum robô configurado (lbot.robot.endpoints)");
+            return;
+        }
+        try {
+            selector = Selector.open();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        running = true;
+        connections.values().forEach(connection -> connection.connect(selector));
+
+        selectorThread = new Thread(this::runLoop, "robot-gateway");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+        log.info("Gateway de robôs iniciado: {}", connections.keySet());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (selector == null) {
+            return;
+        }
+        selector.wakeup();
+        try {
+            selectorThread.join(Duration.ofSeconds(5).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void addListener(ReplyListener listener) {
+        listeners.add(listener);
+    }
+
+    public Collection<RobotEndpoint> getEndpoints() {
+        return connections.values().stream().map(RobotConnection::getEndpoint).toList();
+    }
+
+    public boolean isConnected(String robot) {
+        RobotConnection connection = connections.get(robot);
+        return connection != null && connection.isConnected();
+    }
+
+    public int getInFlightCount(String robot) {
+        RobotConnection connection = connections.get(robot);
+        return connection != null ? connection.getInFlightCount() : 0;
+    }
+
+    public Optional<String> getDefaultRobot() {
+        return connections.keySet().stream().findFirst();
+    }
+
+    /**
+     * Sends LBML to a robot. Each command gets its own future, completed when the controller reports
+     * the movement as finished; the link never blocks the caller.
+     */
+    public RobotExecution execute(String robot, String lbml) {
+        RobotConnection connection = connections.get(robot);
+        if (connection == null) {
+            throw new IllegalArgumentException("Robô desconhecido: " + robot);
+        }
+
+        long[] parsed = LbmlParser.parse(lbml);
+        List<RobotCommand> commands = new ArrayList<>(parsed.length);
+        StringBuilder builder = new StringBuilder(8);
+        for (long command : parsed) {
+            builder.setLength(0);
+            LbmlParser.appendCommand(builder, command);
+            commands.add(new RobotCommand(builder.toString()));
+        }
+
+        RobotExecution execution = new RobotExecution(connection.getEndpoint(), commands);
+        if (!connection.enqueue(execution)) {
+            RobotLinkException cause = new RobotLinkException("Robô " + robot + " não está conectado");
+            commands.forEach(command -> command.fail(cause));
+            return execution;
+        }
+
+        pendingWrites.add(connection);
+        selector.wakeup();
+        return execution;
+    }
+
+    public CompletableFuture<Void> executeAndWait(String robot, String lbml) {
+        return execute(robot, lbml).getCompletion();
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                selector.select(nextTimeoutMillis());
+
+                RobotConnection writable;
+                while ((writable = pendingWrites.poll()) != null) {
+                    if (writable.isConnected()) {
+                        writable.write();
+                    }
+                }
+
+                var iterator = selector.selectedKeys().iterator();
+                while (iterator.hasNext()) {
+                    SelectionKey key = iterator.next();
+                    iterator.remove();
+                    RobotConnection connection = (RobotConnection) key.attachment();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isConnectable()) {
+                        connection.finishConnect();
+                    } else {
+                        if (key.isReadable()) {
+                            connection.read();
+                        }
+                        if (key.isValid() && (key.isWritable() || connection.hasPendingWrites())) {
+                            connection.write();
+                        }
+                    }
+                }
+
+                long now = System.currentTimeMillis();
+                if (statusPollMillis > 0 && now >= nextStatusPollMillis) {
+                    nextStatusPollMillis = now + statusPollMillis;
+                    for (RobotConnection connection : connections.values()) {
+                        if (connection.enqueueStatusRequest()) {
+                            connection.write();
+                        }
+                    }
+                }
+                for (RobotConnection connection : connections.values()) {
+                    if (connection.isConnected() && connection.expireStatusRequest(now)) {
+                        connection.write();
+                    }
+                    if (connection.getState() == RobotConnection.State.DISCONNECTED
+                            && connection.getReconnectAtMillis() <= now) {
+                        connection.connect(selector);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("Erro no loop do gateway de robôs", e);
+            }
+        }
+
+        connections.values().forEach(RobotConnection::shutdown);
+        try {
+            selector.close();
+        } catch (IOException ignored) {
+            // shutting down
+        }
+    }
+
+    private long nextTimeoutMillis() {
+        long now = System.currentTimeMillis();
+        long timeout = 1000;
+        if (statusPollMillis > 0) {
+            timeout = Math.min(timeout, Math.max(1, nextStatusPollMillis - now));
+        }
+        for (RobotConnection connection : connections.values()) {
+            if (connection.getState() == RobotConnection.State.DISCONNECTED) {
+                timeout = Math.min(timeout, Math.max(1, connection.getReconnectAtMillis() - now));
+            }
+        }
+        return timeout;
+    }
+
+    private void dispatch(RobotEndpoint endpoint, RobotReply reply) {
+        for (ReplyListener listener : listeners) {
+            try {
+                listener.onReply(endpoint, reply);
+            } catch (RuntimeException e) {
+                log.warn("Listener de respostas do robô falhou", e);
+            }
+        }
+    }
+}
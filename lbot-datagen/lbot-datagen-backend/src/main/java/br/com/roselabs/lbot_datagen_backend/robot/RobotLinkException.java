@@ -0,0 +1,8 @@
+package br.com.roselabs.lbot_datagen_backend.robot;
+
+public class RobotLinkException extends RuntimeException {
+
+    public RobotLinkException(String message) {
+        super(message);
+    }
+}
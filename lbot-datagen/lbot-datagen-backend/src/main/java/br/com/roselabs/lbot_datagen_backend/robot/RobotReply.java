@@ -0,0 +1,62 @@
+package br.com.roselabs.lbot_datagen_backend.robot;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One line sent by the Enki controller, e.g. {@code OK: Completed forward movement of 10.0 units}.
+ */
+@Getter
+@AllArgsConstructor
+public class RobotReply {
+
+    public enum Type {
+        HELLO, COMMANDS, OK, ERROR, INFO, STATUS, UNKNOWN
+    }
+
+    private final Type type;
+    private final String text;
+    private final String line;
+
+    public static RobotReply parse(String line) {
+        int colon = line.indexOf(':');
+        if (colon > 0) {
+            String prefix = line.substring(0, colon);
+            for (Type type : Type.values()) {
+                if (type.name().equals(prefix)) {
+                    return new RobotReply(type, line.substring(colon + 1).trim(), line);
+                }
+            }
+        }
+        return new RobotReply(Type.UNKNOWN, line.trim(), line);
+    }
+
+    /**
+     * The controller acknowledges a movement when it starts ({@code Moving}, {@code Rotating}, {@code Turning}).
+     */
+    public boolean isCommandStarted() {
+        return type == Type.OK && (text.startsWith("Moving ") || text.startsWith("Rotating ")
+                || text.startsWith("Turning "));
+    }
+
+    public boolean isCommandCompleted() {
+        return type == Type.OK && text.startsWith("Completed ");
+    }
+
+    public boolean isQueueCompleted() {
+        return type == Type.OK && text.startsWith("All commands completed");
+    }
+
+    public boolean isQueueCleared() {
+        return type == Type.OK && text.startsWith("Robot stopped");
+    }
+
+    /**
+     * Errors raised while executing a single movement; the controller then moves on to the next one.
+     */
+    public boolean isCommandError() {
+        return type == Type.ERROR && (text.startsWith("Invalid movement") || text.startsWith("Invalid distance")
+                || text.startsWith("Invalid displacement") || text.startsWith("Invalid rotation")
+                || text.startsWith("Unknown command"));
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.roselabs.lbot_datagen_backend.robot;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Pose and wheel speeds from a controller line such as
+ * {@code STATUS: pos=(10.00,-2.50) angle=1.57 left_speed=5.00 right_speed=5.00}.
+ */
+@Getter
+@AllArgsConstructor
+public class RobotStatusSample {
+
+    private final long timestampMillis;
+    private final double x;
+    private final double y;
+    private final double angle;
+    private final double leftSpeed;
+    private final double rightSpeed;
+
+    public boolean isMoving() {
+        return leftSpeed != 0 || rightSpeed != 0;
+    }
+
+    /**
+     * Returns {@code null} when the text is not a complete status report.
+     */
+    public static RobotStatusSample parse(String text, long timestampMillis) {
+        try {
+            int pos = text.indexOf("pos=(");
+            int comma = text.indexOf(',', pos);
+            int close = text.indexOf(')', comma);
+            if (pos < 0 || comma < 0 || close < 0) {
+                return null;
+            }
+            double x = Double.parseDouble(text.substring(pos + 5, comma).trim());
+            double y = Double.parseDouble(text.substring(comma + 1, close).trim());
+            return new RobotStatusSample(timestampMillis, x, y, field(text, "angle="),
+                    field(text, "left_speed="), field(text, "right_speed="));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    private static double field(String text, String name) {
+        int start = text.indexOf(name);
+        if (start < 0) {
+            throw new NumberFormatException("Campo ausente: " + name);
+        }
+        start += name.length();
+        int end = text.indexOf(' ', start);
+        return Double.parseDouble(text.substring(start, end < 0 ? text.length() : end));
+    }
+}
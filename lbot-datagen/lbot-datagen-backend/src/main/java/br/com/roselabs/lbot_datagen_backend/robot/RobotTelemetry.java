@@ -0,0 +1,42 @@
+package br.com.roselabs.lbot_datagen_backend.robot;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class RobotTelemetry {
+
+    private final int capacity;
+    private final Map<String, TelemetryRingBuffer> buffers = new ConcurrentHashMap<>();
+
+    public RobotTelemetry(RobotGateway robotGateway,
+                          @Value("${lbot.robot.telemetry-capacity:4096}") int capacity) {
+        this.capacity = capacity;
+        robotGateway.addListener(this::onReply);
+    }
+
+    public List<RobotStatusSample> recent(String robot, int limit) {
+        TelemetryRingBuffer buffer = buffers.get(robot);
+        return buffer == null ? List.of() : buffer.recent(limit);
+    }
+
+    public Optional<RobotStatusSample> latest(String robot) {
+        TelemetryRingBuffer buffer = buffers.get(robot);
+        return buffer == null ? Optional.empty() : Optional.ofNullable(buffer.latest());
+    }
+
+    private void onReply(RobotEndpoint endpoint, RobotReply reply) {
+        if (reply.getType() != RobotReply.Type.STATUS) {
+            return;
+        }
+        RobotStatusSample sample = RobotStatusSample.parse(reply.getText(), System.currentTimeMillis());
+        if (sample != null) {
+            buffers.computeIfAbsent(endpoint.getName(), name -> new TelemetryRingBuffer(capacity)).add(sample);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package br.com.roselabs.lbot_datagen_backend.robot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size ring of status samples. Written by the gateway's selector thread only, so publishing needs no
+ * lock; readers copy the most recent samples without blocking the writer.
+ */
+public class TelemetryRingBuffer {
+
+    private final AtomicReferenceArray<RobotStatusSample> slots;
+    private final AtomicLong published = new AtomicLong();
+
+    public TelemetryRingBuffer(int capacity) {
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    public void add(RobotStatusSample sample) {
+        long sequence = published.get();
+        slots.lazySet((int) (sequence % slots.length()), sample);
+        published.set(sequence + 1);
+    }
+
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    public RobotStatusSample latest() {
+        long sequence = published.get();
+        return sequence == 0 ? null : slots.get((int) ((sequence - 1) % slots.length()));
+    }
+
+    /**
+     * Most recent samples, oldest first. Samples overwritten while copying are skipped.
+     */
+    public List<RobotStatusSample> recent(int limit) {
+        long end = published.get();
+        long start = Math.max(0, end - Math.min(limit, slots.length()));
+        List<RobotStatusSample> samples = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            samples.add(slots.get((int) (sequence % slots.length())));
+        }
+
+        long overwritten = published.get() - slots.length() - start;
+        if (overwritten > 0) {
+            return samples.subList((int) Math.min(overwritten, samples.size()), samples.size());
+        }
+        return samples;
+    }
+}
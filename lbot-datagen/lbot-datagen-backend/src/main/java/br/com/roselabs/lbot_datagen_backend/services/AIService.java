@@ -1,120 +1,399 @@
 package br.com.roselabs.lbot_datagen_backend.services;
 
+import br.com.roselabs.lbot_datagen_backend.admission.LlmAdmission;
+import br.com.roselabs.lbot_datagen_backend.cache.LlmResponseCache;
+import br.com.roselabs.lbot_datagen_backend.config.LlmConfig;
+import br.com.roselabs.lbot_datagen_backend.hedging.HedgedExecutor;
+import br.com.roselabs.lbot_datagen_backend.inference.LocalGptChatModel;
+import br.com.roselabs.lbot_datagen_backend.lbml.LbmlFailureReason;
+import br.com.roselabs.lbot_datagen_backend.lbml.LbmlParser;
+import br.com.roselabs.lbot_datagen_backend.lbml.LbmlRepairEngine;
+import br.com.roselabs.lbot_datagen_backend.lbml.LbmlRepairResult;
+import br.com.roselabs.lbot_datagen_backend.lbml.LbmlStreamListener;
+import br.com.roselabs.lbot_datagen_backend.lbml.LbmlStreamValidator;
+import br.com.roselabs.lbot_datagen_backend.metrics.PipelineMetrics;
+import br.com.roselabs.lbot_datagen_backend.pipeline.LbmlConversion;
+import br.com.roselabs.lbot_datagen_backend.prompts.PromptRegistry;
+import br.com.roselabs.lbot_datagen_backend.prompts.PromptTemplate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.ai.openai.OpenAiChatModel;
-import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AIService {
 
-    private final OpenAiChatModel chatModel;
+    private static final String RETRY_HINT = "ATENÇÃO: A resposta anterior não seguiu o formato correto. " +
+            "Certifique-se de seguir EXATAMENTE o padrão: <Prefixo><Número><Direção>; " +
+            "Exemplo válido: " + LbmlRepairEngine.HINT_EXAMPLE;
+
+    private final ChatModel chatModel;
+    private final LlmResponseCache llmResponseCache;
+    private final PromptRegistry promptRegistry;
+    private final PipelineMetrics pipelineMetrics;
+    private final HedgedExecutor hedgedExecutor;
+    private final LlmAdmission llmAdmission;
+
+    @Value("${lbot.conversion.streaming:true}")
+    private boolean streamingEnabled;
+
+    @Value("${lbot.llm.backend:openai}")
+    private String backend;
 
-    private static final String LBML_REGEX = "^(D\\d+[FBLR];|R\\d+[LR];)+$";
-    private static final Pattern LBML_PATTERN = Pattern.compile(LBML_REGEX);
     private static final int MAX_RETRIES = 3;
+    private static final int MAX_REPAIR_BUFFER = 4096;
+    private static final String ANONYMOUS_CALLER = "anonymous";
 
     public String normalizePromptImCm(String prompt) {
-        try {
-            String systemPrompt = loadPromptFromFile("static/prompts/normalize-prompts-in-cm.txt");
-
-            OpenAiChatOptions options = OpenAiChatOptions.builder()
-                    .model("gpt-4.1-nano")
-                    .temperature(0D)
-                    .build();
+        return normalizePromptImCm(prompt, ANONYMOUS_CALLER);
+    }
 
-            Prompt chatPrompt = new Prompt(systemPrompt + prompt, options);
-            return chatModel.call(chatPrompt).getResult().getOutput().getText();
-        } catch (IOException e) {
-            throw new RuntimeException("Erro ao carregar arquivo de prompt", e);
+    /**
+     * @param caller fairness key for admission control, usually the chat id
+     */
+    public String normalizePromptImCm(String prompt, String caller) {
+        if (isLocalBackend()) {
+            // The local model is trained on raw commands and has no normalization prompt.
+            return prompt;
         }
+        PromptTemplate template = promptRegistry.get(PromptRegistry.NORMALIZE);
+
+        OpenAiChatOptions options = OpenAiChatOptions.builder()
+                .model("gpt-4.1-nano")
+                .temperature(0D)
+                .build();
+
+        String cacheKey = llmResponseCache.key("normalize", options.getModel(), options.getTemperature(),
+                template.getVersion(), prompt);
+
+        return llmResponseCache.getOrCompute(cacheKey, () -> {
+            Prompt chatPrompt = new Prompt(List.of(new SystemMessage(template.getContent()), new UserMessage(prompt)),
+                    options);
+            ChatResponse response = timedCall(chatPrompt, template, caller);
+            logUsage(template, options, response);
+            return response.getResult().getOutput().getText();
+        });
     }
 
-    public String convertToLML(String prompt) {
-        return convertWithValidation(prompt);
+    public LbmlConversion convertToLML(String prompt) {
+        return convertWithValidation(prompt, LbmlStreamListener.NOOP, ANONYMOUS_CALLER);
     }
 
-    public String processAndExecuteCommand(String prompt) {
-        try {
-            log.info("Processando comando: {}", prompt);
+    public LbmlConversion convertToLML(String prompt, LbmlStreamListener listener) {
+        return convertWithValidation(prompt, listener, ANONYMOUS_CALLER);
+    }
 
-            String normalizedPrompt = normalizePromptImCm(prompt);
-            log.info("Prompt normalizado: {}", normalizedPrompt);
+    /**
+     * @param caller fairness key for admission control, usually the chat id
+     */
+    public LbmlConversion convertToLML(String prompt, LbmlStreamListener listener, String caller) {
+        return convertWithValidation(prompt, listener, caller);
+    }
 
-            String lbmlCommand = convertToLML(normalizedPrompt);
-            log.info("Comando LBML gerado: {}", lbmlCommand);
+    private LbmlConversion convertWithValidation(String prompt, LbmlStreamListener listener, String caller) {
+        PromptTemplate template = promptRegistry.get(PromptRegistry.CONVERT);
 
-            return lbmlCommand;
-        } catch (Exception e) {
-            log.error("Erro ao processar e executar comando: {}", e.getMessage(), e);
-            return "ERRO: " + e.getMessage();
-        }
-    }
+        OpenAiChatOptions options = OpenAiChatOptions.builder()
+                .model(conversionModel())
+                .temperature(0D)
+                .streamUsage(true)
+                .build();
 
-    private String convertWithValidation(String prompt) {
-        try {
-            String systemPrompt = loadPromptFromFile("static/prompts/convert-to-lml.txt");
-            String currentPrompt = prompt;
+        String cacheKey = llmResponseCache.key("convert", options.getModel(), options.getTemperature(),
+                template.getVersion(), prompt);
+        Optional<String> cached = llmResponseCache.get(cacheKey);
+        if (cached.isPresent()) {
+            log.info("LBML obtido do cache: {}", cached.get());
+            forwardCommands(cached.get(), listener);
+            return new LbmlConversion(cached.get(), 0, null);
+        }
 
-            OpenAiChatOptions options = OpenAiChatOptions.builder()
-                    .model("gpt-4.1-mini")
-                    .temperature(0D)
-                    .build();
+        List<Message> messages = new ArrayList<>();
+        messages.add(new SystemMessage(template.getContent()));
+        messages.add(new UserMessage(prompt));
 
-            for (int attempt = 1; attempt <= MAX_RETRIES; attempt++) {
-                String fullPrompt = systemPrompt + currentPrompt;
+        for (int attempt = 1; attempt <= MAX_RETRIES; attempt++) {
+            Prompt chatPrompt = new Prompt(List.copyOf(messages), options);
+            ModelOutput output = streamingEnabled
+                    ? streamLbml(chatPrompt, template, listener, caller)
+                    : callLbml(chatPrompt, template, caller);
+            String result = output.text;
 
-                Prompt chatPrompt = new Prompt(fullPrompt, options);
-                String result = chatModel.call(chatPrompt).getResult().getOutput().getText();
-                String cleanResult = result.trim().replaceAll("\\s+", "");
+            boolean valid = isValidLBML(result);
+            LbmlRepairResult repair = null;
+            if (!valid) {
+                pipelineMetrics.recordValidationFailure(LbmlFailureReason.classify(result));
+                repair = LbmlRepairEngine.repair(result);
+            }
+            pipelineMetrics.recordConversionAttempt(attempt, valid || repair != null);
 
-                if (isValidLBML(cleanResult)) {
-                    log.info("LBML válido gerado na tentativa {}: {}", attempt, cleanResult);
-                    return cleanResult;
+            if (valid || repair != null) {
+                String canonical = valid ? LbmlParser.canonicalize(result) : repair.getLbml();
+                if (repair != null) {
+                    log.info("LBML reparado localmente na tentativa {} ({}): {}", attempt, repair.describe(), canonical);
+                    repair.getRepairs().forEach(pipelineMetrics::recordRepair);
                 } else {
-                    log.warn("LBML inválido na tentativa {}: {}", attempt, cleanResult);
+                    log.info("LBML válido gerado na tentativa {}: {}", attempt, canonical);
+                }
+                forwardCommands(canonical, output.forwarded, listener);
+                llmResponseCache.put(cacheKey, canonical);
+                return new LbmlConversion(canonical, attempt, repair != null ? repair.describe() : null);
+            } else {
+                log.warn("LBML inválido na tentativa {}: {}", attempt, result);
+                listener.onRetry(attempt, result);
 
-                    if (attempt < MAX_RETRIES) {
-                        currentPrompt = currentPrompt + "\n\nATENÇÃO: A resposta anterior não seguiu o formato correto. " +
-                                "Certifique-se de seguir EXATAMENTE o padrão: <Prefixo><Número><Direção>; " +
-                                "Exemplo válido: D40F;R90L;D20B;";
+                if (attempt < MAX_RETRIES) {
+                    messages.add(new AssistantMessage(result));
+                    messages.add(new UserMessage(RETRY_HINT));
+                }
+            }
+        }
+
+        throw new RuntimeException("Não foi possível gerar LBML válido após " + MAX_RETRIES + " tentativas");
+    }
+
+    /**
+     * Seeds the normalization cache with a normalization the LLM already produced for {@code prompt}.
+     */
+    public void warmNormalization(String prompt, String normalized) {
+        if (isLocalBackend()) {
+            return;
+        }
+        PromptTemplate template = promptRegistry.get(PromptRegistry.NORMALIZE);
+        llmResponseCache.put(llmResponseCache.key("normalize", "gpt-4.1-nano", 0D, template.getVersion(), prompt),
+                normalized);
+    }
+
+    /**
+     * Seeds the conversion cache with an LBML program already accepted for {@code prompt}. Returns false, and
+     * caches nothing, when the program is not valid LBML.
+     */
+    public boolean warmConversion(String prompt, String lbml) {
+        if (!isValidLBML(lbml)) {
+            return false;
+        }
+        PromptTemplate template = promptRegistry.get(PromptRegistry.CONVERT);
+        llmResponseCache.put(llmResponseCache.key("convert", conversionModel(), 0D, template.getVersion(), prompt),
+                LbmlParser.canonicalize(lbml));
+        return true;
+    }
+
+    /**
+     * Streams the model output, forwarding commands as soon as they are complete. After the first invalid
+     * character the rest is only buffered (up to {@link #MAX_REPAIR_BUFFER}) so the repair engine sees the
+     * whole answer; output that can never be repaired, such as a rotation with a displacement direction,
+     * still aborts the generation right away. An aborted stream never receives the provider's usage, so
+     * admission is charged an estimate from the characters actually exchanged instead.
+     */
+    private ModelOutput streamLbml(Prompt chatPrompt, PromptTemplate template, LbmlStreamListener listener,
+                                   String caller) {
+        LbmlStreamValidator validator = new LbmlStreamValidator();
+        StringBuilder raw = new StringBuilder();
+        int forwarded = 0;
+        boolean buffering = false;
+        ChatResponse lastResponse = null;
+        String model = chatPrompt.getOptions().getModel();
+        int promptChars = promptChars(chatPrompt);
+        LlmAdmission.Permit permit = llmAdmission.admit(model, caller, promptChars);
+        long start = System.nanoTime();
+        boolean success = false;
+        boolean aborted = false;
+
+        try (permit; Stream<ChatResponse> responses = chatModel.stream(chatPrompt).toStream()) {
+            Iterator<ChatResponse> iterator = responses.iterator();
+            while (!aborted && iterator.hasNext()) {
+                lastResponse = iterator.next();
+                String chunk = textOf(lastResponse);
+                if (chunk == null) {
+                    continue;
+                }
+                raw.append(chunk);
+                if (buffering) {
+                    if (raw.length() > MAX_REPAIR_BUFFER) {
+                        log.warn("Geração abortada: saída inválida excedeu {} caracteres", MAX_REPAIR_BUFFER);
+                        aborted = true;
+                    }
+                    continue;
+                }
+                for (int i = 0; i < chunk.length(); i++) {
+                    LbmlStreamValidator.Step step = validator.accept(chunk.charAt(i));
+                    if (step == LbmlStreamValidator.Step.COMMAND) {
+                        listener.onCommand(validator.lastCommand());
+                        forwarded++;
+                    } else if (step == LbmlStreamValidator.Step.INVALID) {
+                        if (validator.isWrongDirection()) {
+                            log.warn("Geração abortada: prefixo LBML inválido na posição {}: {}",
+                                    validator.getErrorOffset(), validator.getText());
+                            aborted = true;
+                        } else {
+                            buffering = true;
+                        }
+                        break;
                     }
                 }
             }
+            success = true;
+        } finally {
+            pipelineMetrics.recordLlmCall(model, template.getName(), true, success, System.nanoTime() - start);
+        }
 
-            throw new RuntimeException("Não foi possível gerar LBML válido após " + MAX_RETRIES + " tentativas");
+        if (!recordUsage(permit, lastResponse)) {
+            permit.recordEstimatedUsage(promptChars, raw.length());
+        }
+        logUsage(template, chatPrompt.getOptions(), lastResponse);
+        return new ModelOutput(raw.toString(), forwarded);
+    }
+
+    private ModelOutput callLbml(Prompt chatPrompt, PromptTemplate template, String caller) {
+        ChatResponse response = timedCall(chatPrompt, template, caller);
+        logUsage(template, chatPrompt.getOptions(), response);
+
+        return new ModelOutput(response.getResult().getOutput().getText().trim(), 0);
+    }
+
+    /**
+     * Each request to the provider, hedge included, holds its own admission permit: a hedge takes a bulkhead
+     * slot, one request and its estimated tokens, and is skipped rather than queued when none are free.
+     */
+    private ChatResponse timedCall(Prompt chatPrompt, PromptTemplate template, String caller) {
+        String model = chatPrompt.getOptions().getModel();
+        int promptChars = promptChars(chatPrompt);
+        LlmAdmission.Permit permit = llmAdmission.admit(model, caller, promptChars);
+        long start = System.nanoTime();
+        boolean success = false;
+        try (permit) {
+            ChatResponse response = hedgedExecutor.call(model, () -> callAndRecordUsage(chatPrompt, permit), () -> {
+                try (LlmAdmission.Permit hedgePermit = llmAdmission.tryAdmit(model, caller, promptChars)) {
+                    return callAndRecordUsage(chatPrompt, hedgePermit);
+                }
+            });
+            success = true;
+            return response;
+        } finally {
+            pipelineMetrics.recordLlmCall(model, template.getName(), false, success, System.nanoTime() - start);
+        }
+    }
 
-        } catch (IOException e) {
-            throw new RuntimeException("Erro ao carregar arquivo de prompt", e);
+    private ChatResponse callAndRecordUsage(Prompt chatPrompt, LlmAdmission.Permit permit) {
+        ChatResponse response = chatModel.call(chatPrompt);
+        recordUsage(permit, response);
+        return response;
+    }
+
+    private static int promptChars(Prompt chatPrompt) {
+        int chars = 0;
+        for (Message message : chatPrompt.getInstructions()) {
+            chars += message.getText() != null ? message.getText().length() : 0;
         }
+        return chars;
     }
 
-    private boolean isValidLBML(String lbml) {
-        if (lbml == null || lbml.trim().isEmpty()) {
+    /**
+     * Returns false when the response carries no token counts.
+     */
+    private static boolean recordUsage(LlmAdmission.Permit permit, ChatResponse response) {
+        if (response == null || response.getMetadata() == null || response.getMetadata().getUsage() == null) {
             return false;
         }
+        Usage usage = response.getMetadata().getUsage();
+        if (usage.getPromptTokens() == null || usage.getCompletionTokens() == null
+                || usage.getPromptTokens() + usage.getCompletionTokens() == 0) {
+            return false;
+        }
+        permit.recordUsage(usage.getPromptTokens(), usage.getCompletionTokens());
+        return true;
+    }
 
-        String cleanLbml = lbml.trim();
-        boolean isValid = LBML_PATTERN.matcher(cleanLbml).matches();
+    private String textOf(ChatResponse response) {
+        if (response.getResult() == null || response.getResult().getOutput() == null) {
+            return null;
+        }
+        return response.getResult().getOutput().getText();
+    }
+
+    private void forwardCommands(String lbml, LbmlStreamListener listener) {
+        forwardCommands(lbml, 0, listener);
+    }
 
-        if (!isValid) {
-            log.debug("LBML inválido: '{}' não corresponde ao padrão: {}", cleanLbml, LBML_REGEX);
+    /**
+     * Forwards the commands of {@code lbml} after the first {@code skip}, which the stream already delivered.
+     */
+    private void forwardCommands(String lbml, int skip, LbmlStreamListener listener) {
+        int start = 0;
+        int index = 0;
+        for (int i = 0; i < lbml.length(); i++) {
+            if (lbml.charAt(i) == ';') {
+                if (index++ >= skip) {
+                    listener.onCommand(lbml.substring(start, i + 1));
+                }
+                start = i + 1;
+            }
+        }
+    }
+
+    private void logUsage(PromptTemplate template, ChatOptions options, ChatResponse response) {
+        if (response == null || response.getMetadata() == null || response.getMetadata().getUsage() == null) {
+            return;
         }
+        Usage usage = response.getMetadata().getUsage();
+        Integer cachedTokens = null;
+        if (usage.getNativeUsage() instanceof OpenAiApi.Usage nativeUsage
+                && nativeUsage.promptTokensDetails() != null) {
+            cachedTokens = nativeUsage.promptTokensDetails().cachedTokens();
+        }
+        log.info("Tokens {} [prompt {} v{}]: prompt={} cached={} completion={}", options.getModel(),
+                template.getName(), template.getShortVersion(),
+                usage.getPromptTokens(), cachedTokens, usage.getCompletionTokens());
+        pipelineMetrics.recordTokens(options.getModel(), "prompt", usage.getPromptTokens());
+        pipelineMetrics.recordTokens(options.getModel(), "cached", cachedTokens);
+        pipelineMetrics.recordTokens(options.getModel(), "completion", usage.getCompletionTokens());
+    }
+
+    private String conversionModel() {
+        return isLocalBackend() ? LocalGptChatModel.MODEL : "gpt-4.1-mini";
+    }
 
-        return isValid;
+    private boolean isLocalBackend() {
+        return LlmConfig.LOCAL_BACKEND.equals(backend);
     }
 
-    private String loadPromptFromFile(String filePath) throws IOException {
-        ClassPathResource resource = new ClassPathResource(filePath);
-        return resource.getContentAsString(StandardCharsets.UTF_8);
+    public boolean isValidLBML(String lbml) {
+        int errorOffset = LbmlParser.errorOffset(lbml);
+
+        if (errorOffset >= 0) {
+            log.debug("LBML inválido: '{}' com erro na posição {}", lbml, errorOffset);
+        }
+
+        return errorOffset < 0;
+    }
+
+    private static final class ModelOutput {
+
+        private final String text;
+        private final int forwarded;
+
+        private ModelOutput(String text, int forwarded) {
+            this.text = text;
+            this.forwarded = forwarded;
+        }
     }
 }
@@ -0,0 +1,141 @@
+package br.com.roselabs.lbot_datagen_backend.services;
+
+import br.com.roselabs.lbot_datagen_backend.dtos.AutoGradeReportDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.GradingRowDto;
+import br.com.roselabs.lbot_datagen_backend.repositories.MessageRepository;
+import br.com.roselabs.lbot_datagen_backend.simulation.KinematicGrader;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Proposes a grade for every message in the table by simulating its LBML. Messages are read in keyset
+ * chunks, each chunk is graded in parallel on a dedicated fork-join pool and written back with a single
+ * JDBC batch, so the human {@code grade} column is never touched.
+ */
+@Slf4j
+@Service
+public class AutoGradingService {
+
+    private static final int LEAF_SIZE = 256;
+
+    private final MessageRepository messageRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public AutoGradingService(MessageRepository messageRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${lbot.grading.parallelism:0}") int parallelism,
+                              @Value("${lbot.grading.chunk-size:2000}") int chunkSize) {
+        this.messageRepository = messageRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @throws IllegalStateException when another grading run is still in progress
+     */
+    public AutoGradeReportDto gradeAll() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Já existe uma avaliação automática em andamento");
+        }
+        try {
+            return run();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private AutoGradeReportDto run() {
+        long start = System.nanoTime();
+        long[] distribution = new long[6];
+        UUID[] ids = new UUID[chunkSize];
+        int[] grades = new int[chunkSize];
+        long messages = 0;
+        UUID after = null;
+
+        while (true) {
+            UUID cursor = after;
+            List<GradingRowDto> rows = readOnlyTransaction.execute(
+                    status -> messageRepository.findGradingChunk(cursor, chunkSize));
+            if (rows == null || rows.isEmpty()) {
+                break;
+            }
+            int count = rows.size();
+            pool.invoke(new GradeTask(rows, grades, 0, count));
+            for (int i = 0; i < count; i++) {
+                ids[i] = rows.get(i).getId();
+                distribution[grades[i]]++;
+            }
+            writeTransaction.executeWithoutResult(status -> messageRepository.updateProposedGrades(ids, grades, count));
+
+            messages += count;
+            after = ids[count - 1];
+            if (count < chunkSize) {
+                break;
+            }
+        }
+
+        Map<Integer, Long> graded = new LinkedHashMap<>();
+        long gradedCount = 0;
+        for (int grade = 1; grade < distribution.length; grade++) {
+            graded.put(grade, distribution[grade]);
+            gradedCount += distribution[grade];
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("Avaliação automática concluída: {} mensagens, {} avaliadas em {} ms",
+                messages, gradedCount, elapsedMs);
+        return new AutoGradeReportDto(messages, gradedCount, distribution[KinematicGrader.UNGRADED], graded, elapsedMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static final class GradeTask extends RecursiveAction {
+
+        private final List<GradingRowDto> rows;
+        private final int[] grades;
+        private final int from;
+        private final int to;
+
+        GradeTask(List<GradingRowDto> rows, int[] grades, int from, int to) {
+            this.rows = rows;
+            this.grades = grades;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SIZE) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new GradeTask(rows, grades, from, middle), new GradeTask(rows, grades, middle, to));
+                return;
+            }
+            KinematicGrader grader = new KinematicGrader();
+            for (int i = from; i < to; i++) {
+                GradingRowDto row = rows.get(i);
+                grades[i] = grader.propose(row.getNormalizedPrompt(), row.getOutput());
+            }
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package br.com.roselabs.lbot_datagen_backend.services;
 
+import br.com.roselabs.lbot_datagen_backend.dtos.ChatDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.PageDto;
 import br.com.roselabs.lbot_datagen_backend.entities.Chat;
 import br.com.roselabs.lbot_datagen_backend.repositories.ChatRepository;
+import br.com.roselabs.lbot_datagen_backend.repositories.ChatSummaryView;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,6 +20,8 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class ChatService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final ChatRepository chatRepository;
 
     @Transactional
@@ -30,4 +37,37 @@ public class ChatService {
         return chatRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
+    public boolean existsById(UUID id) {
+        return chatRepository.existsById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ChatDto> findSummary(UUID id) {
+        return chatRepository.findSummaryById(id).map(ChatDto::new);
+    }
+
+    @Transactional(readOnly = true)
+    public PageDto<ChatDto> listChats(String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Pageable page = PageRequest.of(0, pageSize + 1);
+
+        List<ChatSummaryView> views;
+        if (cursor == null || cursor.isBlank()) {
+            views = chatRepository.findSummaries(page);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            views = chatRepository.findSummariesBefore(after.getCreatedAt(), after.getId(), page);
+        }
+
+        String nextCursor = null;
+        if (views.size() > pageSize) {
+            views = views.subList(0, pageSize);
+            ChatSummaryView last = views.get(pageSize - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return new PageDto<>(views.stream().map(ChatDto::new).toList(), nextCursor);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,189 @@
+package br.com.roselabs.lbot_datagen_backend.services;
+
+import br.com.roselabs.lbot_datagen_backend.dtos.DatasetFilterDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.DatasetRowDto;
+import br.com.roselabs.lbot_datagen_backend.entities.Message;
+import br.com.roselabs.lbot_datagen_backend.lbml.LbmlParser;
+import br.com.roselabs.lbot_datagen_backend.repositories.MessageRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+@Service
+public class DatasetExportService {
+
+    public enum Format {
+        JSONL, CSV
+    }
+
+    private static final String[] COLUMNS = {"prompt", "normalized_prompt", "output", "grade", "lbml_repairs"};
+
+    private final MessageRepository messageRepository;
+    private final NearDuplicateService nearDuplicateService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+
+    public DatasetExportService(MessageRepository messageRepository,
+                                NearDuplicateService nearDuplicateService,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${lbot.export.fetch-size:1000}") int fetchSize) {
+        this.messageRepository = messageRepository;
+        this.nearDuplicateService = nearDuplicateService;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    public StreamingResponseBody export(DatasetFilterDto filter, Format format, boolean gzip) {
+        if (filter.getMinGrade() != null
+                && (filter.getMinGrade() < Message.MIN_GRADE || filter.getMinGrade() > Message.MAX_GRADE)) {
+            throw new IllegalArgumentException(
+                    "minGrade deve estar entre " + Message.MIN_GRADE + " e " + Message.MAX_GRADE);
+        }
+        if (filter.getFrom() != null && filter.getTo() != null && !filter.getFrom().isBefore(filter.getTo())) {
+            throw new IllegalArgumentException("from deve ser anterior a to");
+        }
+        if (filter.isExcludeDuplicates()) {
+            nearDuplicateService.requireReady();
+        }
+
+        return outputStream -> {
+            OutputStream target = gzip ? new GZIPOutputStream(outputStream, 8192) : outputStream;
+            long rows = readOnlyTransaction.execute(status -> {
+                try (Stream<DatasetRowDto> stream = messageRepository.streamDataset(filter, fetchSize)) {
+                    Stream<DatasetRowDto> rowsToWrite = filter.getValid() == null ? stream
+                            : stream.filter(row -> isValidOutput(row) == filter.getValid());
+                    if (filter.isExcludeDuplicates()) {
+                        rowsToWrite = rowsToWrite.filter(firstOfEachCluster());
+                    }
+                    return format == Format.CSV ? writeCsv(rowsToWrite, target) : writeJsonl(rowsToWrite, target);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+            target.flush();
+            log.info("Dataset exportado: {} linhas ({}{})", rows, format, gzip ? ", gzip" : "");
+        };
+    }
+
+    /**
+     * Keeps the first exported row of every near-duplicate cluster. Deduplicating after the grade and validity
+     * filters, rather than keeping only the cluster's representative, means a filtered-out representative
+     * does not take its well-graded duplicates with it. Rows the index has not seen yet are kept.
+     */
+    private Predicate<DatasetRowDto> firstOfEachCluster() {
+        Set<UUID> exportedClusters = new HashSet<>();
+        return row -> {
+            UUID cluster = nearDuplicateService.clusterOf(row.getId());
+            return cluster == null || exportedClusters.add(cluster);
+        };
+    }
+
+    private long writeJsonl(Stream<DatasetRowDto> stream, OutputStream outputStream) throws IOException {
+        long rows = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<DatasetRowDto> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                DatasetRowDto row = iterator.next();
+                generator.writeStartObject();
+                generator.writeStringField(COLUMNS[0], row.getPrompt());
+                generator.writeStringField(COLUMNS[1], row.getNormalizedPrompt());
+                generator.writeStringField(COLUMNS[2], row.getOutput());
+                if (row.getGrade() != null) {
+                    generator.writeNumberField(COLUMNS[3], row.getGrade());
+                } else {
+                    generator.writeNullField(COLUMNS[3]);
+                }
+                generator.writeStringField(COLUMNS[4], row.getLbmlRepairs());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private long writeCsv(Stream<DatasetRowDto> stream, OutputStream outputStream) throws IOException {
+        long rows = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 8192);
+        writer.write(String.join(",", COLUMNS));
+        writer.write("\r\n");
+
+        Iterator<DatasetRowDto> iterator = stream.iterator();
+        while (iterator.hasNext()) {
+            DatasetRowDto row = iterator.next();
+            writeCsvField(writer, row.getPrompt());
+            writer.write(',');
+            writeCsvField(writer, row.getNormalizedPrompt());
+            writer.write(',');
+            writeCsvField(writer, row.getOutput());
+            writer.write(',');
+            if (row.getGrade() != null) {
+                writer.write(Integer.toString(row.getGrade()));
+            }
+            writer.write(',');
+            writeCsvField(writer, row.getLbmlRepairs());
+            writer.write("\r\n");
+            rows++;
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private boolean isValidOutput(DatasetRowDto row) {
+        return row.getOutput() != null && LbmlParser.isValid(row.getOutput());
+    }
+}
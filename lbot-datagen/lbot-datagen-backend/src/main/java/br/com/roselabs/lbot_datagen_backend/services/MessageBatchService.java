@@ -0,0 +1,183 @@
+package br.com.roselabs.lbot_datagen_backend.services;
+
+import br.com.roselabs.lbot_datagen_backend.dtos.BatchItemDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.MessageDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.SendBatchDto;
+import br.com.roselabs.lbot_datagen_backend.entities.Chat;
+import br.com.roselabs.lbot_datagen_backend.entities.Message;
+import br.com.roselabs.lbot_datagen_backend.lbml.LbmlStreamListener;
+import br.com.roselabs.lbot_datagen_backend.pipeline.MessagePipeline;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+
+@Slf4j
+@Service
+public class MessageBatchService {
+
+    private final ChatService chatService;
+    private final MessageService messageService;
+    private final MessagePipeline messagePipeline;
+    private final NearDuplicateService nearDuplicateService;
+    private final ExecutorService pipelineExecutor;
+    private final ObjectMapper objectMapper;
+    private final int defaultConcurrency;
+    private final int maxConcurrency;
+    private final int maxPrompts;
+    private final int persistChunkSize;
+
+    public MessageBatchService(ChatService chatService,
+                               MessageService messageService,
+                               MessagePipeline messagePipeline,
+                               NearDuplicateService nearDuplicateService,
+                               @Qualifier("pipelineExecutor") ExecutorService pipelineExecutor,
+                               ObjectMapper objectMapper,
+                               @Value("${lbot.batch.default-concurrency:4}") int defaultConcurrency,
+                               @Value("${lbot.batch.max-concurrency:8}") int maxConcurrency,
+                               @Value("${lbot.batch.max-prompts:1000}") int maxPrompts,
+                               @Value("${lbot.batch.persist-chunk-size:50}") int persistChunkSize) {
+        this.chatService = chatService;
+        this.messageService = messageService;
+        this.messagePipeline = messagePipeline;
+        this.nearDuplicateService = nearDuplicateService;
+        this.pipelineExecutor = pipelineExecutor;
+        this.objectMapper = objectMapper;
+        this.defaultConcurrency = defaultConcurrency;
+        this.maxConcurrency = maxConcurrency;
+        this.maxPrompts = maxPrompts;
+        this.persistChunkSize = persistChunkSize;
+    }
+
+    public StreamingResponseBody process(SendBatchDto sendBatchDto) {
+        UUID chatId = sendBatchDto.getChatId();
+        Chat chat = chatService.findById(chatId)
+                .orElseThrow(() -> new EntityNotFoundException("Chat not found with id: " + chatId));
+
+        List<String> prompts = sendBatchDto.getPrompts();
+        if (prompts == null || prompts.isEmpty() || prompts.size() > maxPrompts) {
+            throw new IllegalArgumentException("O lote deve conter entre 1 e " + maxPrompts + " prompts");
+        }
+
+        int requested = sendBatchDto.getConcurrency() != null ? sendBatchDto.getConcurrency() : defaultConcurrency;
+        int concurrency = Math.max(1, Math.min(requested, maxConcurrency));
+
+        return outputStream -> run(chat, List.copyOf(prompts), concurrency, outputStream);
+    }
+
+    private void run(Chat chat, List<String> prompts, int concurrency, OutputStream outputStream) throws IOException {
+        BlockingQueue<BatchResult> results = new LinkedBlockingQueue<>();
+        List<BatchResult> pending = new ArrayList<>(persistChunkSize);
+        int total = prompts.size();
+        int submitted = 0;
+        int completed = 0;
+        int inFlight = 0;
+        long start = System.nanoTime();
+
+        log.info("Processando lote de {} prompts com concorrência {}", total, concurrency);
+
+        while (completed < total) {
+            while (submitted < total && inFlight < concurrency) {
+                submit(chat, submitted, prompts.get(submitted), results);
+                submitted++;
+                inFlight++;
+            }
+
+            BatchResult result = take(results);
+            inFlight--;
+            completed++;
+            pending.add(result);
+
+            if (pending.size() >= persistChunkSize || completed == total) {
+                persist(pending);
+                for (BatchResult item : pending) {
+                    outputStream.write(objectMapper.writeValueAsBytes(item.toDto()));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+                pending.clear();
+            }
+        }
+
+        log.info("Lote de {} prompts concluído em {} ms", total, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void submit(Chat chat, int index, String prompt, BlockingQueue<BatchResult> results) {
+        try {
+            pipelineExecutor.execute(() -> {
+                try {
+                    Message message = messagePipeline.process(chat, prompt, LbmlStreamListener.NOOP).getMessage();
+                    results.add(new BatchResult(index, message, null));
+                } catch (RuntimeException e) {
+                    log.error("Erro ao processar item {} do lote: {}", index, e.getMessage(), e);
+                    results.add(new BatchResult(index, null, e.getMessage()));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            results.add(new BatchResult(index, null, "Fila de processamento cheia"));
+        }
+    }
+
+    private void persist(List<BatchResult> pending) {
+        List<Message> messages = new ArrayList<>(pending.size());
+        for (BatchResult result : pending) {
+            if (result.message != null) {
+                messages.add(result.message);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+        try {
+            messageService.saveAll(messages);
+            messages.forEach(nearDuplicateService::index);
+        } catch (RuntimeException e) {
+            log.error("Erro ao persistir {} mensagens do lote: {}", messages.size(), e.getMessage(), e);
+            for (BatchResult result : pending) {
+                if (result.message != null) {
+                    result.error = "Erro ao persistir: " + e.getMessage();
+                    result.message = null;
+                }
+            }
+        }
+    }
+
+    private static BatchResult take(BlockingQueue<BatchResult> results) throws IOException {
+        try {
+            return results.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Processamento do lote interrompido", e);
+        }
+    }
+
+    private static final class BatchResult {
+
+        private final int index;
+        private Message message;
+        private String error;
+
+        private BatchResult(int index, Message message, String error) {
+            this.index = index;
+            this.message = message;
+            this.error = error;
+        }
+
+        private BatchItemDto toDto() {
+            return new BatchItemDto(index, message != null ? new MessageDto(message) : null, error);
+        }
+    }
+}
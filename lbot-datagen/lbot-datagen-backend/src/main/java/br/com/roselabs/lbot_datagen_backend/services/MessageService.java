@@ -1,46 +1,101 @@
 package br.com.roselabs.lbot_datagen_backend.services;
 
+import br.com.roselabs.lbot_datagen_backend.dtos.EvaluateChatDto;
 import br.com.roselabs.lbot_datagen_backend.dtos.EvaluateMessageDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.EvaluationResultDto;
 import br.com.roselabs.lbot_datagen_backend.dtos.MessageDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.PageDto;
 import br.com.roselabs.lbot_datagen_backend.dtos.SendMessageDto;
 import br.com.roselabs.lbot_datagen_backend.entities.Chat;
 import br.com.roselabs.lbot_datagen_backend.entities.Message;
+import br.com.roselabs.lbot_datagen_backend.idempotency.RequestCoalescer;
+import br.com.roselabs.lbot_datagen_backend.lbml.LbmlParser;
+import br.com.roselabs.lbot_datagen_backend.lbml.LbmlStreamListener;
+import br.com.roselabs.lbot_datagen_backend.pipeline.MessagePipeline;
+import br.com.roselabs.lbot_datagen_backend.pipeline.PipelineResult;
 import br.com.roselabs.lbot_datagen_backend.repositories.MessageRepository;
+import br.com.roselabs.lbot_datagen_backend.repositories.MessageView;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class MessageService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_EVALUATION_BATCH = 10_000;
+
     private final ChatService chatService;
-    private final AIService aiService;
+    private final MessagePipeline messagePipeline;
     private final MessageRepository messageRepository;
+    private final RobotDispatchService robotDispatchService;
+    private final RequestCoalescer requestCoalescer;
 
-    @Transactional
     public MessageDto sendMessage(SendMessageDto sendMessageDto) {
+        return sendMessage(sendMessageDto, LbmlStreamListener.NOOP);
+    }
+
+    /**
+     * Sends a message at most once per chat and prompt among concurrent callers, and at most once per
+     * {@code idempotencyKey} within the replay window; duplicates receive the result of the first execution.
+     */
+    public MessageDto sendMessage(SendMessageDto sendMessageDto, String idempotencyKey) {
+        String fingerprint = sendMessageDto.getChatId() + "\n" + sendMessageDto.getPrompt();
+        return requestCoalescer.execute(idempotencyKey, fingerprint, () -> sendMessage(sendMessageDto));
+    }
+
+    public MessageDto sendMessage(SendMessageDto sendMessageDto, LbmlStreamListener listener) {
         UUID chatId = sendMessageDto.getChatId();
         Chat chat = chatService.findById(chatId)
                 .orElseThrow(() -> new EntityNotFoundException("Chat not found with id: " + chatId));
 
-        String prompt = sendMessageDto.getPrompt();
-        String normalizedPrompt = aiService.normalizePromptImCm(prompt);
-        String output = aiService.processAndExecuteCommand(sendMessageDto.getPrompt());
+        PipelineResult result = messagePipeline.run(chat, sendMessageDto.getPrompt(), listener);
+        robotDispatchService.autoDispatch(result.getMessage());
+
+        return new MessageDto(result.getMessage());
+    }
 
-        Message message = Message.builder()
-                .prompt(prompt)
-                .normalizedPrompt(normalizedPrompt)
-                .chat(chat)
-                .output(output)
-                .build();
+    @Transactional(readOnly = true)
+    public PageDto<MessageDto> listMessages(UUID chatId, String cursor, int limit) {
+        if (!chatService.existsById(chatId)) {
+            throw new EntityNotFoundException("Chat not found with id: " + chatId);
+        }
 
-        messageRepository.save(message);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Pageable page = PageRequest.of(0, pageSize + 1);
 
-        return new MessageDto(message);
+        List<MessageView> views;
+        if (cursor == null || cursor.isBlank()) {
+            views = messageRepository.findByChat(chatId, page);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            views = messageRepository.findByChatAfter(chatId, after.getCreatedAt(), after.getId(), page);
+        }
+
+        String nextCursor = null;
+        if (views.size() > pageSize) {
+            views = views.subList(0, pageSize);
+            MessageView last = views.get(pageSize - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return new PageDto<>(views.stream().map(view -> new MessageDto(chatId, view)).toList(), nextCursor);
+    }
+
+    @Transactional
+    public List<Message> saveAll(List<Message> messages) {
+        return messageRepository.saveAll(messages);
     }
 
     @Transactional
@@ -54,4 +109,61 @@ public class MessageService {
 
         return new MessageDto(message);
     }
-}
\ No newline at end of file
+
+    /**
+     * Grades many messages with one set-based update. When an id appears more than once the last grade wins.
+     */
+    @Transactional
+    public List<EvaluationResultDto> evaluateMessages(List<EvaluateMessageDto> evaluations) {
+        if (evaluations == null || evaluations.isEmpty()) {
+            throw new IllegalArgumentException("Nenhuma avaliação informada");
+        }
+        if (evaluations.size() > MAX_EVALUATION_BATCH) {
+            throw new IllegalArgumentException("Máximo de " + MAX_EVALUATION_BATCH + " avaliações por lote");
+        }
+
+        Map<UUID, Integer> grades = new LinkedHashMap<>();
+        for (EvaluateMessageDto evaluation : evaluations) {
+            if (evaluation.getMessageId() == null) {
+                throw new IllegalArgumentException("messageId é obrigatório");
+            }
+            validateGrade(evaluation.getGrade());
+            grades.put(evaluation.getMessageId(), evaluation.getGrade());
+        }
+
+        Set<UUID> updated = messageRepository.updateGrades(grades.keySet().toArray(new UUID[0]),
+                grades.values().toArray(new Integer[0]));
+
+        List<EvaluationResultDto> results = new ArrayList<>(grades.size());
+        for (UUID messageId : grades.keySet()) {
+            results.add(new EvaluationResultDto(messageId, updated.contains(messageId)));
+        }
+        return results;
+    }
+
+    /**
+     * Grades every message of a chat whose output is {@code output}; valid LBML is compared in canonical form.
+     */
+    @Transactional
+    public int evaluateChat(EvaluateChatDto evaluateChatDto) {
+        UUID chatId = evaluateChatDto.getChatId();
+        if (chatId == null || !chatService.existsById(chatId)) {
+            throw new EntityNotFoundException("Chat not found with id: " + chatId);
+        }
+        String output = evaluateChatDto.getOutput();
+        if (output == null || output.isBlank()) {
+            throw new IllegalArgumentException("output é obrigatório");
+        }
+        validateGrade(evaluateChatDto.getGrade());
+
+        String canonical = LbmlParser.isValid(output) ? LbmlParser.canonicalize(output) : output;
+        return messageRepository.updateGradeByChatAndOutput(chatId, canonical, evaluateChatDto.getGrade());
+    }
+
+    private void validateGrade(Integer grade) {
+        if (grade == null || grade < Message.MIN_GRADE || grade > Message.MAX_GRADE) {
+            throw new IllegalArgumentException(
+                    "grade deve estar entre " + Message.MIN_GRADE + " e " + Message.MAX_GRADE);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package br.com.roselabs.lbot_datagen_backend.services;
+
+import br.com.roselabs.lbot_datagen_backend.dedup.NearDuplicateIndex;
+import br.com.roselabs.lbot_datagen_backend.dtos.DuplicateClusterDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.DuplicateStatsDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.NearDuplicateDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.PromptRowDto;
+import br.com.roselabs.lbot_datagen_backend.entities.Message;
+import br.com.roselabs.lbot_datagen_backend.entities.NormalizationPath;
+import br.com.roselabs.lbot_datagen_backend.entities.PipelineStatus;
+import br.com.roselabs.lbot_datagen_backend.repositories.MessageRepository;
+import br.com.roselabs.lbot_datagen_backend.repositories.MessageView;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps the {@link NearDuplicateIndex} in sync with the {@code messages} table. The index is loaded from the
+ * database in {@code created_at, id} keyset chunks on a background thread at startup and then extended as
+ * messages are saved, so requests that need the full index fail fast until the initial load is done. Loading
+ * in creation order makes a cluster's representative its oldest message, unless a save races the load. A
+ * failed load is retried with exponential backoff, resuming after the last chunk that was read.
+ */
+@Slf4j
+@Service
+public class NearDuplicateService {
+
+    private static final int MAX_RESULTS = 1000;
+
+    private final MessageRepository messageRepository;
+    private final AIService aiService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final NearDuplicateIndex index;
+    private final boolean enabled;
+    private final int buildChunkSize;
+    private final long retryInitialDelayMillis;
+    private final long retryMaxDelayMillis;
+    private volatile boolean ready;
+    private PromptRowDto buildCursor;
+
+    public NearDuplicateService(MessageRepository messageRepository,
+                                AIService aiService,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${lbot.dedup.enabled:true}") boolean enabled,
+                                @Value("${lbot.dedup.threshold:0.8}") double threshold,
+                                @Value("${lbot.dedup.max-candidates:512}") int maxCandidates,
+                                @Value("${lbot.dedup.build-chunk-size:5000}") int buildChunkSize,
+                                @Value("${lbot.dedup.retry-initial-delay:1s}") Duration retryInitialDelay,
+                                @Value("${lbot.dedup.retry-max-delay:5m}") Duration retryMaxDelay) {
+        this.messageRepository = messageRepository;
+        this.aiService = aiService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.index = new NearDuplicateIndex(threshold, maxCandidates);
+        this.enabled = enabled;
+        this.buildChunkSize = buildChunkSize;
+        this.retryInitialDelayMillis = Math.max(1, retryInitialDelay.toMillis());
+        this.retryMaxDelayMillis = Math.max(retryInitialDelayMillis, retryMaxDelay.toMillis());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("Índice de prompts duplicados desativado (lbot.dedup.enabled)");
+            return;
+        }
+        Thread builder = new Thread(this::build, "dedup-index");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    public void index(Message message) {
+        if (enabled && message.getId() != null) {
+            index.add(message.getId(), message.getNormalizedPrompt());
+        }
+    }
+
+    public List<NearDuplicateDto> findSimilar(String prompt, int limit) {
+        if (prompt == null || prompt.isBlank()) {
+            throw new IllegalArgumentException("prompt é obrigatório");
+        }
+        requireReady();
+        return index.findSimilar(prompt, Math.max(1, Math.min(limit, MAX_RESULTS)));
+    }
+
+    public List<DuplicateClusterDto> clusters(int minSize, int limit) {
+        requireReady();
+        return index.clusters(minSize, Math.max(1, Math.min(limit, MAX_RESULTS)));
+    }
+
+    public boolean isDuplicate(UUID messageId) {
+        return index.isDuplicate(messageId);
+    }
+
+    /**
+     * The id shared by every message of {@code messageId}'s cluster, or {@code null} when it is not indexed.
+     */
+    public UUID clusterOf(UUID messageId) {
+        return index.representativeOf(messageId);
+    }
+
+    public DuplicateStatsDto getStats() {
+        return new DuplicateStatsDto(ready, index.size(), index.duplicateCount());
+    }
+
+    /**
+     * @throws IllegalStateException while the index is disabled or still loading
+     */
+    public void requireReady() {
+        if (!ready) {
+            throw new IllegalStateException("Índice de prompts duplicados ainda não está pronto");
+        }
+    }
+
+    /**
+     * Seeds the LLM response cache with the representatives of the {@code limit} largest clusters, the prompts
+     * most likely to be typed again. Returns how many messages were used.
+     */
+    public int warmCache(int limit) {
+        List<UUID> ids = clusters(2, limit).stream().map(DuplicateClusterDto::getRepresentativeId).toList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<MessageView> views = readOnlyTransaction.execute(status -> messageRepository.findViewsByIds(ids));
+        int warmed = 0;
+        for (MessageView view : views) {
+            if (view.getStatus() != PipelineStatus.SUCCESS || view.getNormalizedPrompt() == null
+                    || view.getOutput() == null) {
+                continue;
+            }
+            if (view.getNormalizationPath() == NormalizationPath.LLM) {
+                aiService.warmNormalization(view.getPrompt(), view.getNormalizedPrompt());
+            }
+            if (aiService.warmConversion(view.getNormalizedPrompt(), view.getOutput())) {
+                warmed++;
+            }
+        }
+        log.info("Cache aquecido com {} de {} prompts representativos", warmed, ids.size());
+        return warmed;
+    }
+
+    private void build() {
+        long start = System.nanoTime();
+        long delayMillis = retryInitialDelayMillis;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                loadRemainingChunks();
+                ready = true;
+                log.info("Índice de prompts duplicados carregado: {} mensagens, {} duplicadas em {} ms",
+                        index.size(), index.duplicateCount(), (System.nanoTime() - start) / 1_000_000);
+                return;
+            } catch (RuntimeException e) {
+                log.error("Erro ao carregar o índice de prompts duplicados (tentativa {}), nova tentativa em {} ms: {}",
+                        attempt, delayMillis, e.getMessage(), e);
+            }
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            delayMillis = Math.min(delayMillis * 2, retryMaxDelayMillis);
+        }
+    }
+
+    /**
+     * Reads the chunks after {@link #buildCursor}, advancing it as each one is indexed so a retry does not add
+     * rows twice.
+     */
+    private void loadRemainingChunks() {
+        while (true) {
+            PromptRowDto cursor = buildCursor;
+            PageRequest chunk = PageRequest.of(0, buildChunkSize);
+            List<PromptRowDto> rows = readOnlyTransaction.execute(status -> cursor == null
+                    ? messageRepository.findPromptChunk(chunk)
+                    : messageRepository.findPromptChunkAfter(cursor.getCreatedAt(), cursor.getId(), chunk));
+            if (rows == null || rows.isEmpty()) {
+                return;
+            }
+            for (PromptRowDto row : rows) {
+                index.add(row.getId(), row.getNormalizedPrompt());
+            }
+            buildCursor = rows.get(rows.size() - 1);
+            if (rows.size() < buildChunkSize) {
+                return;
+            }
+        }
+    }
+}
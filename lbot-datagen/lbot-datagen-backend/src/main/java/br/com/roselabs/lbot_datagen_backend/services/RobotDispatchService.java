@@ -0,0 +1,102 @@
+package br.com.roselabs.lbot_datagen_backend.services;
+
+import br.com.roselabs.lbot_datagen_backend.entities.Message;
+import br.com.roselabs.lbot_datagen_backend.entities.PipelineStatus;
+import br.com.roselabs.lbot_datagen_backend.repositories.MessageRepository;
+import br.com.roselabs.lbot_datagen_backend.robot.RobotExecution;
+import br.com.roselabs.lbot_datagen_backend.robot.RobotGateway;
+import br.com.roselabs.lbot_datagen_backend.tracing.MessageTraceRegistry;
+import br.com.roselabs.lbot_datagen_backend.tracing.TraceStage;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class RobotDispatchService {
+
+    private final RobotGateway robotGateway;
+    private final MessageRepository messageRepository;
+    private final MessageTraceRegistry messageTraceRegistry;
+    private final boolean autoDispatch;
+
+    public RobotDispatchService(RobotGateway robotGateway,
+                                MessageRepository messageRepository,
+                                MessageTraceRegistry messageTraceRegistry,
+                                @Value("${lbot.robot.auto-dispatch:false}") boolean autoDispatch) {
+        this.robotGateway = robotGateway;
+        this.messageRepository = messageRepository;
+        this.messageTraceRegistry = messageTraceRegistry;
+        this.autoDispatch = autoDispatch;
+    }
+
+    /**
+     * Sends the message's program to {@code robot}. Returns empty when the optimizer proved the program has no
+     * net effect, in which case nothing is sent.
+     */
+    public Optional<RobotExecution> dispatch(UUID messageId, String robot) {
+        Message message = messageRepository.findById(messageId)
+                .orElseThrow(() -> new EntityNotFoundException("Message not found with id: " + messageId));
+        if (message.getStatus() == PipelineStatus.FAILED) {
+            throw new IllegalArgumentException("Mensagem " + messageId + " não gerou LBML válido");
+        }
+        return dispatch(message, robot);
+    }
+
+    /**
+     * Sends freshly generated LBML to the first configured robot when {@code lbot.robot.auto-dispatch} is on.
+     */
+    public void autoDispatch(Message message) {
+        if (!autoDispatch || message.getStatus() != PipelineStatus.SUCCESS || message.getId() == null) {
+            return;
+        }
+        robotGateway.getDefaultRobot()
+                .filter(robotGateway::isConnected)
+                .ifPresent(robot -> dispatch(message, robot));
+    }
+
+    /**
+     * A program the optimizer reduced to zero commands, such as {@code R180R;R180R;}, has no optimized form and
+     * would leave the robot where it started, so it is not sent at all.
+     */
+    private Optional<RobotExecution> dispatch(Message message, String robot) {
+        Integer optimizedCommandCount = message.getOptimizedCommandCount();
+        if (optimizedCommandCount != null && optimizedCommandCount == 0) {
+            log.info("Mensagem {} não tem efeito no robô {}, nada foi enviado", message.getId(), robot);
+            messageTraceRegistry.mark(message.getId(), TraceStage.DISPATCH_SKIPPED);
+            return Optional.empty();
+        }
+        return Optional.of(dispatch(message.getId(), executableLbml(message), robot));
+    }
+
+    /**
+     * The robot runs the optimized program. Messages stored before the optimizer existed have neither an
+     * optimized form nor a count and are sent as generated.
+     */
+    private String executableLbml(Message message) {
+        return message.getOptimizedOutput() != null ? message.getOptimizedOutput() : message.getOutput();
+    }
+
+    private RobotExecution dispatch(UUID messageId, String lbml, String robot) {
+        RobotExecution execution = robotGateway.execute(robot, lbml);
+        if (execution.getCompletion().isCompletedExceptionally()) {
+            messageTraceRegistry.mark(messageId, TraceStage.ROBOT_FAILED);
+            return execution;
+        }
+
+        messageTraceRegistry.mark(messageId, TraceStage.SENT_TO_ROBOT);
+        execution.getCompletion().whenComplete((done, error) -> {
+            if (error == null) {
+                messageTraceRegistry.mark(messageId, TraceStage.ROBOT_FINISHED);
+            } else {
+                log.warn("Robô {} falhou ao executar a mensagem {}: {}", robot, messageId, error.getMessage());
+                messageTraceRegistry.mark(messageId, TraceStage.ROBOT_FAILED);
+            }
+        });
+        return execution;
+    }
+}
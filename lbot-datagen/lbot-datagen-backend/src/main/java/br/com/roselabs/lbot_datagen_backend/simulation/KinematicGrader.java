@@ -0,0 +1,78 @@
+package br.com.roselabs.lbot_datagen_backend.simulation;
+
+import br.com.roselabs.lbot_datagen_backend.lbml.LbmlParser;
+
+/**
+ * Proposes a 1–5 grade by simulating the generated LBML and a reference program and comparing where the
+ * robot ends up. Position error is measured relative to the reference path (with a 10 cm floor, so short
+ * programs are not judged on millimetres) and heading error in degrees; a correct pose reached through a
+ * much longer path loses one point.
+ *
+ * <p>Instances reuse their buffers and are not thread-safe; bulk grading keeps one per worker.
+ */
+public class KinematicGrader {
+
+    public static final int UNGRADED = 0;
+
+    private static final double MIN_SCALE_CM = 10;
+    private static final double[] POSITION_LIMITS = {0.02, 0.10, 0.25, 0.50};
+    private static final int[] HEADING_LIMITS = {2, 10, 30, 90};
+    private static final double DETOUR_RATIO = 1.5;
+
+    private final KinematicState candidate = new KinematicState();
+    private final KinematicState reference = new KinematicState();
+    private long[] buffer = new long[64];
+
+    /**
+     * Grades {@code output} against the program described by {@code normalizedPrompt}, or returns
+     * {@link #UNGRADED} when the prompt has no unambiguous reference.
+     */
+    public int propose(String normalizedPrompt, String output) {
+        long[] expected = ReferenceProgramExtractor.extract(normalizedPrompt);
+        return expected == null ? UNGRADED : propose(expected, output);
+    }
+
+    /**
+     * Output that is not valid LBML gets the lowest grade.
+     */
+    public int propose(long[] expected, String output) {
+        int count = output == null ? -1 : LbmlParser.parse(output, buffer);
+        if (count > buffer.length) {
+            buffer = new long[Integer.highestOneBit(count) << 1];
+            count = LbmlParser.parse(output, buffer);
+        }
+        if (count <= 0) {
+            return 1;
+        }
+        KinematicSimulator.run(expected, expected.length, reference);
+        KinematicSimulator.run(buffer, count, candidate);
+        return grade(candidate, reference);
+    }
+
+    public KinematicState getCandidate() {
+        return candidate;
+    }
+
+    public KinematicState getReference() {
+        return reference;
+    }
+
+    static int grade(KinematicState candidate, KinematicState reference) {
+        double scale = Math.max(MIN_SCALE_CM, reference.pathLength);
+        double positionError = Math.hypot(candidate.x - reference.x, candidate.y - reference.y) / scale;
+        int headingError = Math.abs(candidate.getHeading() - reference.getHeading());
+        headingError = Math.min(headingError, 360 - headingError);
+
+        int grade = 1;
+        for (int level = 0; level < POSITION_LIMITS.length; level++) {
+            if (positionError <= POSITION_LIMITS[level] && headingError <= HEADING_LIMITS[level]) {
+                grade = 5 - level;
+                break;
+            }
+        }
+        if (grade > 1 && candidate.pathLength > reference.pathLength * DETOUR_RATIO + MIN_SCALE_CM) {
+            grade--;
+        }
+        return grade;
+    }
+}
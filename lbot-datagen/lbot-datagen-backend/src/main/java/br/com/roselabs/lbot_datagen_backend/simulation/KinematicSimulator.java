@@ -0,0 +1,54 @@
+package br.com.roselabs.lbot_datagen_backend.simulation;
+
+import br.com.roselabs.lbot_datagen_backend.lbml.LbmlParser;
+
+/**
+ * Ideal kinematics of {@code executeSingleCommand} in {@code enkiSocketControl.cpp}: {@code DxF}/{@code DxB}
+ * move along the heading, {@code DxL}/{@code DxR} turn 90° and then move forward, and {@code RaL}/{@code RaR}
+ * turn in place. Wheel dynamics and the controller's overshoot are ignored, so the result is the pose the
+ * program asks for.
+ */
+public final class KinematicSimulator {
+
+    private KinematicSimulator() {
+    }
+
+    public static KinematicState run(long[] commands) {
+        KinematicState state = new KinematicState();
+        run(commands, commands.length, state);
+        return state;
+    }
+
+    public static void run(long[] commands, int count, KinematicState state) {
+        state.reset();
+        for (int i = 0; i < count; i++) {
+            long command = commands[i];
+            int magnitude = LbmlParser.magnitude(command);
+            int direction = LbmlParser.direction(command);
+
+            if (LbmlParser.opcode(command) == LbmlParser.ROTATION) {
+                turn(state, direction == LbmlParser.LEFT ? magnitude : -magnitude);
+            } else if (direction == LbmlParser.FORWARD) {
+                move(state, magnitude);
+            } else if (direction == LbmlParser.BACKWARD) {
+                move(state, -magnitude);
+            } else {
+                turn(state, direction == LbmlParser.LEFT ? 90 : -90);
+                move(state, magnitude);
+            }
+            state.commands++;
+        }
+    }
+
+    private static void turn(KinematicState state, int degrees) {
+        state.heading += degrees;
+        state.rotation += Math.abs(degrees);
+    }
+
+    private static void move(KinematicState state, double distance) {
+        double radians = Math.toRadians(Math.floorMod(state.heading, 360L));
+        state.x += distance * Math.cos(radians);
+        state.y += distance * Math.sin(radians);
+        state.pathLength += Math.abs(distance);
+    }
+}
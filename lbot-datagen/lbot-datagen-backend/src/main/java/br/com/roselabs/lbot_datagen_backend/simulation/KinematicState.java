@@ -0,0 +1,51 @@
+package br.com.roselabs.lbot_datagen_backend.simulation;
+
+/**
+ * Mutable pose and path totals of a simulated run, reused across runs so bulk grading allocates nothing per
+ * command. Heading is kept in whole degrees, counter-clockwise (left) positive, starting along +x.
+ */
+public class KinematicState {
+
+    double x;
+    double y;
+    long heading;
+    double pathLength;
+    long rotation;
+    int commands;
+
+    void reset() {
+        x = 0;
+        y = 0;
+        heading = 0;
+        pathLength = 0;
+        rotation = 0;
+        commands = 0;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Final heading in [0, 360).
+     */
+    public int getHeading() {
+        return (int) Math.floorMod(heading, 360L);
+    }
+
+    public double getPathLength() {
+        return pathLength;
+    }
+
+    public long getRotation() {
+        return rotation;
+    }
+
+    public int getCommands() {
+        return commands;
+    }
+}
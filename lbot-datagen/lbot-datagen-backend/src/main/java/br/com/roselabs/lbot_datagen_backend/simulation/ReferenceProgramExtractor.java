@@ -0,0 +1,122 @@
+package br.com.roselabs.lbot_datagen_backend.simulation;
+
+import br.com.roselabs.lbot_datagen_backend.lbml.LbmlParser;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Derives the reference program of a normalized prompt when it is a plain sequence of moves and turns,
+ * such as {@code "ande 200 cm para frente, depois vire 90 graus à direita"}. Distances must already be in
+ * centimetres (the normalization step does that); anything figurative, ambiguous or unquantified yields
+ * {@code null}, so only prompts with a single reasonable reading get an automatic grade.
+ */
+public final class ReferenceProgramExtractor {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}");
+    // A comma or dot followed by a digit is a decimal separator ("304.8 cm", "1,5 cm"), not a clause break.
+    private static final Pattern CLAUSES = Pattern.compile(
+            "\\s*(?:;|[,.](?!\\d)|\\be depois\\b|\\bdepois\\b|\\bem seguida\\b|\\bentao\\b|\\be\\b)\\s*");
+    private static final Pattern DISTANCE = Pattern.compile("(\\d+(?:[.,]\\d+)?)\\s*(?:cm|centimetros?)\\b");
+    private static final Pattern DEGREES = Pattern.compile("(\\d+(?:[.,]\\d+)?)\\s*(?:graus?|°)");
+    private static final Pattern NUMBER = Pattern.compile("\\d+(?:[.,]\\d+)?");
+    private static final Pattern TURN_VERB = Pattern.compile("\\b(?:gir|vir|rotacion|rod)\\w*");
+    private static final Pattern MOVE_VERB = Pattern.compile(
+            "\\b(?:and|cami|mov|sig|avanc|desloc|percorr|prossig|va\\b|ir\\b|v[ao]lt|recu|re\\b)\\w*");
+    private static final Pattern BACKWARD = Pattern.compile("\\b(?:tras|atras|traz|re|recu\\w*|volt[ae]\\w*)\\b");
+    private static final Pattern FORWARD = Pattern.compile("\\b(?:frente|adiante|reto)\\b");
+    private static final Pattern LEFT = Pattern.compile("\\besquerda\\b");
+    private static final Pattern RIGHT = Pattern.compile("\\bdireita\\b");
+    private static final Pattern FILLER = Pattern.compile("(?:\\s|\\b(?:por favor|robo|agora|lbot)\\b)*");
+
+    private ReferenceProgramExtractor() {
+    }
+
+    public static long[] extract(String normalizedPrompt) {
+        if (normalizedPrompt == null || normalizedPrompt.isBlank()) {
+            return null;
+        }
+        String text = DIACRITICS.matcher(Normalizer.normalize(normalizedPrompt, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+
+        String[] clauses = CLAUSES.split(text);
+        long[] commands = new long[clauses.length];
+        int count = 0;
+        for (String clause : clauses) {
+            if (FILLER.matcher(clause).matches()) {
+                continue;
+            }
+            long command = parseClause(clause);
+            if (command < 0) {
+                return null;
+            }
+            commands[count++] = command;
+        }
+        return count == 0 ? null : Arrays.copyOf(commands, count);
+    }
+
+    /**
+     * Returns the encoded command of a single clause, or -1 when it is not a plain move or turn.
+     */
+    private static long parseClause(String clause) {
+        boolean left = LEFT.matcher(clause).find();
+        boolean right = RIGHT.matcher(clause).find();
+        int numbers = count(NUMBER.matcher(clause));
+        if ((left && right) || numbers > 1) {
+            return -1;
+        }
+
+        Matcher distance = DISTANCE.matcher(clause);
+        if (distance.find()) {
+            if (!MOVE_VERB.matcher(clause).find()) {
+                return -1;
+            }
+            boolean backward = BACKWARD.matcher(clause).find();
+            if (backward && (left || right || FORWARD.matcher(clause).find())) {
+                return -1;
+            }
+            int direction = backward ? LbmlParser.BACKWARD
+                    : left ? LbmlParser.LEFT
+                    : right ? LbmlParser.RIGHT
+                    : LbmlParser.FORWARD;
+            return LbmlParser.encode(LbmlParser.DISPLACEMENT, direction, round(distance.group(1)));
+        }
+
+        // Half and full turns end in the same pose whichever way the robot spins.
+        int rotationDirection = right ? LbmlParser.RIGHT : LbmlParser.LEFT;
+        if (clause.contains("meia volta") || clause.contains("meia-volta")) {
+            return numbers == 0 ? LbmlParser.encode(LbmlParser.ROTATION, rotationDirection, 180) : -1;
+        }
+        if (!TURN_VERB.matcher(clause).find() && !clause.contains("volta")) {
+            return -1;
+        }
+        Matcher degrees = DEGREES.matcher(clause);
+        if (degrees.find()) {
+            return left || right ? LbmlParser.encode(LbmlParser.ROTATION, rotationDirection, round(degrees.group(1)))
+                    : -1;
+        }
+        if (numbers > 0) {
+            return -1;
+        }
+        if (clause.contains("volta")) {
+            return LbmlParser.encode(LbmlParser.ROTATION, rotationDirection, 360);
+        }
+        return left || right ? LbmlParser.encode(LbmlParser.ROTATION, rotationDirection, 90) : -1;
+    }
+
+    private static int count(Matcher matcher) {
+        int count = 0;
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+
+    private static int round(String number) {
+        return (int) Math.round(Double.parseDouble(number.replace(',', '.')));
+    }
+}
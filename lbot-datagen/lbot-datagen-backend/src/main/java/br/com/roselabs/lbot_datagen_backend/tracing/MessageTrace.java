@@ -0,0 +1,53 @@
+package br.com.roselabs.lbot_datagen_backend.tracing;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Timeline of one message from prompt to robot motion, as nanosecond offsets from {@link TraceStage#RECEIVED}.
+ */
+public class MessageTrace {
+
+    @Getter
+    private final UUID messageId;
+    @Getter
+    private final Instant receivedAt;
+    private final long startNanos;
+    private final Map<TraceStage, Long> offsetsNanos = new EnumMap<>(TraceStage.class);
+
+    MessageTrace(UUID messageId, Instant receivedAt, long startNanos) {
+        this.messageId = messageId;
+        this.receivedAt = receivedAt;
+        this.startNanos = startNanos;
+        this.offsetsNanos.put(TraceStage.RECEIVED, 0L);
+    }
+
+    /**
+     * Records the stage and returns the time elapsed since the previous recorded stage.
+     */
+    synchronized long mark(TraceStage stage, long nanos) {
+        long offset = nanos - startNanos;
+        long previous = 0;
+        for (Long recorded : offsetsNanos.values()) {
+            if (recorded <= offset) {
+                previous = Math.max(previous, recorded);
+            }
+        }
+        offsetsNanos.put(stage, offset);
+        return offset - previous;
+    }
+
+    synchronized Long offsetNanos(TraceStage stage) {
+        return offsetsNanos.get(stage);
+    }
+
+    public synchronized Map<TraceStage, Double> getTimelineMillis() {
+        Map<TraceStage, Double> timeline = new EnumMap<>(TraceStage.class);
+        offsetsNanos.forEach((stage, offset) -> timeline.put(stage, offset / 1_000_000.0));
+        return timeline;
+    }
+}
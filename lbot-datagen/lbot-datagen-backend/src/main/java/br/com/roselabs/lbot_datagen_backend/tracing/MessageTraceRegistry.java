@@ -0,0 +1,95 @@
+package br.com.roselabs.lbot_datagen_backend.tracing;
+
+import br.com.roselabs.lbot_datagen_backend.entities.PipelineStage;
+import br.com.roselabs.lbot_datagen_backend.pipeline.StageTimings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the most recent message traces and a latency histogram per stage transition plus one end to end,
+ * so the LLM and the robot can be compared on the same scale.
+ */
+@Component
+public class MessageTraceRegistry {
+
+    public static final String END_TO_END = "END_TO_END";
+
+    private final int maxTraces;
+    private final Map<UUID, MessageTrace> traces;
+    private final Map<TraceStage, LatencyHistogram> stageLatencies = new EnumMap<>(TraceStage.class);
+    private final LatencyHistogram endToEnd = new LatencyHistogram();
+
+    public MessageTraceRegistry(@Value("${lbot.tracing.max-traces:10000}") int maxTraces) {
+        this.maxTraces = maxTraces;
+        this.traces = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, MessageTrace> eldest) {
+                return size() > MessageTraceRegistry.this.maxTraces;
+            }
+        };
+        for (TraceStage stage : TraceStage.values()) {
+            if (stage != TraceStage.RECEIVED) {
+                stageLatencies.put(stage, new LatencyHistogram());
+            }
+        }
+    }
+
+    /**
+     * Starts a trace from the pipeline's stage timings once the message has an id.
+     */
+    public void record(UUID messageId, StageTimings timings) {
+        long now = System.nanoTime();
+        Instant receivedAt = Instant.now().minusNanos(now - timings.getStartNanos());
+        MessageTrace trace = new MessageTrace(messageId, receivedAt, timings.getStartNanos());
+
+        mark(trace, TraceStage.NORMALIZED, timings.getFinishedAtNanos(PipelineStage.NORMALIZE));
+        mark(trace, TraceStage.LBML_GENERATED, timings.getFinishedAtNanos(PipelineStage.VALIDATE));
+        mark(trace, TraceStage.PERSISTED, timings.getFinishedAtNanos(PipelineStage.PERSIST));
+
+        synchronized (traces) {
+            traces.put(messageId, trace);
+        }
+    }
+
+    public void mark(UUID messageId, TraceStage stage) {
+        long now = System.nanoTime();
+        MessageTrace trace;
+        synchronized (traces) {
+            trace = traces.computeIfAbsent(messageId, id -> new MessageTrace(id, Instant.now(), now));
+        }
+        mark(trace, stage, now);
+
+        if (stage == TraceStage.ROBOT_FINISHED) {
+            endToEnd.recordNanos(trace.offsetNanos(stage));
+        }
+    }
+
+    public Optional<MessageTrace> find(UUID messageId) {
+        synchronized (traces) {
+            return Optional.ofNullable(traces.get(messageId));
+        }
+    }
+
+    public Map<String, LatencyHistogram> getLatencies() {
+        Map<String, LatencyHistogram> latencies = new LinkedHashMap<>();
+        stageLatencies.forEach((stage, histogram) -> latencies.put(stage.name(), histogram));
+        latencies.put(END_TO_END, endToEnd);
+        return latencies;
+    }
+
+    private void mark(MessageTrace trace, TraceStage stage, Long nanos) {
+        if (nanos == null) {
+            return;
+        }
+        long sincePrevious = trace.mark(stage, nanos);
+        stageLatencies.get(stage).record(TimeUnit.NANOSECONDS.toMicros(sincePrevious));
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.roselabs.lbot_datagen_backend.tracing;
+
+public enum TraceStage {
+    RECEIVED,
+    NORMALIZED,
+    LBML_GENERATED,
+    PERSISTED,
+    DISPATCH_SKIPPED,
+    SENT_TO_ROBOT,
+    ROBOT_FINISHED,
+    ROBOT_FAILED
+}
@@ -0,0 +1,34 @@
+-- Schema previously managed by hibernate.ddl-auto=update. Every statement is idempotent so databases created
+-- that way converge on the same shape as new ones.
+
+CREATE TABLE IF NOT EXISTS chats (
+    id          UUID         NOT NULL PRIMARY KEY,
+    created_at  TIMESTAMP(6) NOT NULL,
+    observation TEXT,
+    version     INTEGER      NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS messages (
+    id                UUID NOT NULL PRIMARY KEY,
+    prompt            TEXT,
+    normalized_prompt TEXT,
+    output            TEXT,
+    grade             INTEGER,
+    chat_id           UUID NOT NULL,
+    CONSTRAINT fk_messages_chat FOREIGN KEY (chat_id) REFERENCES chats (id)
+);
+
+ALTER TABLE messages
+    ADD COLUMN IF NOT EXISTS lbml_repairs            VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS command_count           INTEGER,
+    ADD COLUMN IF NOT EXISTS optimized_output        TEXT,
+    ADD COLUMN IF NOT EXISTS optimized_command_count INTEGER,
+    ADD COLUMN IF NOT EXISTS proposed_grade          INTEGER,
+    ADD COLUMN IF NOT EXISTS normalization_path      VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS status                  VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS failed_stage            VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS convert_attempts        INTEGER,
+    ADD COLUMN IF NOT EXISTS normalize_ms            BIGINT,
+    ADD COLUMN IF NOT EXISTS convert_ms              BIGINT,
+    ADD COLUMN IF NOT EXISTS validate_ms             BIGINT,
+    ADD COLUMN IF NOT EXISTS created_at              TIMESTAMP(6);
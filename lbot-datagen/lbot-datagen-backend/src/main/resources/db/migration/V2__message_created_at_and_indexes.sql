@@ -0,0 +1,23 @@
+-- Rows written before messages had a creation time inherit their chat's, so keyset pagination and the
+-- time-range export filters never meet a NULL.
+UPDATE messages m
+SET created_at = c.created_at
+FROM chats c
+WHERE m.chat_id = c.id
+  AND m.created_at IS NULL;
+
+ALTER TABLE messages
+    ALTER COLUMN created_at SET DEFAULT LOCALTIMESTAMP,
+    ALTER COLUMN created_at SET NOT NULL;
+
+-- Messages of a chat in page order, and the per-chat message count of the chat summaries.
+CREATE INDEX IF NOT EXISTS idx_messages_chat_created ON messages (chat_id, created_at, id);
+
+-- Dataset export order and its from/to filters.
+CREATE INDEX IF NOT EXISTS idx_messages_created ON messages (created_at, id);
+
+-- Export and review filters on the human grade; ungraded rows are the majority and never match.
+CREATE INDEX IF NOT EXISTS idx_messages_grade ON messages (grade, created_at, id) WHERE grade IS NOT NULL;
+
+-- Chat list keyset pagination, newest first.
+CREATE INDEX IF NOT EXISTS idx_chats_created ON chats (created_at DESC, id DESC);
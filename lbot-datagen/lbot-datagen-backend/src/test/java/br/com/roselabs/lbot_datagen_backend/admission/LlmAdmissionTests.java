@@ -0,0 +1,175 @@
+package br.com.roselabs.lbot_datagen_backend.admission;
+
+import br.com.roselabs.lbot_datagen_backend.hedging.HedgedExecutor;
+import br.com.roselabs.lbot_datagen_backend.metrics.PipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LlmAdmissionTests {
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void releasedSlotsAlternateBetweenChats() throws Exception {
+		FairBulkhead bulkhead = new FairBulkhead(1, 10);
+		assertThat(bulkhead.acquire("holder", 0)).isTrue();
+
+		List<String> order = new CopyOnWriteArrayList<>();
+		List<Future<?>> waiters = List.of(
+				waitFor(bulkhead, "a", order), waitFor(bulkhead, "a", order), waitFor(bulkhead, "b", order));
+
+		bulkhead.release();
+		for (Future<?> waiter : waiters) {
+			waiter.get(5, TimeUnit.SECONDS);
+		}
+
+		assertThat(order).containsExactly("a", "b", "a");
+		assertThat(bulkhead.getActive()).isZero();
+		assertThat(bulkhead.getQueued()).isZero();
+	}
+
+	@Test
+	void fullQueueIsRejectedImmediately() throws Exception {
+		FairBulkhead bulkhead = new FairBulkhead(1, 0);
+		assertThat(bulkhead.acquire("a", 0)).isTrue();
+
+		assertThatThrownBy(() -> bulkhead.acquire("b", TimeUnit.SECONDS.toNanos(5)))
+				.isInstanceOf(RejectedExecutionException.class);
+	}
+
+	@Test
+	void shedsWithRetryAfterWhenTheTokenBudgetIsSpent() {
+		LlmAdmission admission = new LlmAdmission(new PipelineMetrics(registry), true, 4, 4,
+				Duration.ofMillis(50), Duration.ofSeconds(1), 0, "gpt-4.1-mini:60:4000");
+
+		admission.admit("gpt-4.1-mini", "chat", 16_000).close();
+
+		assertThatThrownBy(() -> admission.admit("gpt-4.1-mini", "chat", 4_000))
+				.isInstanceOfSatisfying(LlmOverloadedException.class, e -> {
+					assertThat(e.getReason()).isEqualTo("rate_limited");
+					assertThat(e.getRetryAfterSeconds()).isBetween(10L, 15L);
+				});
+		assertThat(registry.get("lbot.llm.admission.rejections").tag("reason", "rate_limited").counter().count())
+				.isEqualTo(1);
+		assertThat(admission.getBulkhead().getActive()).isZero();
+	}
+
+	@Test
+	void refundsTokensTheProviderDidNotUse() {
+		LlmAdmission admission = new LlmAdmission(new PipelineMetrics(registry), true, 4, 4,
+				Duration.ZERO, Duration.ofSeconds(1), 0, "gpt-4.1-nano:60:1000");
+
+		try (LlmAdmission.Permit permit = admission.admit("gpt-4.1-nano", "chat", 4_000)) {
+			permit.recordUsage(10, 10);
+		}
+
+		admission.admit("gpt-4.1-nano", "chat", 3_000).close();
+	}
+
+	@Test
+	void abortedCallsAreChargedTheCharactersTheyExchanged() {
+		LlmAdmission admission = new LlmAdmission(new PipelineMetrics(registry), true, 4, 4,
+				Duration.ZERO, Duration.ofSeconds(1), 128, "gpt-4.1-mini:60:1200");
+
+		try (LlmAdmission.Permit permit = admission.admit("gpt-4.1-mini", "chat", 2_000)) {
+			permit.recordEstimatedUsage(2_000, 9);
+		}
+
+		admission.admit("gpt-4.1-mini", "chat", 2_000).close();
+		assertThatThrownBy(() -> admission.admit("gpt-4.1-mini", "chat", 2_000))
+				.isInstanceOf(LlmOverloadedException.class);
+	}
+
+	@Test
+	void hedgeTakesItsOwnRequestAndEstimatedTokens() {
+		LlmAdmission admission = new LlmAdmission(new PipelineMetrics(registry), true, 4, 4,
+				Duration.ZERO, Duration.ofSeconds(1), 0, "gpt-4.1-mini:3:1000");
+		HedgedExecutor hedged = new HedgedExecutor(executor, new PipelineMetrics(registry), true, false, 95,
+				Duration.ofMillis(20), 1.0);
+
+		String result;
+		try (LlmAdmission.Permit permit = admission.admit("gpt-4.1-mini", "chat", 1_600)) {
+			result = hedged.call("gpt-4.1-mini", () -> {
+				sleep(1_000);
+				return "primary";
+			}, () -> {
+				try (LlmAdmission.Permit hedgePermit = admission.tryAdmit("gpt-4.1-mini", "chat", 1_600)) {
+					return "hedge";
+				}
+			});
+		}
+
+		assertThat(result).isEqualTo("hedge");
+		// 400 tokens each for the primary and the hedge leave 200 of the 1000; one request of the 3 is left.
+		assertThatThrownBy(() -> admission.tryAdmit("gpt-4.1-mini", "chat", 1_600))
+				.isInstanceOf(LlmOverloadedException.class);
+		admission.tryAdmit("gpt-4.1-mini", "chat", 800).close();
+		assertThatThrownBy(() -> admission.tryAdmit("gpt-4.1-mini", "chat", 0))
+				.isInstanceOf(LlmOverloadedException.class);
+	}
+
+	@Test
+	void hedgeThatIsNotAdmittedLeavesThePrimaryToAnswer() {
+		LlmAdmission admission = new LlmAdmission(new PipelineMetrics(registry), true, 1, 4,
+				Duration.ZERO, Duration.ofSeconds(1), 0, "");
+		HedgedExecutor hedged = new HedgedExecutor(executor, new PipelineMetrics(registry), true, false, 95,
+				Duration.ofMillis(20), 1.0);
+
+		String result;
+		try (LlmAdmission.Permit permit = admission.admit("gpt-4.1-mini", "chat", 100)) {
+			result = hedged.call("gpt-4.1-mini", () -> {
+				sleep(200);
+				return "primary";
+			}, () -> {
+				try (LlmAdmission.Permit hedgePermit = admission.tryAdmit("gpt-4.1-mini", "chat", 100)) {
+					return "hedge";
+				}
+			});
+		}
+
+		assertThat(result).isEqualTo("primary");
+		assertThat(admission.getBulkhead().getActive()).isZero();
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private Future<?> waitFor(FairBulkhead bulkhead, String key, List<String> order) throws InterruptedException {
+		int queued = bulkhead.getQueued();
+		Future<?> future = executor.submit(() -> {
+			assertThat(bulkhead.acquire(key, TimeUnit.SECONDS.toNanos(5))).isTrue();
+			order.add(key);
+			Thread.sleep(20);
+			bulkhead.release();
+			return null;
+		});
+		while (bulkhead.getQueued() == queued) {
+			Thread.sleep(5);
+		}
+		return future;
+	}
+}
@@ -0,0 +1,82 @@
+package br.com.roselabs.lbot_datagen_backend.dedup;
+
+import br.com.roselabs.lbot_datagen_backend.dtos.DuplicateClusterDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.NearDuplicateDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NearDuplicateIndexTests {
+
+	@Test
+	void punctuationAccentsAndNumberFormattingDoNotChangeTheSignature() {
+		assertSameSignature("Ande 1,5 metros para frente!", "ande 1.50 metros para frente");
+		assertSameSignature("vire à direita", "Vire a DIREITA.");
+		assertThat(MinHasher.signature("ande 15 metros").getNumbers())
+				.isNotEqualTo(MinHasher.signature("ande 1,5 metros").getNumbers());
+		assertThat(MinHasher.signature(" ?! ")).isNull();
+	}
+
+	@Test
+	void differentDistancesAreNeverDuplicates() {
+		NearDuplicateIndex index = new NearDuplicateIndex(0.8, 512);
+		index.add(UUID.randomUUID(), "ande 100 cm para frente");
+
+		assertThat(index.findSimilar("ande 200 cm para frente", 10)).isEmpty();
+		assertThat(index.findSimilar("Ande 100,0 cm para frente.", 10)).hasSize(1);
+	}
+
+	@Test
+	void joinsNearDuplicatesToTheFirstMessage() {
+		NearDuplicateIndex index = new NearDuplicateIndex(0.8, 512);
+		UUID first = UUID.randomUUID();
+		UUID second = UUID.randomUUID();
+		UUID other = UUID.randomUUID();
+
+		assertThat(index.add(first, "ande 150 cm para frente e vire 90 graus à direita")).isTrue();
+		assertThat(index.add(second, "Ande 150 cm para frente, e vire 90 graus a direita.")).isTrue();
+		assertThat(index.add(other, "gire 180 graus para a esquerda e recue 20 cm")).isTrue();
+		assertThat(index.add(first, "ande 150 cm para frente")).isFalse();
+
+		assertThat(index.isDuplicate(first)).isFalse();
+		assertThat(index.isDuplicate(second)).isTrue();
+		assertThat(index.isDuplicate(other)).isFalse();
+		assertThat(index.duplicateCount()).isEqualTo(1);
+
+		List<NearDuplicateDto> similar = index.findSimilar("ande 150 cm para frente; vire 90 graus à direita", 10);
+		assertThat(similar).extracting(NearDuplicateDto::getMessageId).containsExactlyInAnyOrder(first, second);
+		assertThat(similar).extracting(NearDuplicateDto::getRepresentativeId).containsOnly(first);
+
+		List<DuplicateClusterDto> clusters = index.clusters(2, 10);
+		assertThat(clusters).hasSize(1);
+		assertThat(clusters.get(0).getRepresentativeId()).isEqualTo(first);
+		assertThat(clusters.get(0).getMessageIds()).containsExactly(first, second);
+	}
+
+	@Test
+	void keepsLookupsWorkingAcrossResizes() {
+		NearDuplicateIndex index = new NearDuplicateIndex(0.8, 512);
+		UUID[] ids = new UUID[5000];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = UUID.randomUUID();
+			index.add(ids[i], "ande " + i + " cm para frente e depois vire " + (i * 7 % 360) + " graus");
+		}
+
+		assertThat(index.size()).isEqualTo(ids.length);
+		assertThat(index.duplicateCount()).isZero();
+		assertThat(index.findSimilar("ande 4321 cm para frente e depois vire " + (4321 * 7 % 360) + " graus", 5))
+				.extracting(NearDuplicateDto::getMessageId)
+				.containsExactly(ids[4321]);
+		assertThat(index.add(ids[17], "qualquer coisa")).isFalse();
+	}
+
+	private static void assertSameSignature(String first, String second) {
+		PromptSignature expected = MinHasher.signature(first);
+		PromptSignature actual = MinHasher.signature(second);
+		assertThat(actual.getHashes()).isEqualTo(expected.getHashes());
+		assertThat(actual.getNumbers()).isEqualTo(expected.getNumbers());
+	}
+}
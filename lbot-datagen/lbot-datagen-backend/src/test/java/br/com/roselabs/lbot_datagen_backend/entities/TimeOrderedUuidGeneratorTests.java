@@ -0,0 +1,28 @@
+package br.com.roselabs.lbot_datagen_backend.entities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeOrderedUuidGeneratorTests {
+
+	@Test
+	void generatesVersionSevenIdsInCreationOrder() {
+		long before = System.currentTimeMillis();
+		UUID previous = TimeOrderedUuidGenerator.next();
+
+		assertThat(previous.version()).isEqualTo(7);
+		assertThat(previous.variant()).isEqualTo(2);
+		assertThat(previous.getMostSignificantBits() >>> 16).isGreaterThanOrEqualTo(before);
+
+		for (int i = 0; i < 100_000; i++) {
+			UUID next = TimeOrderedUuidGenerator.next();
+			// Postgres compares uuid bytes unsigned, which is what this checks.
+			assertThat(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()))
+					.isPositive();
+			previous = next;
+		}
+	}
+}
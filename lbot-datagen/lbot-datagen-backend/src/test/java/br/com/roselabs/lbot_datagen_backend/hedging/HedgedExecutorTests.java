@@ -0,0 +1,114 @@
+package br.com.roselabs.lbot_datagen_backend.hedging;
+
+import br.com.roselabs.lbot_datagen_backend.metrics.PipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HedgedExecutorTests {
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void hedgeAnswersWhenThePrimaryStalls() {
+		HedgedExecutor hedged = executor(1.0);
+		AtomicInteger calls = new AtomicInteger();
+
+		String result = hedged.call("gpt", () -> {
+			if (calls.incrementAndGet() == 1) {
+				sleep(2_000);
+				return "primary";
+			}
+			return "hedge";
+		});
+
+		assertThat(result).isEqualTo("hedge");
+		assertThat(calls).hasValue(2);
+		assertThat(registry.get("lbot.llm.hedges").tag("outcome", "hedge_won").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void budgetCapsExtraCalls() {
+		HedgedExecutor hedged = executor(0.0);
+
+		assertThat(hedged.tryAcquireExtraCall()).isTrue();
+		assertThat(hedged.tryAcquireExtraCall()).isFalse();
+
+		String result = hedged.call("gpt", () -> {
+			sleep(100);
+			return "primary";
+		});
+		assertThat(result).isEqualTo("primary");
+		assertThat(registry.get("lbot.llm.hedges").tag("outcome", "budget_exhausted").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void rejectedHedgeGivesTheBudgetBack() {
+		ExecutorService single = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new SynchronousQueue<>());
+		try {
+			HedgedExecutor hedged = new HedgedExecutor(single, new PipelineMetrics(registry), true, true, 95,
+					Duration.ofMillis(20), 0.0);
+
+			String result = hedged.call("gpt", () -> {
+				sleep(200);
+				return "primary";
+			});
+
+			assertThat(result).isEqualTo("primary");
+			assertThat(registry.get("lbot.llm.hedges").tag("outcome", "rejected").counter().count()).isEqualTo(1);
+			assertThat(hedged.tryAcquireExtraCall()).isTrue();
+		} finally {
+			single.shutdownNow();
+		}
+	}
+
+	@Test
+	void raceKeepsTheFirstSuccess() {
+		HedgedExecutor hedged = executor(1.0);
+
+		String result = hedged.race(List.of(
+				() -> {
+					throw new IllegalStateException("inválido");
+				},
+				() -> {
+					sleep(50);
+					return "lento";
+				}));
+		assertThat(result).isEqualTo("lento");
+
+		assertThatThrownBy(() -> hedged.race(List.of(() -> {
+			throw new IllegalStateException("inválido");
+		}))).isInstanceOf(IllegalStateException.class).hasMessage("inválido");
+	}
+
+	private HedgedExecutor executor(double budgetRatio) {
+		return new HedgedExecutor(executor, new PipelineMetrics(registry), true, true, 95,
+				Duration.ofMillis(20), budgetRatio);
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
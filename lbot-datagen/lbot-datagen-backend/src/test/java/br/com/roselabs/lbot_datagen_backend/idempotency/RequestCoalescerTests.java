@@ -0,0 +1,182 @@
+package br.com.roselabs.lbot_datagen_backend.idempotency;
+
+import br.com.roselabs.lbot_datagen_backend.metrics.PipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestCoalescerTests {
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final RequestCoalescer coalescer =
+			new RequestCoalescer(new PipelineMetrics(registry), Duration.ofMinutes(10), 100);
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void concurrentIdenticalRequestsShareOneExecution() throws Exception {
+		AtomicInteger executions = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+
+		List<Future<String>> results = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			results.add(executor.submit(() -> coalescer.execute(null, "chat\nande 2 metros", () -> {
+				executions.incrementAndGet();
+				await(release);
+				return "D200F;";
+			})));
+		}
+		waitUntilJoined(7);
+		release.countDown();
+
+		for (Future<String> result : results) {
+			assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("D200F;");
+		}
+		assertThat(executions).hasValue(1);
+	}
+
+	@Test
+	void failuresReachEveryWaiterAndAreNotReplayed() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		Future<String> owner = executor.submit(() -> coalescer.execute("key", "chat\nprompt", () -> {
+			await(release);
+			throw new IllegalStateException("boom");
+		}));
+		waitUntilExecuted();
+		Future<String> waiter = executor.submit(() -> coalescer.execute("key", "chat\nprompt", () -> "unused"));
+		waitUntilJoined(1);
+		release.countDown();
+
+		assertThatThrownBy(() -> owner.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(() -> waiter.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+		assertThat(coalescer.execute("key", "chat\nprompt", () -> "retried")).isEqualTo("retried");
+	}
+
+	@Test
+	void keyedResultsAreReplayedWithinTheWindow() {
+		AtomicInteger executions = new AtomicInteger();
+
+		String first = coalescer.execute("key", "chat\nprompt", () -> "D" + executions.incrementAndGet());
+		String retry = coalescer.execute("key", "chat\nprompt", () -> "D" + executions.incrementAndGet());
+		String unkeyed = coalescer.execute(null, "chat\nprompt", () -> "D" + executions.incrementAndGet());
+
+		assertThat(first).isEqualTo("D1");
+		assertThat(retry).isEqualTo("D1");
+		assertThat(unkeyed).isEqualTo("D2");
+		assertThat(registry.get("lbot.messages.coalescing").tag("outcome", "replayed").counter().count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	void expiredResultsAreExecutedAgain() {
+		RequestCoalescer expiring = new RequestCoalescer(new PipelineMetrics(registry), Duration.ZERO, 100);
+		AtomicInteger executions = new AtomicInteger();
+
+		expiring.execute("key", "chat\nprompt", executions::incrementAndGet);
+		sleep(5);
+		expiring.execute("key", "chat\nprompt", executions::incrementAndGet);
+
+		assertThat(executions).hasValue(2);
+	}
+
+	@Test
+	void reusingAKeyForAnotherPromptIsAConflict() {
+		coalescer.execute("key", "chat\nande 2 metros", () -> "D200F;");
+
+		assertThatThrownBy(() -> coalescer.execute("key", "chat\nande 3 metros", () -> "D300F;"))
+				.isInstanceOf(IdempotencyConflictException.class);
+	}
+
+	@Test
+	void reusingARunningKeyForAnotherPromptIsAConflict() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		Future<String> owner = executor.submit(() -> coalescer.execute("key", "chat\nande 2 metros", () -> {
+			await(release);
+			return "D200F;";
+		}));
+		waitUntilExecuted();
+
+		assertThatThrownBy(() -> coalescer.execute("key", "chat\nande 3 metros", () -> "D300F;"))
+				.isInstanceOf(IdempotencyConflictException.class);
+		release.countDown();
+		assertThat(owner.get(5, TimeUnit.SECONDS)).isEqualTo("D200F;");
+		assertThatThrownBy(() -> coalescer.execute("key", "chat\nande 3 metros", () -> "D300F;"))
+				.isInstanceOf(IdempotencyConflictException.class);
+	}
+
+	@Test
+	void keyedRequestThatJoinedIsReplayed() throws Exception {
+		AtomicInteger executions = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		Future<String> owner = executor.submit(() -> coalescer.execute(null, "chat\nprompt", () -> {
+			executions.incrementAndGet();
+			await(release);
+			return "D100F;";
+		}));
+		waitUntilExecuted();
+		Future<String> joiner = executor.submit(() -> coalescer.execute("key", "chat\nprompt", () -> "unused"));
+		waitUntilJoined(1);
+		release.countDown();
+		assertThat(owner.get(5, TimeUnit.SECONDS)).isEqualTo("D100F;");
+		assertThat(joiner.get(5, TimeUnit.SECONDS)).isEqualTo("D100F;");
+
+		assertThat(coalescer.execute("key", "chat\nprompt", () -> "D" + executions.incrementAndGet()))
+				.isEqualTo("D100F;");
+		assertThatThrownBy(() -> coalescer.execute("key", "chat\nanother", () -> "D300F;"))
+				.isInstanceOf(IdempotencyConflictException.class);
+		assertThat(executions).hasValue(1);
+	}
+
+	private void waitUntilJoined(int joined) throws InterruptedException {
+		waitUntil("joined", joined);
+	}
+
+	private void waitUntilExecuted() throws InterruptedException {
+		waitUntil("executed", 1);
+	}
+
+	private void waitUntil(String outcome, int count) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (System.nanoTime() < deadline) {
+			var counter = registry.find("lbot.messages.coalescing").tag("outcome", outcome).counter();
+			if (counter != null && counter.count() >= count) {
+				return;
+			}
+			Thread.sleep(5);
+		}
+		throw new AssertionError("timed out waiting for " + count + " " + outcome);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
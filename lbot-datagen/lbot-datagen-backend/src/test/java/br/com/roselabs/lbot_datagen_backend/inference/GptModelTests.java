@@ -0,0 +1,201 @@
+package br.com.roselabs.lbot_datagen_backend.inference;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class GptModelTests {
+
+	private static final GptConfig CONFIG = new GptConfig(8, 6, 2, 2, 8);
+
+	@Test
+	void incrementalDecodingMatchesFullRecompute() {
+		GptWeights weights = randomWeights(42);
+		GptModel.Session session = new GptModel(weights).newSession();
+		int[] tokens = {1, 4, 2, 0, 5, 3};
+
+		float[] prefill = session.append(Arrays.copyOf(tokens, 3)).clone();
+		assertThat(prefill).containsExactly(reference(weights, Arrays.copyOf(tokens, 3)), within(1e-4f));
+
+		for (int t = 3; t < tokens.length; t++) {
+			float[] logits = session.append(tokens[t]);
+			assertThat(logits).containsExactly(reference(weights, Arrays.copyOf(tokens, t + 1)), within(1e-4f));
+		}
+	}
+
+	@Test
+	void contextBeyondBlockSizeSlidesLikeTraining() {
+		GptWeights weights = randomWeights(7);
+		GptModel.Session session = new GptModel(weights).newSession();
+		int[] tokens = {1, 4, 2, 0, 5, 3, 3, 1, 2, 4, 0};
+
+		session.append(Arrays.copyOf(tokens, 6));
+		float[] logits = null;
+		for (int t = 6; t < tokens.length; t++) {
+			logits = session.append(tokens[t]);
+		}
+
+		assertThat(session.length()).isEqualTo(CONFIG.getBlockSize());
+		assertThat(logits).containsExactly(
+				reference(weights, Arrays.copyOfRange(tokens, tokens.length - CONFIG.getBlockSize(), tokens.length)),
+				within(1e-4f));
+	}
+
+	@Test
+	void loadsExportedWeights(@TempDir Path directory) throws IOException {
+		GptWeights weights = randomWeights(3);
+		Path file = directory.resolve("lbot.bin");
+		Files.write(file, export(weights));
+
+		GptWeights loaded = GptWeights.load(file);
+
+		assertThat(loaded.getTokenizer().encode("ab ->")).containsExactly(4, 5, 1, 2, 3);
+		int[] tokens = {0, 2, 5};
+		assertThat(new GptModel(loaded).newSession().append(tokens))
+				.containsExactly(new GptModel(weights).newSession().append(tokens), within(0f));
+	}
+
+	/**
+	 * Straightforward transcription of the PyTorch forward pass, recomputing attention over the whole sequence.
+	 */
+	private static float[] reference(GptWeights w, int[] tokens) {
+		int n = tokens.length;
+		int e = CONFIG.getEmbedding();
+		int hs = CONFIG.getHeadSize();
+		double[][] x = new double[n][e];
+		for (int t = 0; t < n; t++) {
+			for (int i = 0; i < e; i++) {
+				x[t][i] = w.getTokenEmbedding()[tokens[t] * e + i] + w.getPositionEmbedding()[t * e + i];
+			}
+		}
+		for (GptWeights.Layer layer : w.getLayers()) {
+			double[][] qkv = new double[n][];
+			for (int t = 0; t < n; t++) {
+				qkv[t] = linear(norm(x[t], layer.getNorm1Weight(), layer.getNorm1Bias()), layer.getAttentionWeight(),
+						layer.getAttentionBias());
+			}
+			for (int t = 0; t < n; t++) {
+				double[] y = new double[e];
+				for (int h = 0; h < CONFIG.getHeads(); h++) {
+					double[] att = new double[t + 1];
+					double sum = 0;
+					for (int p = 0; p <= t; p++) {
+						double score = 0;
+						for (int i = 0; i < hs; i++) {
+							score += qkv[t][h * hs + i] * qkv[p][e + h * hs + i];
+						}
+						att[p] = Math.exp(score / Math.sqrt(hs));
+						sum += att[p];
+					}
+					for (int p = 0; p <= t; p++) {
+						for (int i = 0; i < hs; i++) {
+							y[h * hs + i] += att[p] / sum * qkv[p][2 * e + h * hs + i];
+						}
+					}
+				}
+				add(x[t], linear(y, layer.getAttentionProjectionWeight(), layer.getAttentionProjectionBias()));
+			}
+			for (int t = 0; t < n; t++) {
+				double[] hidden = linear(norm(x[t], layer.getNorm2Weight(), layer.getNorm2Bias()), layer.getMlpWeight(),
+						layer.getMlpBias());
+				for (int i = 0; i < hidden.length; i++) {
+					hidden[i] = 0.5 * hidden[i] * (1 + GptModel.erf(hidden[i] / Math.sqrt(2)));
+				}
+				add(x[t], linear(hidden, layer.getMlpProjectionWeight(), layer.getMlpProjectionBias()));
+			}
+		}
+		double[] last = norm(x[n - 1], w.getFinalNormWeight(), w.getFinalNormBias());
+		double[] logits = linear(last, w.getTokenEmbedding(), new float[CONFIG.getVocabSize()]);
+		float[] result = new float[logits.length];
+		for (int i = 0; i < logits.length; i++) {
+			result[i] = (float) logits[i];
+		}
+		return result;
+	}
+
+	private static double[] linear(double[] in, float[] weight, float[] bias) {
+		double[] out = new double[bias.length];
+		for (int o = 0; o < out.length; o++) {
+			out[o] = bias[o];
+			for (int i = 0; i < in.length; i++) {
+				out[o] += weight[o * in.length + i] * in[i];
+			}
+		}
+		return out;
+	}
+
+	private static double[] norm(double[] in, float[] weight, float[] bias) {
+		double mean = Arrays.stream(in).average().orElse(0);
+		double variance = Arrays.stream(in).map(v -> (v - mean) * (v - mean)).average().orElse(0);
+		double[] out = new double[in.length];
+		for (int i = 0; i < in.length; i++) {
+			out[i] = (in[i] - mean) / Math.sqrt(variance + 1e-5) * weight[i] + bias[i];
+		}
+		return out;
+	}
+
+	private static void add(double[] target, double[] delta) {
+		for (int i = 0; i < target.length; i++) {
+			target[i] += delta[i];
+		}
+	}
+
+	private static GptWeights randomWeights(long seed) {
+		Random random = new Random(seed);
+		int e = CONFIG.getEmbedding();
+		GptWeights.Layer[] layers = new GptWeights.Layer[CONFIG.getLayers()];
+		for (int i = 0; i < layers.length; i++) {
+			layers[i] = new GptWeights.Layer(random(random, e), random(random, e), random(random, 3 * e * e),
+					random(random, 3 * e), random(random, e * e), random(random, e), random(random, e),
+					random(random, e), random(random, 4 * e * e), random(random, 4 * e), random(random, 4 * e * e),
+					random(random, e));
+		}
+		return new GptWeights(CONFIG, new CharTokenizer("\n ->ab".codePoints().sorted().toArray()),
+				random(random, CONFIG.getVocabSize() * e), random(random, CONFIG.getBlockSize() * e), layers,
+				random(random, e), random(random, e));
+	}
+
+	private static float[] random(Random random, int length) {
+		float[] values = new float[length];
+		for (int i = 0; i < length; i++) {
+			values[i] = (float) (random.nextGaussian() * 0.5);
+		}
+		return values;
+	}
+
+	private static byte[] export(GptWeights w) {
+		ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(GptWeights.MAGIC).putInt(CONFIG.getBlockSize()).putInt(CONFIG.getVocabSize())
+				.putInt(CONFIG.getLayers()).putInt(CONFIG.getHeads()).putInt(CONFIG.getEmbedding());
+		for (int token = 0; token < CONFIG.getVocabSize(); token++) {
+			buffer.putInt(w.getTokenizer().decode(token).codePointAt(0));
+		}
+		put(buffer, w.getTokenEmbedding(), w.getPositionEmbedding());
+		for (GptWeights.Layer l : w.getLayers()) {
+			put(buffer, l.getNorm1Weight(), l.getNorm1Bias(), l.getAttentionWeight(), l.getAttentionBias(),
+					l.getAttentionProjectionWeight(), l.getAttentionProjectionBias(), l.getNorm2Weight(),
+					l.getNorm2Bias(), l.getMlpWeight(), l.getMlpBias(), l.getMlpProjectionWeight(),
+					l.getMlpProjectionBias());
+		}
+		put(buffer, w.getFinalNormWeight(), w.getFinalNormBias());
+		return Arrays.copyOf(buffer.array(), buffer.position());
+	}
+
+	private static void put(ByteBuffer buffer, float[]... tensors) {
+		for (float[] tensor : tensors) {
+			for (float value : tensor) {
+				buffer.putFloat(value);
+			}
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package br.com.roselabs.lbot_datagen_backend.jobs;
+
+import br.com.roselabs.lbot_datagen_backend.dtos.MessageDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.MessageJobDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.SendMessageDto;
+import br.com.roselabs.lbot_datagen_backend.entities.Chat;
+import br.com.roselabs.lbot_datagen_backend.lbml.LbmlStreamListener;
+import br.com.roselabs.lbot_datagen_backend.services.ChatService;
+import br.com.roselabs.lbot_datagen_backend.services.MessageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessageJobServiceTests {
+
+	private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void completedSubscriberDoesNotFailTheJob() throws InterruptedException {
+		CountDownLatch subscribed = new CountDownLatch(1);
+		StreamingMessageService messageService = new StreamingMessageService(subscribed);
+		MessageJobService jobs = new MessageJobService(messageService, new AnyChatService(), executor,
+				Duration.ofHours(1), Duration.ofMinutes(5));
+		SendMessageDto request = new SendMessageDto();
+		request.setChatId(UUID.randomUUID());
+
+		MessageJobDto job = jobs.submit(request);
+		SseEmitter emitter = jobs.subscribe(job.getJobId()).orElseThrow();
+		// Completed (or timed out) before its completion callback ran, so it is still subscribed.
+		emitter.complete();
+		subscribed.countDown();
+
+		for (int i = 0; i < 500 && !isFinished(jobs, job.getJobId()); i++) {
+			Thread.sleep(10);
+		}
+
+		assertThat(jobs.findById(job.getJobId()).orElseThrow().getStatus()).isEqualTo(JobStatus.COMPLETED);
+		assertThat(messageService.commandsSent).isEqualTo(2);
+	}
+
+	private static boolean isFinished(MessageJobService jobs, UUID jobId) {
+		JobStatus status = jobs.findById(jobId).orElseThrow().getStatus();
+		return status == JobStatus.COMPLETED || status == JobStatus.FAILED;
+	}
+
+	private static final class StreamingMessageService extends MessageService {
+
+		private final CountDownLatch subscribed;
+		private volatile int commandsSent;
+
+		StreamingMessageService(CountDownLatch subscribed) {
+			super(null, null, null, null, null);
+			this.subscribed = subscribed;
+		}
+
+		@Override
+		public MessageDto sendMessage(SendMessageDto sendMessageDto, LbmlStreamListener listener) {
+			try {
+				subscribed.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			listener.onCommand("D10F;");
+			commandsSent++;
+			listener.onCommand("R90L;");
+			commandsSent++;
+			return new MessageDto();
+		}
+	}
+
+	private static final class AnyChatService extends ChatService {
+
+		AnyChatService() {
+			super(null);
+		}
+
+		@Override
+		public Optional<Chat> findById(UUID id) {
+			return Optional.of(new Chat());
+		}
+	}
+}
@@ -0,0 +1,21 @@
+package br.com.roselabs.lbot_datagen_backend.lbml;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LbmlFailureReasonTests {
+
+	@Test
+	void classifiesCommonModelMistakes() {
+		assertThat(LbmlFailureReason.classify("D40F;R90L;")).isNull();
+		assertThat(LbmlFailureReason.classify("  ")).isEqualTo(LbmlFailureReason.EMPTY);
+		assertThat(LbmlFailureReason.classify("```D40F;```")).isEqualTo(LbmlFailureReason.MARKDOWN_FENCE);
+		assertThat(LbmlFailureReason.classify("d40f;r90l;")).isEqualTo(LbmlFailureReason.LOWERCASE);
+		assertThat(LbmlFailureReason.classify("D40F;R90L")).isEqualTo(LbmlFailureReason.MISSING_SEMICOLON);
+		assertThat(LbmlFailureReason.classify("D40.5F;")).isEqualTo(LbmlFailureReason.DECIMAL);
+		assertThat(LbmlFailureReason.classify("Claro! D40F;")).isEqualTo(LbmlFailureReason.SURROUNDING_TEXT);
+		assertThat(LbmlFailureReason.classify("R90F;")).isEqualTo(LbmlFailureReason.INVALID_DIRECTION);
+		assertThat(LbmlFailureReason.classify("D40")).isEqualTo(LbmlFailureReason.INCOMPLETE);
+	}
+}
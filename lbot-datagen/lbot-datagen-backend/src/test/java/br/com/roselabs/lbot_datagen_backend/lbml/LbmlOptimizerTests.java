@@ -0,0 +1,77 @@
+package br.com.roselabs.lbot_datagen_backend.lbml;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LbmlOptimizerTests {
+
+	@Test
+	void shortensRedundantSequences() {
+		assertThat(LbmlOptimizer.optimize("D10F;D20F;")).isEqualTo("D30F;");
+		assertThat(LbmlOptimizer.optimize("D10F;D30B;")).isEqualTo("D20B;");
+		assertThat(LbmlOptimizer.optimize("D10F;R90L;R90R;D5F;")).isEqualTo("D15F;");
+		assertThat(LbmlOptimizer.optimize("R450R;")).isEqualTo("R90R;");
+		assertThat(LbmlOptimizer.optimize("R270R;")).isEqualTo("R90L;");
+		assertThat(LbmlOptimizer.optimize("D0F;R0L;D20F;")).isEqualTo("D20F;");
+		assertThat(LbmlOptimizer.optimize("R90L;D20F;")).isEqualTo("D20L;");
+		assertThat(LbmlOptimizer.optimize("D20L;R90R;R90L;R90R;")).isEqualTo("D20L;R90R;");
+	}
+
+	@Test
+	void keepsTheTurnOfZeroLengthSideMoves() {
+		assertThat(LbmlOptimizer.optimize("D0L;")).isEqualTo("R90L;");
+		assertThat(LbmlOptimizer.optimize("D10L;D10R;")).isEqualTo("D10L;D10R;");
+		assertThat(LbmlOptimizer.optimize("R180R;R180R;")).isNull();
+	}
+
+	@Test
+	void preservesTheFinalPose() {
+		Random random = new Random(18);
+		String[] directions = {"F", "B", "L", "R"};
+		for (int run = 0; run < 500; run++) {
+			StringBuilder program = new StringBuilder();
+			for (int i = 0, n = 1 + random.nextInt(8); i < n; i++) {
+				if (random.nextBoolean()) {
+					program.append('R').append(90 * random.nextInt(9)).append(random.nextBoolean() ? "L;" : "R;");
+				} else {
+					program.append('D').append(random.nextInt(4) * 10).append(directions[random.nextInt(4)]).append(';');
+				}
+			}
+
+			long[] original = LbmlParser.parse(program);
+			long[] optimized = LbmlOptimizer.optimize(original);
+
+			assertThat(optimized.length).isLessThanOrEqualTo(original.length);
+			assertThat(pose(optimized)).as(program.toString()).containsExactly(pose(original), within(1e-6));
+		}
+	}
+
+	/**
+	 * x, y and heading (degrees, left positive) after running the program the way the Enki controller does.
+	 */
+	private static double[] pose(long[] commands) {
+		double x = 0;
+		double y = 0;
+		long heading = 0;
+		for (long command : commands) {
+			int magnitude = LbmlParser.magnitude(command);
+			int direction = LbmlParser.direction(command);
+			double distance = 0;
+			if (LbmlParser.opcode(command) == LbmlParser.ROTATION) {
+				heading += direction == LbmlParser.LEFT ? magnitude : -magnitude;
+			} else if (direction == LbmlParser.LEFT || direction == LbmlParser.RIGHT) {
+				heading += direction == LbmlParser.LEFT ? 90 : -90;
+				distance = magnitude;
+			} else {
+				distance = direction == LbmlParser.FORWARD ? magnitude : -magnitude;
+			}
+			x += distance * Math.cos(Math.toRadians(heading));
+			y += distance * Math.sin(Math.toRadians(heading));
+		}
+		return new double[]{x, y, Math.floorMod(heading, 360)};
+	}
+}
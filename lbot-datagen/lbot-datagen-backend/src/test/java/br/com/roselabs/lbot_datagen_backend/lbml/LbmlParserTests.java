@@ -0,0 +1,43 @@
+package br.com.roselabs.lbot_datagen_backend.lbml;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LbmlParserTests {
+
+	@Test
+	void decodesCommandsIntoPrimitiveEncoding() {
+		long[] commands = new long[4];
+		int count = LbmlParser.parse("D40F;R90L;D20B;", commands);
+
+		assertThat(count).isEqualTo(3);
+		assertThat(LbmlParser.opcode(commands[0])).isEqualTo(LbmlParser.DISPLACEMENT);
+		assertThat(LbmlParser.direction(commands[0])).isEqualTo(LbmlParser.FORWARD);
+		assertThat(LbmlParser.magnitude(commands[0])).isEqualTo(40);
+		assertThat(LbmlParser.opcode(commands[1])).isEqualTo(LbmlParser.ROTATION);
+		assertThat(LbmlParser.direction(commands[1])).isEqualTo(LbmlParser.LEFT);
+		assertThat(LbmlParser.magnitude(commands[2])).isEqualTo(20);
+	}
+
+	@Test
+	void roundTripsToCanonicalForm() {
+		assertThat(LbmlParser.canonicalize(" D040F;\nR90R; ")).isEqualTo("D40F;R90R;");
+		assertThat(LbmlParser.toLbml(LbmlParser.parse("D10L;R360R;"))).isEqualTo("D10L;R360R;");
+	}
+
+	@Test
+	void reportsErrorOffsets() {
+		assertThat(LbmlParser.errorOffset("D40F;R90L;")).isEqualTo(-1);
+		assertThat(LbmlParser.errorOffset("R90F;")).isEqualTo(3);
+		assertThat(LbmlParser.errorOffset("Claro! D40F;")).isEqualTo(0);
+		assertThat(LbmlParser.errorOffset("D40F")).isEqualTo(4);
+		assertThat(LbmlParser.errorOffset("")).isEqualTo(0);
+		assertThat(LbmlParser.errorOffset("D40.5F;")).isEqualTo(3);
+
+		assertThatThrownBy(() -> LbmlParser.parse("D10F;RxL;"))
+				.isInstanceOf(LbmlSyntaxException.class)
+				.hasFieldOrPropertyWithValue("offset", 6);
+	}
+}
@@ -0,0 +1,56 @@
+package br.com.roselabs.lbot_datagen_backend.lbml;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LbmlRepairEngineTests {
+
+	@Test
+	void repairsKnownModelMistakes() {
+		assertRepaired("d40f;r90l;", "D40F;R90L;", LbmlRepairKind.UPPERCASED);
+		assertRepaired("D40F;R90L", "D40F;R90L;", LbmlRepairKind.ADDED_SEMICOLON);
+		assertRepaired("D40.5F;D10,2B;", "D41F;D10B;", LbmlRepairKind.ROUNDED_DECIMAL);
+		assertRepaired("```lbml\nD40F;\n```", "D40F;", LbmlRepairKind.STRIPPED_FENCE);
+		assertRepaired("Claro! Aqui está: D40F; R90L; Boa sorte.", "D40F;R90L;", LbmlRepairKind.REMOVED_TEXT);
+	}
+
+	@Test
+	void combinesRepairsAndRecordsEachOne() {
+		LbmlRepairResult result = LbmlRepairEngine.repair("```\nd40.5f r90l\n```");
+
+		assertThat(result.getLbml()).isEqualTo("D41F;R90L;");
+		assertThat(result.getRepairs()).containsExactlyInAnyOrder(LbmlRepairKind.STRIPPED_FENCE,
+				LbmlRepairKind.UPPERCASED, LbmlRepairKind.ROUNDED_DECIMAL, LbmlRepairKind.ADDED_SEMICOLON);
+		assertThat(result.describe()).isEqualTo("STRIPPED_FENCE,UPPERCASED,ADDED_SEMICOLON,ROUNDED_DECIMAL");
+	}
+
+	@Test
+	void leavesUnrecoverableOutputForARetry() {
+		assertThat(LbmlRepairEngine.repair("Não entendi o comando.")).isNull();
+		assertThat(LbmlRepairEngine.repair("R90F;")).isNull();
+		assertThat(LbmlRepairEngine.repair("Para 2 metros")).isNull();
+		assertThat(LbmlRepairEngine.repair("D40F;").isRepaired()).isFalse();
+	}
+
+	@Test
+	void refusalQuotingTheHintExampleIsNotRepaired() {
+		assertThat(LbmlRepairEngine.repair("Não consigo converter esse pedido. Um exemplo válido seria "
+				+ LbmlRepairEngine.HINT_EXAMPLE)).isNull();
+		assertThat(LbmlRepairEngine.repair("Como no exemplo D40F;R90L;D20B;, aqui está: D10F;")).isNull();
+		assertThat(LbmlRepairEngine.repair("```\nD40F;R90L;D20B;\n```").getLbml()).isEqualTo("D40F;R90L;D20B;");
+	}
+
+	@Test
+	void onlyTheFirstRunOfCommandsIsExtracted() {
+		assertRepaired("Aqui está: D10F; R90L; Por exemplo, D20B; também funcionaria.", "D10F;R90L;",
+				LbmlRepairKind.REMOVED_TEXT);
+	}
+
+	private void assertRepaired(String input, String expected, LbmlRepairKind kind) {
+		LbmlRepairResult result = LbmlRepairEngine.repair(input);
+		assertThat(result).isNotNull();
+		assertThat(result.getLbml()).isEqualTo(expected);
+		assertThat(result.getRepairs()).containsExactly(kind);
+	}
+}
@@ -0,0 +1,97 @@
+package br.com.roselabs.lbot_datagen_backend.lbml;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LbmlStreamValidatorTests {
+
+	@Test
+	void commandSplitAcrossChunksIsEmittedOnceComplete() {
+		LbmlStreamValidator validator = new LbmlStreamValidator();
+
+		assertThat(feed(validator, "D1")).isEmpty();
+		assertThat(feed(validator, "0F;")).containsExactly("D10F;");
+		assertThat(feed(validator, "R9")).isEmpty();
+		assertThat(feed(validator, "0")).isEmpty();
+		assertThat(feed(validator, "L")).isEmpty();
+		assertThat(feed(validator, ";")).containsExactly("R90L;");
+
+		assertThat(validator.isComplete()).isTrue();
+		assertThat(validator.getCommands()).isEqualTo(2);
+		assertThat(validator.getText()).isEqualTo("D10F;R90L;");
+	}
+
+	@Test
+	void whitespaceBetweenChunksIsIgnored() {
+		LbmlStreamValidator validator = new LbmlStreamValidator();
+
+		List<String> commands = new ArrayList<>();
+		commands.addAll(feed(validator, "D40F;\n"));
+		commands.addAll(feed(validator, " R90"));
+		commands.addAll(feed(validator, "L; D20B;"));
+
+		assertThat(commands).containsExactly("D40F;", "R90L;", "D20B;");
+		assertThat(validator.getText()).isEqualTo("D40F;R90L;D20B;");
+	}
+
+	@Test
+	void incompleteCommandIsNotComplete() {
+		LbmlStreamValidator validator = new LbmlStreamValidator();
+
+		assertThat(feed(validator, "D10F;D2")).containsExactly("D10F;");
+
+		assertThat(validator.isComplete()).isFalse();
+		assertThat(validator.getErrorOffset()).isEqualTo(-1);
+	}
+
+	@Test
+	void invalidPrefixFailsOnTheFirstCharacterAndStaysFailed() {
+		LbmlStreamValidator validator = new LbmlStreamValidator();
+
+		assertThat(validator.accept('C')).isEqualTo(LbmlStreamValidator.Step.INVALID);
+		assertThat(validator.getErrorOffset()).isEqualTo(0);
+		for (char c : "laro! D40F;".toCharArray()) {
+			assertThat(validator.accept(c)).isEqualTo(LbmlStreamValidator.Step.INVALID);
+		}
+		assertThat(validator.getCommands()).isZero();
+		assertThat(validator.getText()).isEqualTo("C");
+	}
+
+	@Test
+	void rotationWithDisplacementDirectionIsAnUnrepairableFailure() {
+		LbmlStreamValidator validator = new LbmlStreamValidator();
+
+		assertThat(feed(validator, "D10F;R9")).containsExactly("D10F;");
+		assertThat(validator.accept('0')).isEqualTo(LbmlStreamValidator.Step.CONTINUE);
+		assertThat(validator.accept('F')).isEqualTo(LbmlStreamValidator.Step.INVALID);
+
+		assertThat(validator.getErrorOffset()).isEqualTo(8);
+		assertThat(LbmlFailureReason.classify(validator.getText())).isEqualTo(LbmlFailureReason.INVALID_DIRECTION);
+		assertThat(validator.isWrongDirection()).isTrue();
+	}
+
+	@Test
+	void lowercaseDirectionFailsButIsNotAWrongDirection() {
+		LbmlStreamValidator validator = new LbmlStreamValidator();
+
+		assertThat(feed(validator, "D40")).isEmpty();
+		assertThat(validator.accept('f')).isEqualTo(LbmlStreamValidator.Step.INVALID);
+
+		assertThat(validator.getErrorOffset()).isEqualTo(3);
+		assertThat(validator.isWrongDirection()).isFalse();
+	}
+
+	private static List<String> feed(LbmlStreamValidator validator, String chunk) {
+		List<String> commands = new ArrayList<>();
+		for (int i = 0; i < chunk.length(); i++) {
+			if (validator.accept(chunk.charAt(i)) == LbmlStreamValidator.Step.COMMAND) {
+				commands.add(validator.lastCommand());
+			}
+		}
+		return commands;
+	}
+}
@@ -0,0 +1,54 @@
+package br.com.roselabs.lbot_datagen_backend.normalization;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalUnitNormalizerTests {
+
+	private final LocalUnitNormalizer normalizer = new LocalUnitNormalizer();
+
+	@Test
+	void convertsDigitsAndAbbreviations() {
+		assertThat(normalizer.normalize("Avance 2 metros e depois suba 1 andar."))
+				.contains("Avance 200 cm e depois suba 300 cm.");
+		assertThat(normalizer.normalize("Desloque 3 ft para frente e mais 4 palmos à esquerda."))
+				.contains("Desloque 91.44 cm para frente e mais 80 cm à esquerda.");
+		assertThat(normalizer.normalize("Salte 5 passos e depois desça 1,5 m."))
+				.contains("Salte 375 cm e depois desça 150 cm.");
+		assertThat(normalizer.normalize("ande 2m")).contains("ande 200 cm");
+	}
+
+	@Test
+	void convertsPortugueseNumerals() {
+		assertThat(normalizer.normalize("ande três metros e meio para frente"))
+				.contains("ande 350 cm para frente");
+		assertThat(normalizer.normalize("ande meio metro")).contains("ande 50 cm");
+		assertThat(normalizer.normalize("vá vinte e cinco milímetros para trás"))
+				.contains("vá 2.5 cm para trás");
+		assertThat(normalizer.normalize("dois e meio metros à direita"))
+				.contains("250 cm à direita");
+	}
+
+	@Test
+	void keepsTextWithoutMeasuresUntouched() {
+		assertThat(normalizer.normalize("gire 90 graus à direita")).contains("gire 90 graus à direita");
+		assertThat(normalizer.normalize("ande 30 cm e gire meia volta"))
+				.contains("ande 30 cm e gire meia volta");
+		assertThat(normalizer.normalize("andar para frente 1 metro e girar 90 graus"))
+				.contains("andar para frente 100 cm e girar 90 graus");
+	}
+
+	@Test
+	void fallsBackOnAmbiguousMeasures() {
+		assertThat(normalizer.normalize("ande alguns metros")).isEqualTo(Optional.empty());
+		assertThat(normalizer.normalize("ande um metro e vinte")).isEqualTo(Optional.empty());
+		assertThat(normalizer.normalize("ande 2 léguas")).isEqualTo(Optional.empty());
+		assertThat(normalizer.normalize("ande 1.000,5 metros")).isEqualTo(Optional.empty());
+		assertThat(normalizer.normalize("ande 1.000 metros")).isEqualTo(Optional.empty());
+		assertThat(normalizer.normalize("ande 2.500 cm")).isEqualTo(Optional.empty());
+		assertThat(normalizer.normalize("ande 1.5 metros")).contains("ande 150 cm");
+	}
+}
@@ -0,0 +1,91 @@
+package br.com.roselabs.lbot_datagen_backend.repositories;
+
+import br.com.roselabs.lbot_datagen_backend.entities.Chat;
+import br.com.roselabs.lbot_datagen_backend.entities.Message;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The grading updates are PostgreSQL-specific ({@code unnest} over array parameters), so they run against a real
+ * server migrated by Flyway.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class MessageRepositoryTests {
+
+	@Container
+	@ServiceConnection
+	static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	@Autowired
+	private MessageRepository messageRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Test
+	void updateGradesReturnsOnlyTheIdsThatExist() {
+		Chat chat = entityManager.persist(Chat.builder().build());
+		Message first = entityManager.persist(message(chat, "D10F;"));
+		Message second = entityManager.persist(message(chat, "R90L;"));
+		Message untouched = entityManager.persist(message(chat, "D5B;"));
+		UUID missing = UUID.randomUUID();
+		entityManager.flush();
+
+		Set<UUID> updated = messageRepository.updateGrades(
+				new UUID[]{first.getId(), missing, second.getId()}, new Integer[]{3, 4, 5});
+		entityManager.clear();
+
+		assertThat(updated).containsExactlyInAnyOrder(first.getId(), second.getId());
+		assertThat(messageRepository.findById(first.getId()).orElseThrow().getGrade()).isEqualTo(3);
+		assertThat(messageRepository.findById(second.getId()).orElseThrow().getGrade()).isEqualTo(5);
+		assertThat(messageRepository.findById(untouched.getId()).orElseThrow().getGrade()).isNull();
+	}
+
+	@Test
+	void updateGradesWithOnlyMissingIdsUpdatesNothing() {
+		Set<UUID> updated = messageRepository.updateGrades(
+				new UUID[]{UUID.randomUUID(), UUID.randomUUID()}, new Integer[]{1, 2});
+
+		assertThat(updated).isEmpty();
+	}
+
+	@Test
+	void updateGradeByChatAndOutputOnlyTouchesThatChat() {
+		Chat chat = entityManager.persist(Chat.builder().build());
+		Chat otherChat = entityManager.persist(Chat.builder().build());
+		Message first = entityManager.persist(message(chat, "D10F;"));
+		Message second = entityManager.persist(message(chat, "D10F;"));
+		Message differentOutput = entityManager.persist(message(chat, "D20F;"));
+		Message otherChatMessage = entityManager.persist(message(otherChat, "D10F;"));
+		entityManager.flush();
+
+		int updated = messageRepository.updateGradeByChatAndOutput(chat.getId(), "D10F;", 4);
+		int none = messageRepository.updateGradeByChatAndOutput(UUID.randomUUID(), "D10F;", 4);
+		entityManager.clear();
+
+		assertThat(updated).isEqualTo(2);
+		assertThat(none).isZero();
+		assertThat(messageRepository.findById(first.getId()).orElseThrow().getGrade()).isEqualTo(4);
+		assertThat(messageRepository.findById(second.getId()).orElseThrow().getGrade()).isEqualTo(4);
+		assertThat(messageRepository.findById(differentOutput.getId()).orElseThrow().getGrade()).isNull();
+		assertThat(messageRepository.findById(otherChatMessage.getId()).orElseThrow().getGrade()).isNull();
+	}
+
+	private static Message message(Chat chat, String output) {
+		return Message.builder().chat(chat).prompt("ande").output(output).build();
+	}
+}
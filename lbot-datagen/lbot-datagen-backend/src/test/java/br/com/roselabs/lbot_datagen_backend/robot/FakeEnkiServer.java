@@ -0,0 +1,165 @@
+package br.com.roselabs.lbot_datagen_backend.robot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal stand-in for {@code enkiSocketControl.cpp}: greets, splits whatever it reads on {@code ;},
+ * runs movements one at a time and reports them with the controller's wording. Like the controller it only
+ * answers {@code status} when that is the whole read; merged with movements it is parsed as a bad movement.
+ */
+class FakeEnkiServer implements AutoCloseable {
+
+	private final ServerSocket serverSocket;
+	private final long stepMillis;
+	private final Set<String> failing = new HashSet<>();
+	private final Deque<String> queue = new ArrayDeque<>();
+	private final AtomicInteger connections = new AtomicInteger();
+	private final AtomicInteger statusReplies = new AtomicInteger();
+	private final AtomicInteger misparsedStatus = new AtomicInteger();
+	private volatile Socket client;
+	private volatile boolean running = true;
+
+	FakeEnkiServer(int port, long stepMillis) throws IOException {
+		this.serverSocket = new ServerSocket(port, 1, InetAddress.getLoopbackAddress());
+		this.stepMillis = stepMillis;
+		Thread acceptor = new Thread(this::acceptLoop, "fake-enki");
+		acceptor.setDaemon(true);
+		acceptor.start();
+	}
+
+	int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	int getConnectionCount() {
+		return connections.get();
+	}
+
+	int getStatusReplies() {
+		return statusReplies.get();
+	}
+
+	int getMisparsedStatusCount() {
+		return misparsedStatus.get();
+	}
+
+	void failOn(String command) {
+		failing.add(command);
+	}
+
+	void dropClient() throws IOException {
+		Socket socket = client;
+		if (socket != null) {
+			socket.close();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		running = false;
+		dropClient();
+		serverSocket.close();
+	}
+
+	private void acceptLoop() {
+		while (running) {
+			try (Socket socket = serverSocket.accept()) {
+				client = socket;
+				connections.incrementAndGet();
+				synchronized (queue) {
+					queue.clear();
+				}
+				send("HELLO: Connected to Enki Robot Controller");
+				send("COMMANDS: Use format XF;YB;ZL;WR (e.g., 10F;5R) or stop, status, quit");
+
+				Thread executor = new Thread(() -> executeLoop(socket), "fake-enki-exec");
+				executor.setDaemon(true);
+				executor.start();
+
+				InputStream in = socket.getInputStream();
+				byte[] buffer = new byte[1024];
+				int read;
+				while ((read = in.read(buffer)) > 0) {
+					String data = new String(buffer, 0, read, StandardCharsets.US_ASCII).trim();
+					if (data.equals("status")) {
+						statusReplies.incrementAndGet();
+						send("STATUS: pos=(0.00,0.00) angle=0.00 left_speed=0.00 right_speed=0.00");
+						continue;
+					}
+					synchronized (queue) {
+						boolean busy = !queue.isEmpty();
+						int added = 0;
+						for (String movement : data.split(";")) {
+							if (!movement.isBlank()) {
+								queue.add(movement.trim());
+								added++;
+							}
+						}
+						if (busy) {
+							send("INFO: Added " + added + " commands to queue");
+						}
+						queue.notifyAll();
+					}
+				}
+			} catch (IOException e) {
+				// client dropped or server closed
+			}
+		}
+	}
+
+	private void executeLoop(Socket socket) {
+		try {
+			while (!socket.isClosed()) {
+				String movement;
+				synchronized (queue) {
+					while (queue.isEmpty() && !socket.isClosed()) {
+						queue.wait(50);
+					}
+					movement = queue.peekFirst();
+				}
+				if (movement == null) {
+					return;
+				}
+				if (movement.equals("status")) {
+					misparsedStatus.incrementAndGet();
+					send("ERROR: Invalid distance in movement: status");
+				} else if (failing.contains(movement)) {
+					send("ERROR: Invalid movement format: " + movement);
+				} else {
+					send("OK: Moving forward for " + movement + " units");
+					Thread.sleep(stepMillis);
+					send("OK: Completed forward movement of " + movement + " units");
+				}
+				synchronized (queue) {
+					queue.pollFirst();
+					if (queue.isEmpty()) {
+						send("OK: All commands completed");
+					}
+				}
+			}
+		} catch (InterruptedException | IOException e) {
+			// connection gone
+		}
+	}
+
+	private synchronized void send(String line) throws IOException {
+		Socket socket = client;
+		if (socket == null || socket.isClosed()) {
+			return;
+		}
+		OutputStream out = socket.getOutputStream();
+		out.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+		out.flush();
+	}
+}
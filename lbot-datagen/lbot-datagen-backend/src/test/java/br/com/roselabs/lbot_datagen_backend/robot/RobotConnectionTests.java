@@ -0,0 +1,135 @@
+package br.com.roselabs.lbot_datagen_backend.robot;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.channels.Selector;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RobotConnectionTests {
+
+	private ServerSocket serverSocket;
+	private Selector selector;
+	private Socket controller;
+	private RobotConnection connection;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+		selector = Selector.open();
+		connection = new RobotConnection(RobotEndpoint.parse("sim=127.0.0.1:" + serverSocket.getLocalPort()),
+				20, 200, null);
+		connection.connect(selector);
+		controller = serverSocket.accept();
+		controller.setSoTimeout(200);
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!connection.isConnected() && System.currentTimeMillis() < deadline) {
+			selector.select(50);
+			connection.finishConnect();
+		}
+		assertThat(connection.isConnected()).isTrue();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		connection.shutdown();
+		controller.close();
+		serverSocket.close();
+		selector.close();
+	}
+
+	@Test
+	void statusIsOnlyRequestedOnAnIdleLinkAndMovementsWaitForItsReply() throws Exception {
+		RobotExecution first = execution("D10F;");
+		assertThat(connection.enqueue(first)).isTrue();
+		connection.write();
+		assertThat(received()).isEqualTo("D10F;");
+		assertThat(connection.enqueueStatusRequest()).isFalse();
+
+		reply("OK: Moving forward for 10 units", "OK: Completed forward movement of 10 units",
+				"OK: All commands completed");
+		awaitRead(() -> first.getCompletion().isDone());
+		assertThat(connection.enqueueStatusRequest()).isTrue();
+		assertThat(connection.enqueueStatusRequest()).isFalse();
+		connection.write();
+		assertThat(received()).isEqualTo("status");
+
+		RobotExecution second = execution("D5B;");
+		assertThat(connection.enqueue(second)).isTrue();
+		assertThat(connection.hasPendingWrites()).isFalse();
+		connection.write();
+		assertThat(received()).isEmpty();
+
+		reply("STATUS: pos=(10.00,0.00) angle=0.00 left_speed=0.00 right_speed=0.00");
+		awaitRead(connection::hasPendingWrites);
+		connection.write();
+		assertThat(received()).isEqualTo("D5B;");
+
+		reply("OK: Moving backward for 5 units", "OK: Completed backward movement of 5 units");
+		awaitRead(() -> second.getCompletion().isDone());
+		assertThat(second.getCommands().get(0).getCompletion().join()).contains("backward movement of 5");
+	}
+
+	@Test
+	void aStatusParsedAsAMovementDoesNotFailTheHeadCommand() throws Exception {
+		RobotExecution execution = execution("D10F;", "D5B;");
+		connection.enqueue(execution);
+		connection.write();
+		assertThat(received()).isEqualTo("D10F;D5B;");
+
+		reply("OK: Moving forward for 10 units",
+				"ERROR: Invalid distance in movement: status",
+				"OK: Completed forward movement of 10 units",
+				"OK: Moving backward for 5 units",
+				"OK: Completed backward movement of 5 units");
+		awaitRead(() -> execution.getCompletion().isDone());
+
+		assertThat(execution.getCompletion()).isCompleted();
+		assertThat(execution.getCommands().get(0).getCompletion().join()).contains("forward movement of 10");
+		assertThat(execution.getCommands().get(1).getCompletion().join()).contains("backward movement of 5");
+		assertThat(connection.getInFlightCount()).isZero();
+	}
+
+	private RobotExecution execution(String... commands) {
+		return new RobotExecution(connection.getEndpoint(), List.of(commands).stream().map(RobotCommand::new).toList());
+	}
+
+	private void reply(String... lines) throws IOException {
+		controller.getOutputStream().write((String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+		controller.getOutputStream().flush();
+	}
+
+	private void awaitRead(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+			connection.read();
+			Thread.sleep(5);
+		}
+		assertThat(condition.getAsBoolean()).isTrue();
+	}
+
+	/**
+	 * Whatever the controller gets in its next read, or an empty string when nothing arrives.
+	 */
+	private String received() throws IOException {
+		InputStream in = controller.getInputStream();
+		byte[] buffer = new byte[1024];
+		try {
+			int read = in.read(buffer);
+			return read < 0 ? "" : new String(buffer, 0, read, StandardCharsets.US_ASCII);
+		} catch (SocketTimeoutException e) {
+			return "";
+		}
+	}
+}
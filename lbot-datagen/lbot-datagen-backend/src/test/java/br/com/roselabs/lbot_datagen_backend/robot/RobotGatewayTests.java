@@ -0,0 +1,111 @@
+package br.com.roselabs.lbot_datagen_backend.robot;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RobotGatewayTests {
+
+	private FakeEnkiServer server;
+	private RobotGateway gateway;
+
+	@AfterEach
+	void tearDown() throws Exception {
+		if (gateway != null) {
+			gateway.stop();
+		}
+		if (server != null) {
+			server.close();
+		}
+	}
+
+	@Test
+	void completesEachCommandWhenTheRobotFinishesIt() throws Exception {
+		server = new FakeEnkiServer(0, 20);
+		gateway = start("sim=127.0.0.1:" + server.getPort());
+
+		RobotExecution first = gateway.execute("sim", "D10F;R90L;");
+		RobotExecution second = gateway.execute("sim", "D5B;");
+
+		second.getCompletion().get(5, TimeUnit.SECONDS);
+		assertThat(first.getCompletion()).isCompleted();
+		assertThat(first.getCommands()).extracting(RobotCommand::getCommand).containsExactly("D10F;", "R90L;");
+		assertThat(first.getCommands().get(1).getCompletion().join()).contains("R90L");
+		assertThat(second.getCommands().get(0).getCompletion().join()).contains("D5B");
+	}
+
+	@Test
+	void failsOnlyTheCommandTheRobotRejected() throws Exception {
+		server = new FakeEnkiServer(0, 5);
+		server.failOn("D13F");
+		gateway = start("127.0.0.1:" + server.getPort());
+
+		RobotExecution execution = gateway.execute("127.0.0.1:" + server.getPort(), "D1F;D13F;D2F;");
+
+		assertThatThrownBy(() -> execution.getCompletion().join())
+				.isInstanceOf(CompletionException.class)
+				.hasCauseInstanceOf(RobotLinkException.class);
+		assertThat(execution.getCommands().get(0).getCompletion().join()).contains("D1F");
+		assertThat(execution.getCommands().get(2).getCompletion().get(5, TimeUnit.SECONDS)).contains("D2F");
+	}
+
+	@Test
+	void reconnectsAfterTheLinkDrops() throws Exception {
+		server = new FakeEnkiServer(0, 200);
+		gateway = start("sim=127.0.0.1:" + server.getPort());
+
+		RobotExecution interrupted = gateway.execute("sim", "D10F;");
+		Thread.sleep(50);
+		server.dropClient();
+
+		assertThatThrownBy(() -> interrupted.getCompletion().get(5, TimeUnit.SECONDS))
+				.hasCauseInstanceOf(RobotLinkException.class);
+		awaitConnected("sim");
+		assertThat(server.getConnectionCount()).isEqualTo(2);
+		gateway.execute("sim", "D1F;").getCompletion().get(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void statusPollsNeverShareAReadWithMovements() throws Exception {
+		server = new FakeEnkiServer(0, 2);
+		gateway = start("sim=127.0.0.1:" + server.getPort(), Duration.ofMillis(1));
+
+		for (int i = 1; i <= 30; i++) {
+			gateway.execute("sim", "D" + i + "F;R" + i + "L;").getCompletion().get(5, TimeUnit.SECONDS);
+			Thread.sleep(3);
+		}
+
+		assertThat(server.getStatusReplies()).isPositive();
+		assertThat(server.getMisparsedStatusCount()).isZero();
+	}
+
+	private RobotGateway start(String endpoints) throws InterruptedException {
+		return start(endpoints, Duration.ZERO);
+	}
+
+	private RobotGateway start(String endpoints, Duration statusPollInterval) throws InterruptedException {
+		RobotGateway robotGateway = new RobotGateway(endpoints, Duration.ofMillis(20), Duration.ofMillis(200),
+				statusPollInterval);
+		robotGateway.start();
+		awaitConnected(robotGateway.getDefaultRobot().orElseThrow(), robotGateway);
+		return robotGateway;
+	}
+
+	private void awaitConnected(String robot) throws InterruptedException {
+		awaitConnected(robot, gateway);
+	}
+
+	private void awaitConnected(String robot, RobotGateway robotGateway) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!robotGateway.isConnected(robot) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(robotGateway.isConnected(robot)).isTrue();
+	}
+}
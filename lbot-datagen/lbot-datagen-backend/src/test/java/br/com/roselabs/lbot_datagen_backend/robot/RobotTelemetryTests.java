@@ -0,0 +1,35 @@
+package br.com.roselabs.lbot_datagen_backend.robot;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RobotTelemetryTests {
+
+	@Test
+	void parsesControllerStatusLines() {
+		RobotReply reply = RobotReply.parse("STATUS: pos=(10.00,-2.50) angle=1.57 left_speed=5.00 right_speed=-5.00");
+		RobotStatusSample sample = RobotStatusSample.parse(reply.getText(), 42);
+
+		assertThat(reply.getType()).isEqualTo(RobotReply.Type.STATUS);
+		assertThat(sample.getX()).isEqualTo(10.0);
+		assertThat(sample.getY()).isEqualTo(-2.5);
+		assertThat(sample.getAngle()).isEqualTo(1.57);
+		assertThat(sample.getRightSpeed()).isEqualTo(-5.0);
+		assertThat(sample.isMoving()).isTrue();
+		assertThat(RobotStatusSample.parse("pos=(1.0", 0)).isNull();
+	}
+
+	@Test
+	void ringBufferKeepsOnlyTheMostRecentSamples() {
+		TelemetryRingBuffer buffer = new TelemetryRingBuffer(4);
+		for (int i = 0; i < 10; i++) {
+			buffer.add(new RobotStatusSample(i, i, 0, 0, 0, 0));
+		}
+
+		assertThat(buffer.getPublishedCount()).isEqualTo(10);
+		assertThat(buffer.latest().getTimestampMillis()).isEqualTo(9);
+		assertThat(buffer.recent(100)).extracting(RobotStatusSample::getTimestampMillis).containsExactly(6L, 7L, 8L, 9L);
+		assertThat(buffer.recent(2)).extracting(RobotStatusSample::getTimestampMillis).containsExactly(8L, 9L);
+	}
+}
@@ -0,0 +1,132 @@
+package br.com.roselabs.lbot_datagen_backend.services;
+
+import br.com.roselabs.lbot_datagen_backend.admission.LlmAdmission;
+import br.com.roselabs.lbot_datagen_backend.cache.LlmResponseCache;
+import br.com.roselabs.lbot_datagen_backend.hedging.HedgedExecutor;
+import br.com.roselabs.lbot_datagen_backend.lbml.LbmlStreamListener;
+import br.com.roselabs.lbot_datagen_backend.metrics.PipelineMetrics;
+import br.com.roselabs.lbot_datagen_backend.pipeline.LbmlConversion;
+import br.com.roselabs.lbot_datagen_backend.prompts.PromptRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AIServiceTests {
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	private final PipelineMetrics metrics = new PipelineMetrics(new SimpleMeterRegistry());
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void listenerSeesTheFailedAttemptsCommandsBeforeTheRetry() {
+		ScriptedChatModel model = new ScriptedChatModel();
+		model.script("D1", "0F;R9", "0F;", "D20B;");
+		model.script("D1", "0F;", "R90", "L;");
+		AIService service = service(model);
+		List<String> events = new ArrayList<>();
+
+		LbmlConversion conversion = service.convertToLML("ande e vire", new LbmlStreamListener() {
+			@Override
+			public void onCommand(String command) {
+				events.add(command);
+			}
+
+			@Override
+			public void onRetry(int attempt, String reason) {
+				events.add("retry " + attempt);
+			}
+		});
+
+		assertThat(conversion.getLbml()).isEqualTo("D10F;R90L;");
+		assertThat(conversion.getAttempts()).isEqualTo(2);
+		assertThat(events).containsExactly("D10F;", "retry 1", "D10F;", "R90L;");
+		assertThat(model.calls).isEqualTo(2);
+	}
+
+	@Test
+	void repairedOutputForwardsOnlyTheCommandsTheStreamDidNotDeliver() {
+		ScriptedChatModel model = new ScriptedChatModel();
+		model.script("D40F;", "r90l;");
+		AIService service = service(model);
+		List<String> events = new ArrayList<>();
+
+		LbmlConversion conversion = service.convertToLML("ande e vire", events::add);
+
+		assertThat(conversion.getLbml()).isEqualTo("D40F;R90L;");
+		assertThat(conversion.getAttempts()).isEqualTo(1);
+		assertThat(events).containsExactly("D40F;", "R90L;");
+	}
+
+	@Test
+	void lowercaseDirectionIsRepairedInsteadOfAborted() {
+		ScriptedChatModel model = new ScriptedChatModel();
+		model.script("D40f;", "R90l;");
+		AIService service = service(model);
+		List<String> events = new ArrayList<>();
+
+		LbmlConversion conversion = service.convertToLML("ande e vire", events::add);
+
+		assertThat(conversion.getLbml()).isEqualTo("D40F;R90L;");
+		assertThat(conversion.getAttempts()).isEqualTo(1);
+		assertThat(events).containsExactly("D40F;", "R90L;");
+		assertThat(model.calls).isEqualTo(1);
+	}
+
+	private AIService service(ChatModel model) {
+		PromptRegistry prompts = new PromptRegistry("", Duration.ofSeconds(5));
+		prompts.loadAll();
+		AIService service = new AIService(model,
+				new LlmResponseCache(100, Duration.ofMinutes(1), "", new ObjectMapper()), prompts, metrics,
+				new HedgedExecutor(executor, metrics, false, false, 95, Duration.ofMillis(300), 0.1),
+				new LlmAdmission(metrics, true, 4, 4, Duration.ofSeconds(1), Duration.ofSeconds(1), 128, ""));
+		ReflectionTestUtils.setField(service, "streamingEnabled", true);
+		return service;
+	}
+
+	/**
+	 * Answers each streaming call with the next scripted list of chunks.
+	 */
+	private static final class ScriptedChatModel implements ChatModel {
+
+		private final Deque<List<String>> scripts = new ArrayDeque<>();
+		private int calls;
+
+		void script(String... chunks) {
+			scripts.add(List.of(chunks));
+		}
+
+		@Override
+		public ChatResponse call(Prompt prompt) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Flux<ChatResponse> stream(Prompt prompt) {
+			calls++;
+			return Flux.fromIterable(scripts.remove())
+					.map(chunk -> new ChatResponse(List.of(new Generation(new AssistantMessage(chunk)))));
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package br.com.roselabs.lbot_datagen_backend.services;
+
+import br.com.roselabs.lbot_datagen_backend.dtos.DatasetFilterDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.DatasetRowDto;
+import br.com.roselabs.lbot_datagen_backend.dtos.PromptRowDto;
+import br.com.roselabs.lbot_datagen_backend.repositories.MessageRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DatasetExportServiceTests {
+
+	private final UUID representative = UUID.randomUUID();
+	private final UUID duplicate = UUID.randomUUID();
+	private final UUID laterDuplicate = UUID.randomUUID();
+	private final UUID other = UUID.randomUUID();
+
+	@Test
+	void wellGradedDuplicateIsExportedWhenItsRepresentativeIsFilteredOut() throws Exception {
+		LocalDateTime now = LocalDateTime.now();
+		List<PromptRowDto> indexed = List.of(
+				new PromptRowDto(representative, "ande 100 cm para frente", now.minusMinutes(3)),
+				new PromptRowDto(duplicate, "Ande 100 cm para frente.", now.minusMinutes(2)),
+				new PromptRowDto(laterDuplicate, "ande 100 cm para frente", now.minusMinutes(1)),
+				new PromptRowDto(other, "vire 90 graus à direita", now));
+		// What the SQL filter minGrade >= 4 returns: the grade-1 representative is not among the rows.
+		List<DatasetRowDto> graded = List.of(
+				new DatasetRowDto(duplicate, "Ande 100 cm para frente.", "ande 100 cm para frente", "D100F;", 5, null),
+				new DatasetRowDto(laterDuplicate, "ande 100 cm para frente", "ande 100 cm para frente", "D100F;",
+						5, null),
+				new DatasetRowDto(other, "vire 90 graus à direita", "vire 90 graus à direita", "R90R;", 4, null));
+		MessageRepository repository = repository(indexed, graded);
+		NearDuplicateService nearDuplicates = new NearDuplicateService(repository, null,
+				new NoopTransactionManager(), true, 0.8, 512, 100, Duration.ofMillis(10), Duration.ofMillis(50));
+		nearDuplicates.start();
+		for (int i = 0; i < 500 && !nearDuplicates.getStats().isReady(); i++) {
+			Thread.sleep(10);
+		}
+		assertThat(nearDuplicates.clusterOf(duplicate)).isEqualTo(representative);
+		assertThat(nearDuplicates.clusterOf(laterDuplicate)).isEqualTo(representative);
+
+		DatasetExportService service = new DatasetExportService(repository, nearDuplicates, new ObjectMapper(),
+				new NoopTransactionManager(), 100);
+		DatasetFilterDto filter = new DatasetFilterDto();
+		filter.setMinGrade(4);
+		filter.setExcludeDuplicates(true);
+
+		List<String> lines = export(service, filter);
+
+		assertThat(lines).hasSize(2);
+		assertThat(lines.get(0)).contains("\"prompt\":\"Ande 100 cm para frente.\"", "\"grade\":5");
+		assertThat(lines.get(1)).contains("\"prompt\":\"vire 90 graus à direita\"");
+	}
+
+	private static List<String> export(DatasetExportService service, DatasetFilterDto filter) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		service.export(filter, DatasetExportService.Format.JSONL, false).writeTo(out);
+		return out.toString(StandardCharsets.UTF_8).lines().toList();
+	}
+
+	private static MessageRepository repository(List<PromptRowDto> indexed, List<DatasetRowDto> graded) {
+		return (MessageRepository) Proxy.newProxyInstance(MessageRepository.class.getClassLoader(),
+				new Class<?>[]{MessageRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+					case "findPromptChunk" -> indexed;
+					case "streamDataset" -> graded.stream();
+					default -> throw new UnsupportedOperationException(method.getName());
+				});
+	}
+
+	private static final class NoopTransactionManager implements PlatformTransactionManager {
+
+		@Override
+		public TransactionStatus getTransaction(TransactionDefinition definition) {
+			return new SimpleTransactionStatus();
+		}
+
+		@Override
+		public void commit(TransactionStatus status) {
+		}
+
+		@Override
+		public void rollback(TransactionStatus status) {
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package br.com.roselabs.lbot_datagen_backend.services;
+
+import br.com.roselabs.lbot_datagen_backend.dtos.PromptRowDto;
+import br.com.roselabs.lbot_datagen_backend.repositories.MessageRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NearDuplicateServiceTests {
+
+	@Test
+	void failedLoadIsRetriedFromTheLastChunkRead() throws InterruptedException {
+		UUID first = UUID.randomUUID();
+		UUID second = UUID.randomUUID();
+		UUID third = UUID.randomUUID();
+		List<UUID> cursors = Collections.synchronizedList(new ArrayList<>());
+		AtomicInteger calls = new AtomicInteger();
+		MessageRepository repository = chunks((after, limit) -> {
+			cursors.add(after);
+			return switch (calls.incrementAndGet()) {
+				case 1 -> List.of(row(first, "ande 100 cm para frente"), row(second, "vire 90 graus à direita"));
+				case 2 -> throw new IllegalStateException("conexão perdida");
+				default -> List.of(row(third, "ande 100 cm para frente"));
+			};
+		});
+		NearDuplicateService service = new NearDuplicateService(repository, null, new NoopTransactionManager(),
+				true, 0.8, 512, 2, Duration.ofMillis(10), Duration.ofMillis(50));
+
+		service.start();
+		for (int i = 0; i < 500 && !service.getStats().isReady(); i++) {
+			Thread.sleep(10);
+		}
+
+		assertThat(service.getStats().isReady()).isTrue();
+		assertThat(service.getStats().getIndexed()).isEqualTo(3);
+		assertThat(cursors).containsExactly(null, second, second);
+		assertThat(service.isDuplicate(third)).isTrue();
+	}
+
+	private static PromptRowDto row(UUID id, String normalizedPrompt) {
+		return new PromptRowDto(id, normalizedPrompt, LocalDateTime.now());
+	}
+
+	private interface ChunkSource {
+
+		List<PromptRowDto> next(UUID after, int limit);
+	}
+
+	private static MessageRepository chunks(ChunkSource source) {
+		return (MessageRepository) Proxy.newProxyInstance(MessageRepository.class.getClassLoader(),
+				new Class<?>[]{MessageRepository.class}, (proxy, method, args) -> {
+					if (method.getName().equals("findPromptChunk")) {
+						return source.next(null, ((Pageable) args[0]).getPageSize());
+					}
+					if (method.getName().equals("findPromptChunkAfter")) {
+						return source.next((UUID) args[1], ((Pageable) args[2]).getPageSize());
+					}
+					throw new UnsupportedOperationException(method.getName());
+				});
+	}
+
+	private static final class NoopTransactionManager implements PlatformTransactionManager {
+
+		@Override
+		public TransactionStatus getTransaction(TransactionDefinition definition) {
+			return new SimpleTransactionStatus();
+		}
+
+		@Override
+		public void commit(TransactionStatus status) {
+		}
+
+		@Override
+		public void rollback(TransactionStatus status) {
+		}
+	}
+}
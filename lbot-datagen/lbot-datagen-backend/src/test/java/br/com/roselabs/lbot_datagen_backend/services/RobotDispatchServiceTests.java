@@ -0,0 +1,44 @@
+package br.com.roselabs.lbot_datagen_backend.services;
+
+import br.com.roselabs.lbot_datagen_backend.entities.Message;
+import br.com.roselabs.lbot_datagen_backend.entities.PipelineStatus;
+import br.com.roselabs.lbot_datagen_backend.repositories.MessageRepository;
+import br.com.roselabs.lbot_datagen_backend.tracing.MessageTraceRegistry;
+import br.com.roselabs.lbot_datagen_backend.tracing.TraceStage;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RobotDispatchServiceTests {
+
+	@Test
+	void programWithoutNetEffectIsNotSent() {
+		UUID id = UUID.randomUUID();
+		Message message = new Message();
+		message.setId(id);
+		message.setStatus(PipelineStatus.SUCCESS);
+		message.setOutput("R180R;R180R;");
+		message.setCommandCount(2);
+		message.setOptimizedCommandCount(0);
+		MessageTraceRegistry traces = new MessageTraceRegistry(100);
+		// No gateway: sending anything would fail the test.
+		RobotDispatchService service = new RobotDispatchService(null, repository(message), traces, true);
+
+		assertThat(service.dispatch(id, "enki")).isEmpty();
+		assertThat(traces.find(id).orElseThrow().getTimelineMillis()).containsKey(TraceStage.DISPATCH_SKIPPED);
+	}
+
+	private static MessageRepository repository(Message message) {
+		return (MessageRepository) Proxy.newProxyInstance(MessageRepository.class.getClassLoader(),
+				new Class<?>[]{MessageRepository.class}, (proxy, method, args) -> {
+					if (method.getName().equals("findById")) {
+						return Optional.of(message).filter(m -> m.getId().equals(args[0]));
+					}
+					throw new UnsupportedOperationException(method.getName());
+				});
+	}
+}
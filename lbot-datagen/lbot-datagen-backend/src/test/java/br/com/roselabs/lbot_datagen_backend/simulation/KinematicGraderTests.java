@@ -0,0 +1,63 @@
+package br.com.roselabs.lbot_datagen_backend.simulation;
+
+import br.com.roselabs.lbot_datagen_backend.lbml.LbmlParser;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class KinematicGraderTests {
+
+	@Test
+	void sideMovesTurnBeforeMoving() {
+		KinematicState state = KinematicSimulator.run(LbmlParser.parse("D100F;D50L;R90R;D20B;"));
+
+		assertThat(state.getX()).isCloseTo(80, within(1e-9));
+		assertThat(state.getY()).isCloseTo(50, within(1e-9));
+		assertThat(state.getHeading()).isZero();
+		assertThat(state.getPathLength()).isCloseTo(170, within(1e-9));
+	}
+
+	@Test
+	void extractsPlainMoveAndTurnSequences() {
+		assertThat(LbmlParser.toLbml(ReferenceProgramExtractor.extract(
+				"Ande 200 cm para frente, depois vire 90 graus à direita e ande 30 cm para trás")))
+				.isEqualTo("D200F;R90R;D30B;");
+		assertThat(LbmlParser.toLbml(ReferenceProgramExtractor.extract("por favor, dê meia volta")))
+				.isEqualTo("R180L;");
+		assertThat(ReferenceProgramExtractor.extract("dance um pouco")).isNull();
+		assertThat(ReferenceProgramExtractor.extract("ande 20 ou 30 cm")).isNull();
+		assertThat(ReferenceProgramExtractor.extract("vire para a esquerda ou direita")).isNull();
+	}
+
+	@Test
+	void decimalSeparatorsDoNotSplitClauses() {
+		assertThat(LbmlParser.toLbml(ReferenceProgramExtractor.extract("ande 304.8 cm para frente")))
+				.isEqualTo("D305F;");
+		assertThat(LbmlParser.toLbml(ReferenceProgramExtractor.extract(
+				"avance 152,4 cm, vire 90 graus à esquerda. Recue 1,5 cm.")))
+				.isEqualTo("D152F;R90L;D2B;");
+		assertThat(ReferenceProgramExtractor.extract("avance 1,5 metro")).isNull();
+	}
+
+	@Test
+	void gradesByFinalPose() {
+		KinematicGrader grader = new KinematicGrader();
+		String prompt = "ande 100 cm para frente e vire à esquerda";
+
+		assertThat(grader.propose(prompt, "D100F;R90L;")).isEqualTo(5);
+		assertThat(grader.propose(prompt, "R90L;D100R;R90L;")).isEqualTo(5);
+		assertThat(grader.propose(prompt, "D95F;R90L;")).isEqualTo(4);
+		assertThat(grader.propose(prompt, "D100F;")).isEqualTo(2);
+		assertThat(grader.propose(prompt, "D100B;R90L;")).isEqualTo(1);
+		assertThat(grader.propose(prompt, "ande")).isEqualTo(1);
+		assertThat(grader.propose("faça algo divertido", "D100F;")).isEqualTo(KinematicGrader.UNGRADED);
+	}
+
+	@Test
+	void detoursLoseAPoint() {
+		KinematicGrader grader = new KinematicGrader();
+
+		assertThat(grader.propose("ande 100 cm para frente", "D100F;D100F;D100B;")).isEqualTo(4);
+	}
+}
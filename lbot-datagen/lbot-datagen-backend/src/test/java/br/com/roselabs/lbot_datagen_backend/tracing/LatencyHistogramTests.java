@@ -0,0 +1,34 @@
+package br.com.roselabs.lbot_datagen_backend.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTests {
+
+	@Test
+	void bucketsCoverEveryValueContiguously() {
+		for (long value = 0; value < 100_000; value++) {
+			int index = LatencyHistogram.indexOf(value);
+			assertThat(LatencyHistogram.upperBound(index)).isGreaterThanOrEqualTo(value);
+			if (index > 0) {
+				assertThat(LatencyHistogram.upperBound(index - 1)).isLessThan(value);
+			}
+		}
+	}
+
+	@Test
+	void percentilesStayWithinBucketPrecision() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long micros = 1; micros <= 10_000; micros++) {
+			histogram.record(micros);
+		}
+
+		assertThat(histogram.getCount()).isEqualTo(10_000);
+		assertThat(histogram.getMaxMicros()).isEqualTo(10_000);
+		assertThat((double) histogram.percentileMicros(50)).isCloseTo(5_000, within(5_000 * 0.125));
+		assertThat((double) histogram.percentileMicros(99)).isCloseTo(9_900, within(9_900 * 0.125));
+		assertThat(histogram.percentileMicros(100)).isEqualTo(10_000);
+	}
+}
@@ -1,12 +1,13 @@
 import { Injectable } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
-import { Observable } from 'rxjs';
+import { HttpClient, HttpErrorResponse } from '@angular/common/http';
+import { Observable, retry, throwError, timer } from 'rxjs';
 
 export interface ChatDto {
   id: string;
   createdAt: string;
-  messages: MessageDto[];
   observation: string | null;
+  version: number;
+  messageCount: number;
 }
 
 export interface MessageDto {
@@ -51,13 +52,21 @@ export class MessagesService {
     });
   }
 
-  // Enviar mensagem
-  sendMessage(request: MessageRequest): Observable<MessageDto> {
+  // Enviar mensagem. As novas tentativas reutilizam a mesma Idempotency-Key, então o backend
+  // devolve a resposta da primeira execução em vez de gerar outra mensagem.
+  sendMessage(request: MessageRequest, idempotencyKey: string = crypto.randomUUID()): Observable<MessageDto> {
     return this.http.post<MessageDto>(`${this.baseUrl}/messages`, request, {
       headers: {
-        'Content-Type': 'application/json'
+        'Content-Type': 'application/json',
+        'Idempotency-Key': idempotencyKey
       }
-    });
+    }).pipe(
+      retry({
+        count: 2,
+        delay: (error: HttpErrorResponse, attempt: number) =>
+          [0, 502, 503, 504].includes(error.status) ? timer(attempt * 1000) : throwError(() => error)
+      })
+    );
   }
 
   // Avaliar mensagem
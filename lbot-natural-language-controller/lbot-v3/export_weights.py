@@ -0,0 +1,52 @@
+"""Exporta os pesos do lbot_translator.pt para o formato binário lido pelo backend Java (GptWeights)."""
+import struct
+import sys
+
+import torch
+
+from lbot_local import GPTConfig  # noqa: F401 - necessário para desserializar o checkpoint
+
+MAGIC = b'LBT1'
+
+
+def export_weights(checkpoint_path='lbot_translator.pt', output_path='lbot_translator.bin'):
+    checkpoint = torch.load(checkpoint_path, map_location='cpu', weights_only=False)
+    config = checkpoint['config']
+    state = checkpoint['model']
+    itos = checkpoint['itos']
+
+    def tensor(name, shape):
+        value = state.get(name)
+        if value is None:
+            return torch.zeros(shape)
+        return value.float()
+
+    e = config.n_embd
+    with open(output_path, 'wb') as out:
+        out.write(MAGIC)
+        out.write(struct.pack('<5i', config.block_size, config.vocab_size, config.n_layer, config.n_head, e))
+        for i in range(config.vocab_size):
+            out.write(struct.pack('<i', ord(itos[i])))
+
+        names = ['transformer.wte.weight', 'transformer.wpe.weight']
+        for layer in range(config.n_layer):
+            prefix = f'transformer.h.{layer}.'
+            names += [prefix + suffix for suffix in (
+                'ln_1.weight', 'ln_1.bias',
+                'attn.c_attn.weight', 'attn.c_attn.bias',
+                'attn.c_proj.weight', 'attn.c_proj.bias',
+                'ln_2.weight', 'ln_2.bias',
+                'mlp.c_fc.weight', 'mlp.c_fc.bias',
+                'mlp.c_proj.weight', 'mlp.c_proj.bias',
+            )]
+        names += ['transformer.ln_f.weight', 'transformer.ln_f.bias']
+
+        for name in names:
+            shape = (state[name.replace('.bias', '.weight')].shape[0],) if name.endswith('.bias') else None
+            out.write(tensor(name, shape).contiguous().numpy().astype('<f4').tobytes())
+
+    print(f"✅ Pesos exportados para {output_path}")
+
+
+if __name__ == '__main__':
+    export_weights(*sys.argv[1:])